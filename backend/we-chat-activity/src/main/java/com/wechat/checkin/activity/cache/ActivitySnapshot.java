@@ -0,0 +1,68 @@
+package com.wechat.checkin.activity.cache;
+
+import com.wechat.checkin.activity.entity.Activity;
+import com.wechat.checkin.common.enums.ActivityStatusEnum;
+import com.wechat.checkin.common.validator.ParticipationActivityView;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 活动快照
+ * 参与流程（打卡、评价、列表展示）所需的活动字段，不可变，可安全地在线程间共享
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Value
+@Builder
+public class ActivitySnapshot implements ParticipationActivityView {
+
+    /**
+     * 活动ID
+     */
+    Long id;
+
+    /**
+     * 活动名称
+     */
+    String name;
+
+    /**
+     * 活动状态
+     */
+    ActivityStatusEnum status;
+
+    /**
+     * 开始时间
+     */
+    LocalDateTime startTime;
+
+    /**
+     * 结束时间
+     */
+    LocalDateTime endTime;
+
+    /**
+     * 县域范围（null表示全市）
+     */
+    String scopeCountyCode;
+
+    /**
+     * 从实体构建快照
+     *
+     * @param activity 活动实体
+     * @return 活动快照
+     */
+    public static ActivitySnapshot of(Activity activity) {
+        return ActivitySnapshot.builder()
+                .id(activity.getId())
+                .name(activity.getName())
+                .status(activity.getStatus())
+                .startTime(activity.getStartTime())
+                .endTime(activity.getEndTime())
+                .scopeCountyCode(activity.getScopeCountyCode())
+                .build();
+    }
+}
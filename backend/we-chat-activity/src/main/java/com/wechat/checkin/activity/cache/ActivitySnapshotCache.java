@@ -0,0 +1,99 @@
+package com.wechat.checkin.activity.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wechat.checkin.activity.entity.Activity;
+import com.wechat.checkin.activity.mapper.ActivityMapper;
+import com.wechat.checkin.common.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 活动快照缓存
+ * 活动进行期间打卡、评价和列表转换会反复读取同一活动，而活动只在创建和结束时变化，
+ * 因此缓存不可变快照以避免重复查询数据库
+ *
+ * 失效策略：
+ * - 创建、结束活动时失效对应条目（事务提交后再失效一次）
+ * - TTL兜底，防止其他节点的变更长期不可见
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class ActivitySnapshotCache {
+
+    private static final String CACHE_NAME = "activitySnapshot";
+
+    private final ActivityMapper activityMapper;
+    private final Cache<Long, ActivitySnapshot> cache;
+
+    public ActivitySnapshotCache(ActivityMapper activityMapper,
+                                 ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                 @Value("${activity.snapshot-cache.max-size:1000}") long maxSize,
+                                 @Value("${activity.snapshot-cache.ttl:PT10M}") Duration ttl) {
+        this.activityMapper = activityMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistryProvider.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+        log.info("活动快照缓存已初始化: maxSize={}, ttl={}", maxSize, ttl);
+    }
+
+    /**
+     * 获取活动快照（未命中时从数据库加载）
+     *
+     * @param activityId 活动ID
+     * @return 活动快照，活动不存在时返回null（不缓存）
+     */
+    public ActivitySnapshot get(Long activityId) {
+        if (activityId == null) {
+            return null;
+        }
+        return cache.get(activityId, key -> {
+            Activity activity = activityMapper.selectById(key);
+            return activity != null ? ActivitySnapshot.of(activity) : null;
+        });
+    }
+
+    /**
+     * 批量获取活动快照（未命中部分通过一次 IN 查询加载）
+     *
+     * @param activityIds 活动ID集合
+     * @return 活动ID到快照的映射，不存在的活动不包含在结果中
+     */
+    public Map<Long, ActivitySnapshot> getAll(Collection<Long> activityIds) {
+        if (activityIds == null || activityIds.isEmpty()) {
+            return Map.of();
+        }
+        return cache.getAll(activityIds, missing -> activityMapper.selectByIds(missing).stream()
+                .map(ActivitySnapshot::of)
+                .collect(Collectors.toMap(ActivitySnapshot::getId, Function.identity())));
+    }
+
+    /**
+     * 失效活动快照
+     *
+     * @param activityId 活动ID
+     */
+    public void evict(Long activityId) {
+        if (activityId == null) {
+            return;
+        }
+        cache.invalidate(activityId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(activityId));
+    }
+}
@@ -2,11 +2,13 @@ package com.wechat.checkin.activity.controller;
 
 import com.wechat.checkin.activity.dto.ActivityQueryRequest;
 import com.wechat.checkin.activity.dto.CreateActivityRequest;
+import com.wechat.checkin.activity.dto.FinishActivitiesRequest;
 import com.wechat.checkin.activity.service.ActivityService;
 import com.wechat.checkin.activity.vo.ActivityDetailVO;
 import com.wechat.checkin.activity.vo.ActivityVO;
 import com.wechat.checkin.auth.annotation.RequireRole;
 import com.wechat.checkin.auth.security.UserPrincipal;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.PageResult;
 import com.wechat.checkin.common.response.Result;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,8 +16,10 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 活动管理控制器
@@ -62,6 +66,23 @@ public class ActivityController {
         return Result.success(result);
     }
 
+    @Operation(summary = "游标分页查询活动列表", 
+            description = "按创建时间倒序游标分页，首次请求不带cursor，之后传入上一批返回的nextCursor；withTotal=true时额外返回总数")
+    @GetMapping("/scroll")
+    @RequireRole({"city", "county"})
+    public Result<CursorPage<ActivityVO>> scrollActivities(
+            @ModelAttribute ActivityQueryRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserPrincipal principal) {
+
+        CursorPage<ActivityVO> result = activityService.scrollActivities(
+                request,
+                principal.getRole(),
+                principal.getCountyCode()
+        );
+
+        return Result.success(result);
+    }
+
     @Operation(summary = "查询活动详情", description = "查询活动详细信息及参与统计数据")
     @GetMapping("/{id}")
     @RequireRole({"city", "county"})
@@ -95,6 +116,23 @@ public class ActivityController {
         return Result.success();
     }
 
+    @Operation(summary = "批量结束活动", description = "学期末集中结束多个活动，已结束的活动自动跳过，返回本次结束的数量（1.4.0新增）")
+    @PostMapping("/batch-finish")
+    @RequireRole({"city", "county"})
+    public Result<Integer> finishActivities(
+            @Valid @RequestBody FinishActivitiesRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserPrincipal principal) {
+
+        int finished = activityService.finishActivities(
+                request.getIds(),
+                principal.getId(),
+                principal.getRole(),
+                principal.getCountyCode()
+        );
+
+        return Result.success(finished);
+    }
+
     @Operation(summary = "禁用活动所有二维码", description = "禁用该活动的所有二维码（包括打卡和评价）")
     @PostMapping("/{id}/disable-qrcodes")
     @RequireRole({"city", "county"})
@@ -127,4 +165,18 @@ public class ActivityController {
 
         return Result.success(statistics);
     }
+
+    @Operation(summary = "订阅活动实时统计", description = "Server-Sent Events：订阅后先推送snapshot快照，之后每次打卡、评价推送update增量（1.4.0新增）")
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequireRole({"city", "county"})
+    public SseEmitter subscribeLive(
+            @Parameter(description = "活动ID") @PathVariable("id") Long activityId,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserPrincipal principal) {
+
+        return activityService.subscribeLive(
+                activityId,
+                principal.getRole(),
+                principal.getCountyCode()
+        );
+    }
 }
@@ -0,0 +1,61 @@
+package com.wechat.checkin.activity.controller;
+
+import com.wechat.checkin.activity.service.ActivityService;
+import com.wechat.checkin.activity.vo.ParticipantBootstrapVO;
+import com.wechat.checkin.common.response.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+/**
+ * 参与端控制器
+ * 无需登录，通过二维码令牌访问
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Tag(name = "参与端", description = "扫码后的参与端引导接口")
+@RestController
+@RequestMapping("/api/participant")
+@RequiredArgsConstructor
+public class ParticipantController {
+
+    private final ActivityService activityService;
+
+    @Value("${participant.bootstrap.max-age:PT30S}")
+    private Duration maxAge;
+
+    @Operation(summary = "扫码引导", description = "一次返回二维码验证结果、活动摘要和可选教学点；支持 If-None-Match 协商缓存（1.4.0新增）")
+    @GetMapping("/bootstrap")
+    public ResponseEntity<Result<ParticipantBootstrapVO>> bootstrap(
+            @Parameter(description = "二维码令牌", required = true) @RequestParam("token") String token,
+            @Parameter(description = "县域编码（可选，仅全市活动用于缩小教学点范围）") @RequestParam(value = "countyCode", required = false) String countyCode,
+            WebRequest webRequest) {
+
+        ParticipantBootstrapVO bootstrap = activityService.getParticipantBootstrap(token, countyCode);
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePrivate().mustRevalidate();
+
+        if (webRequest.checkNotModified(bootstrap.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(bootstrap.getEtag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(bootstrap.getEtag())
+                .body(Result.success(bootstrap));
+    }
+}
@@ -21,4 +21,10 @@ public class ActivityQueryRequest {
 
     @Schema(description = "每页大小", example = "10")
     private Integer size = 10;
+
+    @Schema(description = "游标分页的游标，首批为空，之后传入上一批返回的nextCursor")
+    private String cursor;
+
+    @Schema(description = "游标分页是否返回总记录数（额外执行一次计数），默认false", example = "false")
+    private Boolean withTotal = false;
 }
@@ -0,0 +1,21 @@
+package com.wechat.checkin.activity.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量结束活动请求DTO
+ */
+@Data
+@Schema(description = "批量结束活动请求")
+public class FinishActivitiesRequest {
+
+    @NotEmpty(message = "活动ID列表不能为空")
+    @Size(max = 500, message = "单次最多结束500个活动")
+    @Schema(description = "活动ID列表", example = "[1, 2, 3]")
+    private List<Long> ids;
+}
@@ -2,6 +2,7 @@ package com.wechat.checkin.activity.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
 import com.wechat.checkin.common.enums.ActivityStatusEnum;
+import com.wechat.checkin.common.validator.ParticipationActivityView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,7 +24,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
 @TableName("activities")
-public class Activity {
+public class Activity implements ParticipationActivityView {
 
     /**
      * 活动ID（主键，自增）
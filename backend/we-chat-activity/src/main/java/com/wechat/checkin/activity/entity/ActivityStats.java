@@ -0,0 +1,114 @@
+package com.wechat.checkin.activity.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 活动统计汇总实体类
+ * 对应数据库表：activity_stats（主键为 activity_id + county_code）
+ * county_code 为空串的行是活动汇总行，其余为县域分行
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("activity_stats")
+public class ActivityStats {
+
+    /**
+     * 活动汇总行的县域编码
+     */
+    public static final String TOTAL_COUNTY_CODE = "";
+
+    /**
+     * 活动ID
+     */
+    @TableField("activity_id")
+    private Long activityId;
+
+    /**
+     * 县域编码（空串表示活动汇总行）
+     */
+    @TableField("county_code")
+    private String countyCode;
+
+    /**
+     * 参与教学点数（打卡数）
+     */
+    @TableField("participated_count")
+    private Integer participatedCount;
+
+    /**
+     * 累计参与人数
+     */
+    @TableField("total_attendees")
+    private Integer totalAttendees;
+
+    /**
+     * 评价数
+     */
+    @TableField("evaluation_count")
+    private Integer evaluationCount;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedTime;
+
+    /**
+     * 构建空统计
+     *
+     * @param activityId 活动ID
+     * @return 各项为0的汇总行
+     */
+    public static ActivityStats empty(Long activityId) {
+        return ActivityStats.builder()
+                .activityId(activityId)
+                .countyCode(TOTAL_COUNTY_CODE)
+                .participatedCount(0)
+                .totalAttendees(0)
+                .evaluationCount(0)
+                .build();
+    }
+
+    /**
+     * 计算与另一行统计的差值（用于对账修正）
+     *
+     * @param observed 当前统计行（不存在时为null，差值即为本行）
+     * @return 差值行（本行 - 当前行）
+     */
+    public ActivityStats minus(ActivityStats observed) {
+        return ActivityStats.builder()
+                .activityId(activityId)
+                .countyCode(countyCode)
+                .participatedCount(participatedCount - (observed != null ? observed.participatedCount : 0))
+                .totalAttendees(totalAttendees - (observed != null ? observed.totalAttendees : 0))
+                .evaluationCount(evaluationCount - (observed != null ? observed.evaluationCount : 0))
+                .build();
+    }
+
+    /**
+     * 统计值是否一致（用于对账）
+     *
+     * @param other 另一行统计
+     * @return 是否一致
+     */
+    public boolean sameCounters(ActivityStats other) {
+        return other != null
+                && Objects.equals(participatedCount, other.participatedCount)
+                && Objects.equals(totalAttendees, other.totalAttendees)
+                && Objects.equals(evaluationCount, other.evaluationCount);
+    }
+}
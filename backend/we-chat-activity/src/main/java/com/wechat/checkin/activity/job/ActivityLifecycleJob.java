@@ -0,0 +1,169 @@
+package com.wechat.checkin.activity.job;
+
+import com.wechat.checkin.activity.mapper.JobLeaseMapper;
+import com.wechat.checkin.activity.service.ActivityService;
+import com.wechat.checkin.common.util.IdUtils;
+import com.wechat.checkin.qrcode.service.QrCodeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 活动生命周期清理任务
+ * 定期将已过打卡结束时间的进行中活动置为已结束（同时禁用打卡二维码），并禁用已过期的二维码
+ *
+ * 执行方式：
+ * - 按到期时间升序分批处理，每批一个事务，单次运行最多处理 max-batches 批
+ * - 多节点部署时通过 job_leases 表的租约行保证同一时刻只有一个节点执行，每批结束后续期
+ * - 状态变更后失效活动快照及二维码状态缓存
+ *
+ * 指标：
+ * - activity.lifecycle.lag：最早一条待处理记录已到期的时长（秒），kind=activity/qrcode
+ * - activity.lifecycle.batch.size：每批处理的记录数，kind=activity/qrcode
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class ActivityLifecycleJob {
+
+    private static final String LEASE_NAME = "activity-lifecycle";
+
+    private final ActivityService activityService;
+    private final QrCodeService qrCodeService;
+    private final JobLeaseMapper jobLeaseMapper;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration leaseTtl;
+    private final Duration qrcodeLookback;
+
+    /**
+     * 租约持有者标识（进程名+随机后缀，同一主机多实例也不冲突）
+     */
+    private final String owner;
+
+    private final AtomicLong activityLagSeconds = new AtomicLong();
+    private final AtomicLong qrcodeLagSeconds = new AtomicLong();
+    private final DistributionSummary activityBatchSize;
+    private final DistributionSummary qrcodeBatchSize;
+
+    public ActivityLifecycleJob(ActivityService activityService,
+                                QrCodeService qrCodeService,
+                                JobLeaseMapper jobLeaseMapper,
+                                ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                @Value("${activity.lifecycle.batch-size:200}") int batchSize,
+                                @Value("${activity.lifecycle.max-batches:20}") int maxBatches,
+                                @Value("${activity.lifecycle.lease-ttl:PT5M}") Duration leaseTtl,
+                                @Value("${activity.lifecycle.qrcode-lookback:P30D}") Duration qrcodeLookback) {
+        this.activityService = activityService;
+        this.qrCodeService = qrCodeService;
+        this.jobLeaseMapper = jobLeaseMapper;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.leaseTtl = leaseTtl;
+        this.qrcodeLookback = qrcodeLookback;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "-" + IdUtils.simpleUuid().substring(0, 8);
+
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("activity.lifecycle.lag", activityLagSeconds, AtomicLong::get)
+                .tag("kind", "activity")
+                .baseUnit("seconds")
+                .description("最早一个待自动结束的活动已超过结束时间的时长")
+                .register(registry);
+        Gauge.builder("activity.lifecycle.lag", qrcodeLagSeconds, AtomicLong::get)
+                .tag("kind", "qrcode")
+                .baseUnit("seconds")
+                .description("最早一个待禁用的过期二维码已超过过期时间的时长")
+                .register(registry);
+        this.activityBatchSize = DistributionSummary.builder("activity.lifecycle.batch.size")
+                .tag("kind", "activity")
+                .description("每批自动结束的活动数")
+                .register(registry);
+        this.qrcodeBatchSize = DistributionSummary.builder("activity.lifecycle.batch.size")
+                .tag("kind", "qrcode")
+                .description("每批禁用的过期二维码数")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${activity.lifecycle.sweep-interval:PT1M}",
+            initialDelayString = "${activity.lifecycle.sweep-interval:PT1M}")
+    public void sweep() {
+        if (!acquireLease()) {
+            log.debug("活动生命周期清理租约由其他节点持有，跳过本次执行");
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiredAfter = now.minus(qrcodeLookback);
+
+            activityLagSeconds.set(lagSeconds(activityService.oldestOverdueEndTime(), now));
+            int finished = drain(activityBatchSize, () -> activityService.finishOverdueActivities(batchSize));
+
+            qrcodeLagSeconds.set(lagSeconds(qrCodeService.oldestExpiredEnabledTime(expiredAfter), now));
+            int disabled = drain(qrcodeBatchSize, () -> qrCodeService.disableExpiredQrCodes(expiredAfter, batchSize));
+
+            if (finished > 0 || disabled > 0) {
+                log.info("活动生命周期清理完成: 自动结束活动={}, 禁用过期二维码={}", finished, disabled);
+            }
+        } catch (Exception e) {
+            log.error("活动生命周期清理失败", e);
+        } finally {
+            jobLeaseMapper.release(LEASE_NAME, owner);
+        }
+    }
+
+    /**
+     * 分批处理直到没有到期记录、达到单次最大批数或租约丢失
+     *
+     * @param summary 批大小指标
+     * @param batch 处理一批并返回处理数量
+     * @return 处理总数
+     */
+    private int drain(DistributionSummary summary, IntSupplier batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int processed = batch.getAsInt();
+            if (processed == 0) {
+                break;
+            }
+            summary.record(processed);
+            total += processed;
+            if (processed < batchSize) {
+                break;
+            }
+            if (!acquireLease()) {
+                log.warn("活动生命周期清理租约已丢失，停止本次执行");
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 获取或续期租约
+     *
+     * @return 当前节点是否持有租约
+     */
+    private boolean acquireLease() {
+        jobLeaseMapper.tryAcquire(LEASE_NAME, owner, leaseTtl.toSeconds());
+        return owner.equals(jobLeaseMapper.selectOwner(LEASE_NAME));
+    }
+
+    private static long lagSeconds(LocalDateTime dueTime, LocalDateTime now) {
+        return dueTime == null ? 0 : Math.max(0, Duration.between(dueTime, now).toSeconds());
+    }
+}
@@ -0,0 +1,37 @@
+package com.wechat.checkin.activity.job;
+
+import com.wechat.checkin.activity.service.ActivityStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 活动统计对账任务
+ * 定期从原始打卡、评价记录重新计算进行中及最近结束活动的统计，报告并修正偏差
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityStatsReconcileJob {
+
+    private final ActivityStatsService activityStatsService;
+
+    @Value("${activity.stats.reconcile-window:P7D}")
+    private Duration reconcileWindow;
+
+    @Scheduled(cron = "${activity.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        log.info("开始活动统计对账: 已结束活动窗口={}", reconcileWindow);
+        int drift = activityStatsService.reconcileRecentActivities(reconcileWindow);
+        if (drift > 0) {
+            log.warn("活动统计对账发现偏差并已修正: 偏差行数={}", drift);
+        }
+    }
+}
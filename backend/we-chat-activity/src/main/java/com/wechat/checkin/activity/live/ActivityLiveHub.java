@@ -0,0 +1,229 @@
+package com.wechat.checkin.activity.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.checkin.activity.entity.ActivityStats;
+import com.wechat.checkin.activity.service.ActivityStatsService;
+import com.wechat.checkin.activity.vo.ActivityLiveVO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 活动实时统计推送中心（SSE）
+ * 管理员订阅活动后，打卡、评价写入成功即推送增量，替代定时轮询全量统计
+ *
+ * 推送方式：
+ * - 订阅时读取一次汇总统计作为快照（snapshot），县域分行统计仅推送给市级订阅者
+ * - 事务提交后在异步线程处理参与事件，无订阅者时直接跳过；增量（update）直接取自事件，不再查询统计
+ * - 增量按活动逐条编号，县级订阅者看不到其他县区的教学点及县域编码
+ * - 每种可见范围的事件只序列化、构建一次，同一组SSE帧发送给所有订阅者
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityLiveHub {
+
+    private final ActivityStatsService activityStatsService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    /**
+     * 各活动的订阅频道
+     */
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    @Value("${activity.live.timeout:PT30M}")
+    private Duration timeout;
+
+    @PostConstruct
+    public void init() {
+        meterRegistryProvider.ifAvailable(registry -> Gauge.builder("activity.live.subscribers", this, ActivityLiveHub::subscriberCount)
+                .description("活动实时统计订阅数")
+                .register(registry));
+    }
+
+    /**
+     * 订阅活动实时统计，订阅成功后立即推送一次快照
+     *
+     * @param activityId 活动ID
+     * @param cityScope 是否市级订阅者（可见全部县域）
+     * @param countyCode 订阅者的县域编码
+     * @return SSE连接
+     */
+    public SseEmitter subscribe(Long activityId, boolean cityScope, String countyCode) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, cityScope, countyCode);
+        Channel channel = channels.compute(activityId, (key, current) -> {
+            Channel target = current != null ? current : new Channel();
+            target.subscribers().add(subscriber);
+            return target;
+        });
+
+        Runnable remove = () -> unsubscribe(activityId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // 先取序号再读统计：序号不大于快照序号的增量均已计入快照，客户端丢弃这些增量；
+        // 事务提交与异步推送之间的短暂窗口内，更大序号的增量也可能已计入，客户端可定期重新订阅校准
+        long sequence = channel.sequence().get();
+        ActivityStats totals = activityStatsService.getActivityTotals(activityId);
+        ActivityLiveVO snapshot = ActivityLiveVO.builder()
+                .activityId(activityId)
+                .event("snapshot")
+                .sequence(sequence)
+                .attendeeCount(0)
+                .participatedCount(totals.getParticipatedCount())
+                .totalAttendees(totals.getTotalAttendees())
+                .evaluationCount(totals.getEvaluationCount())
+                .countyStatistics(subscriber.cityScope() ? activityStatsService.listCountyStatistics(activityId) : null)
+                .timestamp(LocalDateTime.now())
+                .build();
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(serialize(snapshot), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        log.info("订阅活动实时统计: activityId={}, countyCode={}, 当前订阅数={}",
+                activityId, countyCode, channel.subscribers().size());
+        return emitter;
+    }
+
+    /**
+     * 处理参与事件（事务提交后异步执行；非事务内发布时立即执行）
+     *
+     * @param event 参与事件
+     */
+    @Async("taskExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParticipation(ParticipationEvent event) {
+        Channel channel = channels.get(event.activityId());
+        if (channel == null || channel.subscribers().isEmpty()) {
+            return;
+        }
+
+        ActivityLiveVO update = ActivityLiveVO.builder()
+                .activityId(event.activityId())
+                .event(event.type().name().toLowerCase())
+                .sequence(channel.sequence().incrementAndGet())
+                .teachingPointId(event.teachingPointId())
+                .countyCode(event.countyCode())
+                .attendeeCount(event.attendeeCount())
+                .timestamp(LocalDateTime.now())
+                .build();
+        Set<ResponseBodyEmitter.DataWithMediaType> visible = updateFrames(update);
+        Set<ResponseBodyEmitter.DataWithMediaType> redacted = null;
+
+        for (Subscriber subscriber : channel.subscribers()) {
+            if (subscriber.cityScope()
+                    || (event.countyCode() != null && event.countyCode().equals(subscriber.countyCode()))) {
+                send(event.activityId(), subscriber, visible);
+            } else {
+                if (redacted == null) {
+                    update.setTeachingPointId(null);
+                    update.setCountyCode(null);
+                    redacted = updateFrames(update);
+                }
+                send(event.activityId(), subscriber, redacted);
+            }
+        }
+    }
+
+    /**
+     * 定时发送心跳，防止代理断开空闲连接
+     */
+    @Scheduled(fixedRateString = "${activity.live.heartbeat:PT30S}")
+    public void heartbeat() {
+        if (channels.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frames = SseEmitter.event().comment("heartbeat").build();
+        channels.forEach((activityId, channel) ->
+                channel.subscribers().forEach(subscriber -> send(activityId, subscriber, frames)));
+    }
+
+    /**
+     * 构建增量的SSE帧（SseEventBuilder 每次 build 都会追加结束换行，须构建一次后复用结果）
+     */
+    private Set<ResponseBodyEmitter.DataWithMediaType> updateFrames(ActivityLiveVO update) {
+        return SseEmitter.event().name("update").data(serialize(update), MediaType.APPLICATION_JSON).build();
+    }
+
+    /**
+     * 发送给订阅者，发送失败的连接直接移除
+     */
+    private void send(Long activityId, Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frames) {
+        try {
+            subscriber.emitter().send(frames);
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(activityId, subscriber);
+        }
+    }
+
+    private String serialize(ActivityLiveVO payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("实时统计序列化失败", e);
+        }
+    }
+
+    private void unsubscribe(Long activityId, Subscriber subscriber) {
+        channels.computeIfPresent(activityId, (key, channel) -> {
+            channel.subscribers().remove(subscriber);
+            return channel.subscribers().isEmpty() ? null : channel;
+        });
+    }
+
+    private int subscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers().size()).sum();
+    }
+
+    /**
+     * 活动订阅频道
+     *
+     * @param subscribers 订阅者
+     * @param sequence 增量序号
+     */
+    private record Channel(List<Subscriber> subscribers, AtomicLong sequence) {
+
+        Channel() {
+            this(new CopyOnWriteArrayList<>(), new AtomicLong());
+        }
+    }
+
+    /**
+     * 订阅者
+     *
+     * @param emitter SSE连接
+     * @param cityScope 是否市级订阅者
+     * @param countyCode 县域编码
+     */
+    private record Subscriber(SseEmitter emitter, boolean cityScope, String countyCode) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.wechat.checkin.activity.live;
+
+/**
+ * 参与事件（打卡、评价写入成功后发布）
+ * 通过 Spring 事件总线在进程内传递，事务提交后由 ActivityLiveHub 推送给订阅者
+ *
+ * @param type 事件类型
+ * @param activityId 活动ID
+ * @param teachingPointId 教学点ID
+ * @param countyCode 教学点所属县域编码
+ * @param attendeeCount 本次打卡人数（评价事件为0）
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record ParticipationEvent(Type type, Long activityId, Long teachingPointId, String countyCode,
+                                 int attendeeCount) {
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        CHECKIN, EVALUATION
+    }
+
+    public static ParticipationEvent checkin(Long activityId, Long teachingPointId, String countyCode,
+                                             int attendeeCount) {
+        return new ParticipationEvent(Type.CHECKIN, activityId, teachingPointId, countyCode, attendeeCount);
+    }
+
+    public static ParticipationEvent evaluation(Long activityId, Long teachingPointId, String countyCode) {
+        return new ParticipationEvent(Type.EVALUATION, activityId, teachingPointId, countyCode, 0);
+    }
+}
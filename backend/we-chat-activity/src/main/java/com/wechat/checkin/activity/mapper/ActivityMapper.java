@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.wechat.checkin.activity.entity.Activity;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,54 +27,23 @@ public interface ActivityMapper extends BaseMapper<Activity> {
     // 更多方法请参考 MyBatis Plus 官方文档
 
     /**
-     * 根据活动ID统计参与教学点数量
-     * 
-     * @param activityId 活动ID
-     * @return 参与教学点数量
-     */
-    @Select("SELECT COUNT(DISTINCT teaching_point_id) FROM checkins WHERE activity_id = #{activityId}")
-    int countParticipatedTeachingPoints(@Param("activityId") Long activityId);
-
-    /**
-     * 根据活动ID统计总参与人数
-     * 
-     * @param activityId 活动ID
-     * @return 总参与人数
-     */
-    @Select("SELECT COALESCE(SUM(attendee_count), 0) FROM checkins WHERE activity_id = #{activityId}")
-    int countTotalAttendees(@Param("activityId") Long activityId);
-
-    /**
-     * 根据活动ID统计评价数量
-     * 
-     * @param activityId 活动ID
-     * @return 评价数量
-     */
-    @Select("SELECT COUNT(*) FROM evaluations WHERE activity_id = #{activityId}")
-    int countEvaluations(@Param("activityId") Long activityId);
-
-    /**
-     * 按县域统计打卡情况（v1.1.0新增）
+     * 按县域统计打卡情况（v1.1.0新增，1.4.0起读取 activity_stats 县域分行，县域名称由 CountyDirectory 填充）
      * 
      * @param activityId 活动ID
      * @return 县域统计列表
      */
     @Select("SELECT " +
-            "COALESCE(tp.county_code, 'UNKNOWN') as countyCode, " +
-            "COALESCE(ct.name, '未分类') as countyName, " +
-            "COUNT(DISTINCT c.teaching_point_id) as participatingPoints, " +
-            "COALESCE(SUM(c.attendee_count), 0) as totalAttendees, " +
-            "COUNT(*) as totalCheckins " +
-            "FROM checkins c " +
-            "LEFT JOIN teaching_points tp ON c.teaching_point_id = tp.id " +
-            "LEFT JOIN counties ct ON tp.county_code = ct.code " +
-            "WHERE c.activity_id = #{activityId} " +
-            "GROUP BY tp.county_code " +
-            "ORDER BY tp.county_code")
+            "s.county_code as countyCode, " +
+            "s.participated_count as participatingPoints, " +
+            "s.total_attendees as totalAttendees, " +
+            "s.participated_count as totalCheckins " +
+            "FROM activity_stats s " +
+            "WHERE s.activity_id = #{activityId} AND s.county_code != '' AND s.participated_count > 0 " +
+            "ORDER BY s.county_code")
     List<java.util.Map<String, Object>> selectCountyCheckinStatistics(@Param("activityId") Long activityId);
 
     /**
-     * 查询活动的所有打卡详情（v1.1.0新增）
+     * 查询活动的所有打卡详情（v1.1.0新增，1.4.0起教学点与县域信息由目录填充，不再关联查询）
      * 
      * @param activityId 活动ID
      * @return 打卡详情列表
@@ -81,15 +51,31 @@ public interface ActivityMapper extends BaseMapper<Activity> {
     @Select("SELECT " +
             "c.id, " +
             "c.teaching_point_id as teachingPointId, " +
-            "COALESCE(tp.name, '未知教学点') as teachingPointName, " +
-            "COALESCE(tp.county_code, 'UNKNOWN') as countyCode, " +
-            "COALESCE(ct.name, '未分类') as countyName, " +
             "c.attendee_count as attendeeCount, " +
             "c.submitted_time as submittedTime " +
             "FROM checkins c " +
-            "LEFT JOIN teaching_points tp ON c.teaching_point_id = tp.id " +
-            "LEFT JOIN counties ct ON tp.county_code = ct.code " +
-            "WHERE c.activity_id = #{activityId} " +
-            "ORDER BY tp.county_code, c.submitted_time DESC")
+            "WHERE c.activity_id = #{activityId}")
     List<java.util.Map<String, Object>> selectCheckinDetails(@Param("activityId") Long activityId);
+
+    /**
+     * 查询已过打卡结束时间但仍进行中的活动ID（按结束时间升序）
+     * 由 idx_activities_status_end_time 支撑：按索引顺序读取，取满 limit 即停止，无需文件排序
+     *
+     * @param now 当前时间
+     * @param limit 最大数量
+     * @return 活动ID列表
+     */
+    @Select("SELECT id FROM activities WHERE status = 'ongoing' AND end_time <= #{now} " +
+            "ORDER BY end_time LIMIT #{limit}")
+    List<Long> selectOverdueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 查询最早一个已过打卡结束时间但仍进行中的活动的结束时间
+     * 由 idx_activities_status_end_time 支撑，只读取索引中的第一条
+     *
+     * @param now 当前时间
+     * @return 结束时间，没有时为null
+     */
+    @Select("SELECT MIN(end_time) FROM activities WHERE status = 'ongoing' AND end_time <= #{now}")
+    LocalDateTime selectOldestOverdueEndTime(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,140 @@
+package com.wechat.checkin.activity.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wechat.checkin.activity.entity.ActivityStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 活动统计汇总数据访问层
+ * 增量方法从刚写入的打卡/评价行计算增量（须与写入处于同一事务），并通过 ON DUPLICATE KEY UPDATE 累加
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Mapper
+public interface ActivityStatsMapper extends BaseMapper<ActivityStats> {
+
+    /**
+     * 累加活动汇总行的打卡统计
+     *
+     * @param activityId 活动ID
+     * @param teachingPointIds 本次新写入打卡的教学点ID
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO activity_stats (activity_id, county_code, participated_count, total_attendees, evaluation_count)",
+            "SELECT #{activityId}, '', COUNT(*), COALESCE(SUM(attendee_count), 0), 0",
+            "FROM checkins WHERE activity_id = #{activityId} AND teaching_point_id IN",
+            "<foreach collection='teachingPointIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "ON DUPLICATE KEY UPDATE participated_count = participated_count + VALUES(participated_count),",
+            "total_attendees = total_attendees + VALUES(total_attendees)",
+            "</script>"})
+    int addCheckinTotals(@Param("activityId") Long activityId,
+                         @Param("teachingPointIds") Collection<Long> teachingPointIds);
+
+    /**
+     * 累加县域分行的打卡统计
+     *
+     * @param activityId 活动ID
+     * @param teachingPointIds 本次新写入打卡的教学点ID
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO activity_stats (activity_id, county_code, participated_count, total_attendees, evaluation_count)",
+            "SELECT c.activity_id, tp.county_code, COUNT(*), COALESCE(SUM(c.attendee_count), 0), 0",
+            "FROM checkins c JOIN teaching_points tp ON c.teaching_point_id = tp.id",
+            "WHERE c.activity_id = #{activityId} AND c.teaching_point_id IN",
+            "<foreach collection='teachingPointIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "GROUP BY c.activity_id, tp.county_code",
+            "ON DUPLICATE KEY UPDATE participated_count = participated_count + VALUES(participated_count),",
+            "total_attendees = total_attendees + VALUES(total_attendees)",
+            "</script>"})
+    int addCheckinCountyTotals(@Param("activityId") Long activityId,
+                               @Param("teachingPointIds") Collection<Long> teachingPointIds);
+
+    /**
+     * 累加活动汇总行的评价统计
+     *
+     * @param activityId 活动ID
+     * @param teachingPointIds 本次新写入评价的教学点ID
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO activity_stats (activity_id, county_code, participated_count, total_attendees, evaluation_count)",
+            "SELECT #{activityId}, '', 0, 0, COUNT(*)",
+            "FROM evaluations WHERE activity_id = #{activityId} AND teaching_point_id IN",
+            "<foreach collection='teachingPointIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "ON DUPLICATE KEY UPDATE evaluation_count = evaluation_count + VALUES(evaluation_count)",
+            "</script>"})
+    int addEvaluationTotals(@Param("activityId") Long activityId,
+                            @Param("teachingPointIds") Collection<Long> teachingPointIds);
+
+    /**
+     * 累加县域分行的评价统计
+     *
+     * @param activityId 活动ID
+     * @param teachingPointIds 本次新写入评价的教学点ID
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO activity_stats (activity_id, county_code, participated_count, total_attendees, evaluation_count)",
+            "SELECT e.activity_id, tp.county_code, 0, 0, COUNT(*)",
+            "FROM evaluations e JOIN teaching_points tp ON e.teaching_point_id = tp.id",
+            "WHERE e.activity_id = #{activityId} AND e.teaching_point_id IN",
+            "<foreach collection='teachingPointIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "GROUP BY e.activity_id, tp.county_code",
+            "ON DUPLICATE KEY UPDATE evaluation_count = evaluation_count + VALUES(evaluation_count)",
+            "</script>"})
+    int addEvaluationCountyTotals(@Param("activityId") Long activityId,
+                                  @Param("teachingPointIds") Collection<Long> teachingPointIds);
+
+    /**
+     * 锁定活动的全部统计行（对账用，锁定期间打卡、评价的统计累加会等待）
+     * 按主键前缀范围加锁，可重复读隔离级别下同时锁住间隙，新县域分行也无法插入
+     *
+     * @param activityId 活动ID
+     * @return 当前统计行
+     */
+    @Select("SELECT activity_id, county_code, participated_count, total_attendees, evaluation_count, updated_time " +
+            "FROM activity_stats WHERE activity_id = #{activityId} FOR UPDATE")
+    List<ActivityStats> selectForUpdate(@Param("activityId") Long activityId);
+
+    /**
+     * 按差值修正统计行（行不存在时以差值插入）
+     *
+     * @param correction 差值
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO activity_stats (activity_id, county_code, participated_count, total_attendees, evaluation_count) " +
+            "VALUES (#{activityId}, #{countyCode}, #{participatedCount}, #{totalAttendees}, #{evaluationCount}) " +
+            "ON DUPLICATE KEY UPDATE participated_count = participated_count + VALUES(participated_count), " +
+            "total_attendees = total_attendees + VALUES(total_attendees), " +
+            "evaluation_count = evaluation_count + VALUES(evaluation_count)")
+    int applyCorrection(ActivityStats correction);
+
+    /**
+     * 从原始打卡、评价记录重新计算活动的汇总行和县域分行（用于对账）
+     *
+     * @param activityId 活动ID
+     * @return 重新计算的统计行
+     */
+    @Select("SELECT #{activityId} AS activityId, '' AS countyCode, " +
+            "(SELECT COUNT(*) FROM checkins WHERE activity_id = #{activityId}) AS participatedCount, " +
+            "(SELECT COALESCE(SUM(attendee_count), 0) FROM checkins WHERE activity_id = #{activityId}) AS totalAttendees, " +
+            "(SELECT COUNT(*) FROM evaluations WHERE activity_id = #{activityId}) AS evaluationCount " +
+            "UNION ALL " +
+            "SELECT #{activityId}, x.county_code, SUM(x.p), SUM(x.t), SUM(x.e) FROM (" +
+            "SELECT tp.county_code, 1 AS p, c.attendee_count AS t, 0 AS e " +
+            "FROM checkins c JOIN teaching_points tp ON c.teaching_point_id = tp.id WHERE c.activity_id = #{activityId} " +
+            "UNION ALL " +
+            "SELECT tp.county_code, 0, 0, 1 " +
+            "FROM evaluations ev JOIN teaching_points tp ON ev.teaching_point_id = tp.id WHERE ev.activity_id = #{activityId}" +
+            ") x GROUP BY x.county_code")
+    List<ActivityStats> computeFromRawRows(@Param("activityId") Long activityId);
+}
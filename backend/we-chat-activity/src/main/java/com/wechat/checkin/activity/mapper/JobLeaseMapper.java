@@ -0,0 +1,53 @@
+package com.wechat.checkin.activity.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 定时任务租约数据访问层
+ * 多节点部署时以 job_leases 表中的租约行保证同一任务同一时刻只在一个节点执行，时间以数据库时钟为准
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Mapper
+public interface JobLeaseMapper {
+
+    /**
+     * 尝试获取或续期租约
+     * 租约不存在、已过期或已由自己持有时写入自己并延长有效期，否则保持不变；结果须通过 selectOwner 确认
+     *
+     * @param name 任务名称
+     * @param owner 持有者
+     * @param seconds 租约有效期（秒）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO job_leases (name, owner, lease_until) " +
+            "VALUES (#{name}, #{owner}, DATE_ADD(NOW(), INTERVAL #{seconds} SECOND)) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "owner = IF(lease_until <= NOW() OR owner = VALUES(owner), VALUES(owner), owner), " +
+            "lease_until = IF(owner = VALUES(owner), VALUES(lease_until), lease_until)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("seconds") long seconds);
+
+    /**
+     * 查询租约持有者
+     *
+     * @param name 任务名称
+     * @return 持有者
+     */
+    @Select("SELECT owner FROM job_leases WHERE name = #{name}")
+    String selectOwner(@Param("name") String name);
+
+    /**
+     * 释放租约（仅持有者可释放）
+     *
+     * @param name 任务名称
+     * @param owner 持有者
+     * @return 影响行数
+     */
+    @Update("UPDATE job_leases SET lease_until = NOW() WHERE name = #{name} AND owner = #{owner}")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,16 @@
+package com.wechat.checkin.activity.participant;
+
+import com.wechat.checkin.activity.cache.ActivitySnapshot;
+
+/**
+ * 预先序列化的参与端活动上下文
+ *
+ * @param activity      构建时的活动快照（用于判断是否过期）
+ * @param pointsVersion 构建时的教学点目录版本
+ * @param json          序列化后的JSON
+ * @param etag          JSON摘要
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record ParticipantContext(ActivitySnapshot activity, long pointsVersion, String json, String etag) {
+}
@@ -0,0 +1,133 @@
+package com.wechat.checkin.activity.participant;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wechat.checkin.activity.cache.ActivitySnapshot;
+import com.wechat.checkin.activity.cache.ActivitySnapshotCache;
+import com.wechat.checkin.activity.vo.ParticipantActivityVO;
+import com.wechat.checkin.activity.vo.ParticipantContextVO;
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.county.directory.CountyDirectory;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointDirectory;
+import com.wechat.checkin.teachingpoint.service.TeachingPointService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 参与端活动上下文缓存
+ * 同一活动、同一县域的所有参与者看到的活动摘要和教学点列表完全相同，
+ * 因此按（活动，县域）预先序列化为JSON并计算ETag，扫码引导接口直接复用
+ *
+ * 失效策略：
+ * - 条目记录构建时的活动快照实例和教学点目录版本，任一变化即重建
+ * - TTL兜底（县域名称变化等）
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class ParticipantContextCache {
+
+    private static final String CACHE_NAME = "participantContext";
+
+    private final ActivitySnapshotCache activitySnapshotCache;
+    private final TeachingPointDirectory teachingPointDirectory;
+    private final TeachingPointService teachingPointService;
+    private final CountyDirectory countyDirectory;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, ParticipantContext> cache;
+
+    public ParticipantContextCache(ActivitySnapshotCache activitySnapshotCache,
+                                   TeachingPointDirectory teachingPointDirectory,
+                                   TeachingPointService teachingPointService,
+                                   CountyDirectory countyDirectory,
+                                   ObjectMapper objectMapper,
+                                   ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                   @Value("${participant.context-cache.max-size:1000}") long maxSize,
+                                   @Value("${participant.context-cache.ttl:PT5M}") Duration ttl) {
+        this.activitySnapshotCache = activitySnapshotCache;
+        this.teachingPointDirectory = teachingPointDirectory;
+        this.teachingPointService = teachingPointService;
+        this.countyDirectory = countyDirectory;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistryProvider.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+        log.info("参与端活动上下文缓存已初始化: maxSize={}, ttl={}", maxSize, ttl);
+    }
+
+    /**
+     * 获取活动上下文
+     * 县级活动固定使用活动县域；全市活动可按请求的县域缩小教学点范围
+     *
+     * @param activityId 活动ID
+     * @param countyCode 请求的县域编码（可为空）
+     * @return 活动上下文，活动不存在时返回null
+     */
+    public ParticipantContext get(Long activityId, String countyCode) {
+        ActivitySnapshot activity = activitySnapshotCache.get(activityId);
+        if (activity == null) {
+            return null;
+        }
+        String effectiveCounty = activity.getScopeCountyCode() != null ? activity.getScopeCountyCode() : countyCode;
+        Key key = new Key(activityId, effectiveCounty != null ? effectiveCounty : "");
+        long pointsVersion = teachingPointDirectory.version();
+
+        ParticipantContext cached = cache.getIfPresent(key);
+        if (cached != null && cached.activity() == activity && cached.pointsVersion() == pointsVersion) {
+            return cached;
+        }
+        ParticipantContext built = build(activity, effectiveCounty, pointsVersion);
+        cache.put(key, built);
+        return built;
+    }
+
+    private ParticipantContext build(ActivitySnapshot activity, String countyCode, long pointsVersion) {
+        ParticipantActivityVO activityVO = ParticipantActivityVO.builder()
+                .id(activity.getId())
+                .name(activity.getName())
+                .status(activity.getStatus())
+                .statusDesc(activity.getStatus() != null ? activity.getStatus().getDescription() : null)
+                .startTime(activity.getStartTime())
+                .endTime(activity.getEndTime())
+                .scopeCountyCode(activity.getScopeCountyCode())
+                .scopeCountyName(activity.getScopeCountyCode() != null
+                        ? countyDirectory.getName(activity.getScopeCountyCode(), activity.getScopeCountyCode())
+                        : "全市")
+                .build();
+        ParticipantContextVO context = new ParticipantContextVO(activityVO,
+                teachingPointService.listTeachingPointOptions(countyCode));
+        try {
+            String json = objectMapper.writeValueAsString(context);
+            String etag = DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8));
+            return new ParticipantContext(activity, pointsVersion, json, etag);
+        } catch (JsonProcessingException e) {
+            log.error("序列化参与端活动上下文失败: activityId={}", activity.getId(), e);
+            throw new BusinessException(ResultCode.SYSTEM_ERROR);
+        }
+    }
+
+    /**
+     * 缓存键
+     *
+     * @param activityId 活动ID
+     * @param countyCode 县域编码（全部县域为空字符串）
+     */
+    private record Key(Long activityId, String countyCode) {
+    }
+}
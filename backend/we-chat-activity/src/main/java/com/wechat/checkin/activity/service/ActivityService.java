@@ -4,7 +4,13 @@ import com.wechat.checkin.activity.dto.ActivityQueryRequest;
 import com.wechat.checkin.activity.dto.CreateActivityRequest;
 import com.wechat.checkin.activity.vo.ActivityDetailVO;
 import com.wechat.checkin.activity.vo.ActivityVO;
+import com.wechat.checkin.activity.vo.ParticipantBootstrapVO;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.PageResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 活动服务接口
@@ -32,6 +38,16 @@ public interface ActivityService {
      */
     PageResult<ActivityVO> listActivities(ActivityQueryRequest request, Long adminId, String adminRole, String countyCode);
 
+    /**
+     * 游标分页查询活动列表（按创建时间、ID倒序，不受翻页深度影响）
+     *
+     * @param request 查询请求（使用 cursor、size、withTotal）
+     * @param adminRole 管理员角色
+     * @param countyCode 管理员县域编码
+     * @return 活动列表游标分页结果
+     */
+    CursorPage<ActivityVO> scrollActivities(ActivityQueryRequest request, String adminRole, String countyCode);
+
     /**
      * 查询活动详情
      *
@@ -52,6 +68,33 @@ public interface ActivityService {
      */
     void finishActivity(Long activityId, Long adminId, String adminRole, String countyCode);
 
+    /**
+     * 批量结束活动（学期末集中结束）
+     * 在同一事务中以单条UPDATE结束活动、单条UPDATE禁用打卡二维码，已结束的活动自动跳过
+     *
+     * @param activityIds 活动ID列表
+     * @param adminId 管理员ID
+     * @param adminRole 管理员角色
+     * @param countyCode 管理员县域编码
+     * @return 本次结束的活动数量
+     */
+    int finishActivities(List<Long> activityIds, Long adminId, String adminRole, String countyCode);
+
+    /**
+     * 自动结束已过打卡结束时间的进行中活动（定时任务调用，单批单事务）
+     *
+     * @param batchSize 单批最大数量
+     * @return 本批结束的活动数量
+     */
+    int finishOverdueActivities(int batchSize);
+
+    /**
+     * 最早一个已过打卡结束时间但仍进行中的活动的结束时间（用于度量自动结束的滞后）
+     *
+     * @return 结束时间，没有时为null
+     */
+    LocalDateTime oldestOverdueEndTime();
+
     /**
      * 禁用活动的所有二维码
      *
@@ -72,4 +115,24 @@ public interface ActivityService {
      * @return 包含县域统计和打卡详情的活动详情VO
      */
     ActivityDetailVO getCountyCheckinStatistics(Long activityId, String adminRole, String countyCode);
+
+    /**
+     * 订阅活动实时统计（SSE）
+     *
+     * @param activityId 活动ID
+     * @param adminRole 管理员角色
+     * @param countyCode 管理员县域编码
+     * @return SSE连接
+     */
+    SseEmitter subscribeLive(Long activityId, String adminRole, String countyCode);
+
+    /**
+     * 参与端扫码引导
+     * 令牌只验证一次，返回验证结果、活动摘要和可选教学点（按活动和县域预先序列化）
+     *
+     * @param token 二维码令牌
+     * @param countyCode 县域编码（可选，仅全市活动用于缩小教学点范围）
+     * @return 扫码引导信息（含弱ETag）
+     */
+    ParticipantBootstrapVO getParticipantBootstrap(String token, String countyCode);
 }
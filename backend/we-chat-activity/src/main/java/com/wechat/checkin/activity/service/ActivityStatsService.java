@@ -0,0 +1,66 @@
+package com.wechat.checkin.activity.service;
+
+import com.wechat.checkin.activity.entity.ActivityStats;
+import com.wechat.checkin.activity.vo.CountyCheckinStatisticsVO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 活动统计汇总服务接口
+ * 维护 activity_stats 汇总表，使活动详情统计为 O(1) 读取
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public interface ActivityStatsService {
+
+    /**
+     * 累加打卡统计（须在打卡写入的同一事务中调用）
+     *
+     * @param activityId 活动ID
+     * @param teachingPointIds 本次新写入打卡的教学点ID
+     */
+    void recordCheckins(Long activityId, Collection<Long> teachingPointIds);
+
+    /**
+     * 累加评价统计（须在评价写入的同一事务中调用）
+     *
+     * @param activityId 活动ID
+     * @param teachingPointIds 本次新写入评价的教学点ID
+     */
+    void recordEvaluations(Long activityId, Collection<Long> teachingPointIds);
+
+    /**
+     * 查询活动汇总统计
+     *
+     * @param activityId 活动ID
+     * @return 活动汇总行（无数据时各项为0）
+     */
+    ActivityStats getActivityTotals(Long activityId);
+
+    /**
+     * 查询活动的县域打卡统计（读取县域分行）
+     *
+     * @param activityId 活动ID
+     * @return 县域统计列表
+     */
+    List<CountyCheckinStatisticsVO> listCountyStatistics(Long activityId);
+
+    /**
+     * 对账：从原始记录重新计算活动统计，存在偏差时修正
+     *
+     * @param activityId 活动ID
+     * @return 存在偏差的统计行数
+     */
+    int reconcile(Long activityId);
+
+    /**
+     * 对账进行中及最近结束的活动
+     *
+     * @param endedWithin 已结束活动的对账窗口
+     * @return 存在偏差的统计行总数
+     */
+    int reconcileRecentActivities(Duration endedWithin);
+}
@@ -3,35 +3,54 @@ package com.wechat.checkin.activity.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.wechat.checkin.activity.cache.ActivitySnapshotCache;
 import com.wechat.checkin.activity.dto.ActivityQueryRequest;
 import com.wechat.checkin.activity.dto.CreateActivityRequest;
 import com.wechat.checkin.activity.entity.Activity;
+import com.wechat.checkin.activity.entity.ActivityStats;
+import com.wechat.checkin.activity.live.ActivityLiveHub;
+import com.wechat.checkin.activity.participant.ParticipantContext;
+import com.wechat.checkin.activity.participant.ParticipantContextCache;
 import com.wechat.checkin.activity.mapper.ActivityMapper;
 import com.wechat.checkin.activity.service.ActivityService;
+import com.wechat.checkin.activity.service.ActivityStatsService;
 import com.wechat.checkin.activity.vo.ActivityDetailVO;
 import com.wechat.checkin.activity.vo.ActivityVO;
 import com.wechat.checkin.activity.vo.CheckinDetailVO;
 import com.wechat.checkin.activity.vo.CountyCheckinStatisticsVO;
-import com.wechat.checkin.auth.entity.Admin;
-import com.wechat.checkin.auth.mapper.AdminMapper;
+import com.wechat.checkin.activity.vo.ParticipantBootstrapVO;
+import com.wechat.checkin.auth.directory.AdminDirectory;
 import com.wechat.checkin.common.enums.ActivityStatusEnum;
 import com.wechat.checkin.common.enums.QrCodeTypeEnum;
 import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.PageResult;
 import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.common.util.KeysetPagination;
 import com.wechat.checkin.common.util.StringUtils;
-import com.wechat.checkin.qrcode.dto.GenerateQrCodeRequest;
+import com.wechat.checkin.county.directory.CountyDirectory;
 import com.wechat.checkin.qrcode.entity.QrCode;
 import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
 import com.wechat.checkin.qrcode.service.QrCodeService;
 import com.wechat.checkin.qrcode.vo.QrCodeVO;
+import com.wechat.checkin.qrcode.vo.QrCodeVerifyResultVO;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointDirectory;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointEntry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -43,9 +62,15 @@ import java.util.stream.Collectors;
 public class ActivityServiceImpl implements ActivityService {
 
     private final ActivityMapper activityMapper;
-    private final AdminMapper adminMapper;
+    private final AdminDirectory adminDirectory;
+    private final CountyDirectory countyDirectory;
+    private final TeachingPointDirectory teachingPointDirectory;
+    private final ParticipantContextCache participantContextCache;
     private final QrCodeService qrCodeService;
     private final QrCodeMapper qrCodeMapper;
+    private final ActivitySnapshotCache activitySnapshotCache;
+    private final ActivityStatsService activityStatsService;
+    private final ActivityLiveHub activityLiveHub;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -66,6 +91,7 @@ public class ActivityServiceImpl implements ActivityService {
 
         // 插入数据库（使用MyBatis Plus的insert方法）
         activityMapper.insert(activity);
+        activitySnapshotCache.evict(activity.getId());
 
         log.info("活动创建成功，活动ID: {}, 创建人: {}, 角色: {}, 县域: {}", 
                 activity.getId(), adminId, adminRole, activity.getScopeCountyCode());
@@ -85,31 +111,50 @@ public class ActivityServiceImpl implements ActivityService {
     @Override
     public PageResult<ActivityVO> listActivities(ActivityQueryRequest request, Long adminId, String adminRole, String countyCode) {
         log.info("查询活动列表，操作员ID: {}, 操作员Role: {}, 县域: {}", adminId, adminRole, countyCode);
-        
-        // 权限过滤：县级管理员只能查看本区活动
-        String filterCountyCode = "county".equals(adminRole) ? countyCode : request.getCountyCode();
 
         // 构建查询条件（使用LambdaQueryWrapper）
-        LambdaQueryWrapper<Activity> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(StringUtils.isNotEmpty(request.getStatus()), Activity::getStatus, request.getStatus())
-               .and(StringUtils.isNotEmpty(filterCountyCode), w -> 
-                   w.eq(Activity::getScopeCountyCode, filterCountyCode)
-                    .or()
-                    .isNull(Activity::getScopeCountyCode))  // 全市活动（scopeCountyCode为null）对县级可见
-               .orderByDesc(Activity::getCreatedTime);
+        LambdaQueryWrapper<Activity> wrapper = buildQueryWrapper(request, adminRole, countyCode);
+        wrapper.orderByDesc(Activity::getCreatedTime);
 
         // 使用MyBatis Plus的Page对象进行分页查询
         Page<Activity> page = new Page<>(request.getPage(), request.getSize());
         Page<Activity> result = activityMapper.selectPage(page, wrapper);
 
         // 转换为VO
-        List<ActivityVO> voList = result.getRecords().stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
+        List<ActivityVO> voList = convertToVOs(result.getRecords());
 
         return PageResult.success((long) request.getPage(), (long) request.getSize(), result.getTotal(), voList);
     }
 
+    @Override
+    public CursorPage<ActivityVO> scrollActivities(ActivityQueryRequest request, String adminRole, String countyCode) {
+        log.info("游标查询活动列表，操作员Role: {}, 县域: {}", adminRole, countyCode);
+
+        // 按 (created_time, id) 倒序，走 idx_activities_created_time
+        CursorPage<Activity> page = KeysetPagination.query(activityMapper,
+                buildQueryWrapper(request, adminRole, countyCode),
+                Activity::getCreatedTime, Activity::getId,
+                request.getCursor(), request.getSize() != null ? request.getSize().longValue() : null,
+                Boolean.TRUE.equals(request.getWithTotal()));
+        return page.convert(convertToVOs(page.getRecords()));
+    }
+
+    /**
+     * 构建活动列表过滤条件（不含排序）
+     */
+    private LambdaQueryWrapper<Activity> buildQueryWrapper(ActivityQueryRequest request, String adminRole, String countyCode) {
+        // 权限过滤：县级管理员只能查看本区活动
+        String filterCountyCode = "county".equals(adminRole) ? countyCode : request.getCountyCode();
+
+        LambdaQueryWrapper<Activity> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(StringUtils.isNotEmpty(request.getStatus()), Activity::getStatus, request.getStatus())
+               .and(StringUtils.isNotEmpty(filterCountyCode), w -> 
+                   w.eq(Activity::getScopeCountyCode, filterCountyCode)
+                    .or()
+                    .isNull(Activity::getScopeCountyCode));  // 全市活动（scopeCountyCode为null）对县级可见
+        return wrapper;
+    }
+
     @Override
     public ActivityDetailVO getActivityDetail(Long activityId, String adminRole, String countyCode) {
         // 查询活动
@@ -121,10 +166,8 @@ public class ActivityServiceImpl implements ActivityService {
         // 权限校验：县级管理员只能查看本县活动
         validateActivityPermission(activity, adminRole, countyCode);
 
-        // 查询统计数据
-        int participatedCount = activityMapper.countParticipatedTeachingPoints(activityId);
-        int totalAttendees = activityMapper.countTotalAttendees(activityId);
-        int evaluationCount = activityMapper.countEvaluations(activityId);
+        // 查询统计数据（读取统计汇总表）
+        ActivityStats stats = activityStatsService.getActivityTotals(activityId);
 
         // 获取二维码列表
         List<com.wechat.checkin.qrcode.vo.QrCodeVO> qrCodes = getQrCodesForActivity(activityId);
@@ -132,9 +175,9 @@ public class ActivityServiceImpl implements ActivityService {
         // 构建返回结果
         return ActivityDetailVO.builder()
                 .activity(convertToVO(activity))
-                .participatedCount(participatedCount)
-                .totalAttendees(totalAttendees)
-                .evaluationCount(evaluationCount)
+                .participatedCount(stats.getParticipatedCount())
+                .totalAttendees(stats.getTotalAttendees())
+                .evaluationCount(stats.getEvaluationCount())
                 .qrCodes(qrCodes)
                 .build();
     }
@@ -162,11 +205,12 @@ public class ActivityServiceImpl implements ActivityService {
                     .set(Activity::getStatus, ActivityStatusEnum.ENDED)
                     .set(Activity::getEndedTime, LocalDateTime.now());
         activityMapper.update(null, updateWrapper);
+        activitySnapshotCache.evict(activityId);
 
-        // 自动禁用该活动的所有二维码
+        // 禁用打卡二维码，保留评价二维码以支持活动后评价
         try {
-            disableQrCodesForActivityOptimized(activityId);
-            log.info("活动二维码已自动禁用，活动ID: {}", activityId);
+            int disabled = qrCodeService.disableQrCodesExcept(activityId, QrCodeTypeEnum.EVALUATION.getValue());
+            log.info("活动打卡二维码已禁用，评价二维码保留，活动ID: {}, 禁用数量: {}", activityId, disabled);
         } catch (Exception e) {
             log.error("禁用活动二维码失败，活动ID: {}", activityId, e);
             // 二维码禁用失败不影响活动结束
@@ -175,55 +219,84 @@ public class ActivityServiceImpl implements ActivityService {
         log.info("活动结束成功，活动ID: {}, 操作人: {}", activityId, adminId);
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int finishActivities(List<Long> activityIds, Long adminId, String adminRole, String countyCode) {
+        Set<Long> ids = new LinkedHashSet<>(activityIds);
+        log.info("批量结束活动，数量: {}, 操作人: {}", ids.size(), adminId);
+
+        // 一次查询全部活动并校验权限
+        List<Activity> activities = activityMapper.selectByIds(ids);
+        if (activities.size() != ids.size()) {
+            Set<Long> found = activities.stream().map(Activity::getId).collect(Collectors.toSet());
+            List<Long> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+            throw new BusinessException(ResultCode.NOT_FOUND, "活动不存在: " + missing);
+        }
+        activities.forEach(activity -> validateActivityPermission(activity, adminRole, countyCode));
+
+        // 已结束的活动跳过
+        List<Long> ongoingIds = activities.stream()
+                .filter(activity -> !ActivityStatusEnum.ENDED.equals(activity.getStatus()))
+                .map(Activity::getId)
+                .toList();
+        if (ongoingIds.isEmpty()) {
+            log.info("批量结束活动：所选活动均已结束");
+            return 0;
+        }
+
+        int finished = finishUnended(ongoingIds);
+        log.info("批量结束活动成功，结束数量: {}, 操作人: {}", finished, adminId);
+        return finished;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int finishOverdueActivities(int batchSize) {
+        List<Long> overdueIds = activityMapper.selectOverdueIds(LocalDateTime.now(), batchSize);
+        if (overdueIds.isEmpty()) {
+            return 0;
+        }
+        int finished = finishUnended(overdueIds);
+        log.info("自动结束到期活动，结束数量: {}, 活动ID: {}", finished, overdueIds);
+        return finished;
+    }
+
+    @Override
+    public LocalDateTime oldestOverdueEndTime() {
+        return activityMapper.selectOldestOverdueEndTime(LocalDateTime.now());
+    }
+
     /**
-     * 为活动自动生成打卡和评价二维码
+     * 结束一组活动并禁用其打卡二维码（评价二维码保留）
+     * 单条UPDATE结束活动（状态条件避免与并发结束重复计数），单条UPDATE禁用二维码，并失效活动快照
+     *
+     * @param activityIds 活动ID列表
+     * @return 本次结束的活动数量
      */
-    private void generateQrCodesForActivity(Activity activity) {
-        LocalDateTime expireTime = activity.getEndTime().plusDays(7); // 活动结束后7天过期
-
-        // 生成打卡二维码
-        GenerateQrCodeRequest checkinRequest = new GenerateQrCodeRequest();
-        checkinRequest.setType(QrCodeTypeEnum.CHECKIN.getValue());
-        checkinRequest.setExpireTime(expireTime);
-        
-        QrCodeVO checkinQrCode = qrCodeService.generateQrCode(activity.getId(), checkinRequest);
-        log.info("打卡二维码生成成功，活动ID: {}, 二维码ID: {}", activity.getId(), checkinQrCode.getId());
+    private int finishUnended(List<Long> activityIds) {
+        LambdaUpdateWrapper<Activity> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.in(Activity::getId, activityIds)
+                    .ne(Activity::getStatus, ActivityStatusEnum.ENDED)
+                    .set(Activity::getStatus, ActivityStatusEnum.ENDED)
+                    .set(Activity::getEndedTime, LocalDateTime.now());
+        int finished = activityMapper.update(null, updateWrapper);
+        activityIds.forEach(activitySnapshotCache::evict);
 
-        // 生成评价二维码
-        GenerateQrCodeRequest evaluationRequest = new GenerateQrCodeRequest();
-        evaluationRequest.setType(QrCodeTypeEnum.EVALUATION.getValue());
-        evaluationRequest.setExpireTime(expireTime);
-        
-        QrCodeVO evaluationQrCode = qrCodeService.generateQrCode(activity.getId(), evaluationRequest);
-        log.info("评价二维码生成成功，活动ID: {}, 二维码ID: {}", activity.getId(), evaluationQrCode.getId());
+        int disabled = qrCodeService.disableQrCodesExcept(activityIds, QrCodeTypeEnum.EVALUATION.getValue());
+        log.debug("活动已结束: 数量={}, 禁用打卡二维码数量={}", finished, disabled);
+        return finished;
     }
 
     /**
-     * 禁用活动的所有二维码（包括打卡和评价）
-     * 
-     * v1.1.0 优化版本：使用QrCodeService.disableQrCodesBatch
+     * 为活动自动生成打卡和评价二维码
      */
-    private void disableQrCodesForActivityOptimized(Long activityId) {
-        // 查询该活动的所有二维码ID
-        LambdaQueryWrapper<QrCode> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(QrCode::getActivityId, activityId)
-                    .select(QrCode::getId);
-        
-        List<QrCode> qrCodes = qrCodeMapper.selectList(queryWrapper);
-        
-        if (qrCodes.isEmpty()) {
-            log.info("活动没有二维码，活动ID: {}", activityId);
-            return;
-        }
+    private void generateQrCodesForActivity(Activity activity) {
+        LocalDateTime expireTime = activity.getEndTime().plusDays(7); // 活动结束后7天过期
 
-        // 使用优化的禁用方法：只禁用打卡二维码，保留评价二维码以支持活动后评价
-        try {
-            qrCodeService.disableQrCodesExcept(activityId, QrCodeTypeEnum.EVALUATION.getValue());
-            log.info("活动打卡二维码已禁用，评价二维码保留，活动ID: {}", activityId);
-        } catch (Exception e) {
-            log.error("禁用活动二维码失败，活动ID: {}", activityId, e);
-            // 二维码禁用失败不影响活动结束
-        }
+        List<QrCodeVO> qrCodes = qrCodeService.generateQrCodes(activity.getId(), expireTime,
+                QrCodeTypeEnum.CHECKIN.getValue(), QrCodeTypeEnum.EVALUATION.getValue());
+        log.info("打卡/评价二维码生成成功，活动ID: {}, 二维码ID: {}", activity.getId(),
+                qrCodes.stream().map(QrCodeVO::getId).toList());
     }
 
     /**
@@ -243,25 +316,10 @@ public class ActivityServiceImpl implements ActivityService {
         // 权限校验
         validateActivityPermission(activity, adminRole, countyCode);
 
-        // 查询该活动的所有二维码
-        LambdaQueryWrapper<QrCode> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(QrCode::getActivityId, activityId);
-        List<QrCode> qrCodes = qrCodeMapper.selectList(queryWrapper);
-
-        if (qrCodes.isEmpty()) {
-            log.info("活动没有二维码，活动ID: {}", activityId);
-            return;
-        }
-
-        // 提取所有二维码ID
-        List<Long> qrCodeIds = qrCodes.stream()
-                .map(QrCode::getId)
-                .collect(Collectors.toList());
-
-        // 使用QrCodeService的新方法禁用所有二维码
+        // 单条UPDATE禁用该活动的所有二维码（不保留任何类型）
         try {
-            qrCodeService.disableQrCodesBatch(qrCodeIds);
-            log.info("活动所有二维码已禁用，活动ID: {}", activityId);
+            int disabled = qrCodeService.disableQrCodesExcept(activityId);
+            log.info("活动所有二维码已禁用，活动ID: {}, 禁用数量: {}", activityId, disabled);
         } catch (Exception e) {
             log.error("禁用活动所有二维码失败，活动ID: {}", activityId, e);
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "禁用二维码失败");
@@ -311,10 +369,8 @@ public class ActivityServiceImpl implements ActivityService {
         // 权限校验
         validateActivityPermission(activity, adminRole, countyCode);
 
-        // 查询统计数据
-        int participatedCount = activityMapper.countParticipatedTeachingPoints(activityId);
-        int totalAttendees = activityMapper.countTotalAttendees(activityId);
-        int evaluationCount = activityMapper.countEvaluations(activityId);
+        // 查询统计数据（读取统计汇总表）
+        ActivityStats stats = activityStatsService.getActivityTotals(activityId);
 
         // 获取二维码列表
         List<com.wechat.checkin.qrcode.vo.QrCodeVO> qrCodes = getQrCodesForActivity(activityId);
@@ -322,7 +378,7 @@ public class ActivityServiceImpl implements ActivityService {
         // 获取县域统计（仅市级管理员）
         List<CountyCheckinStatisticsVO> countyStatistics = null;
         if ("city".equals(adminRole)) {
-            countyStatistics = buildCountyCheckinStatistics(activityId);
+            countyStatistics = activityStatsService.listCountyStatistics(activityId);
         }
 
         // 获取打卡详情
@@ -331,32 +387,58 @@ public class ActivityServiceImpl implements ActivityService {
         // 构建返回结果
         return ActivityDetailVO.builder()
                 .activity(convertToVO(activity))
-                .participatedCount(participatedCount)
-                .totalAttendees(totalAttendees)
-                .evaluationCount(evaluationCount)
+                .participatedCount(stats.getParticipatedCount())
+                .totalAttendees(stats.getTotalAttendees())
+                .evaluationCount(stats.getEvaluationCount())
                 .qrCodes(qrCodes)
                 .countyStatistics(countyStatistics)
                 .checkinDetails(checkinDetails)
                 .build();
     }
 
-    /**
-     * 构建县域打卡统计
-     */
-    private List<CountyCheckinStatisticsVO> buildCountyCheckinStatistics(Long activityId) {
-        log.info("构建县域打卡统计: activityId={}", activityId);
-        
-        List<java.util.Map<String, Object>> rawData = activityMapper.selectCountyCheckinStatistics(activityId);
-        
-        return rawData.stream()
-                .map(row -> CountyCheckinStatisticsVO.builder()
-                        .countyCode((String) row.get("countyCode"))
-                        .countyName((String) row.get("countyName"))  // 直接从SQL结果中获取
-                        .participatingPoints(((Number) row.get("participatingPoints")).intValue())
-                        .totalAttendees(((Number) row.get("totalAttendees")).intValue())
-                        .totalCheckins(((Number) row.get("totalCheckins")).intValue())
-                        .build())
-                .collect(Collectors.toList());
+    @Override
+    public SseEmitter subscribeLive(Long activityId, String adminRole, String countyCode) {
+        Activity activity = activityMapper.selectById(activityId);
+        if (activity == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "活动不存在");
+        }
+
+        // 权限校验
+        validateActivityPermission(activity, adminRole, countyCode);
+
+        // 县级管理员仅接收本县范围的推送（不含县域分行统计）
+        return activityLiveHub.subscribe(activityId, "city".equals(adminRole), countyCode);
+    }
+
+    @Override
+    public ParticipantBootstrapVO getParticipantBootstrap(String token, String countyCode) {
+        QrCodeVerifyResultVO verifyResult = qrCodeService.verifyQrCode(token);
+
+        ParticipantBootstrapVO.ParticipantBootstrapVOBuilder builder = ParticipantBootstrapVO.builder()
+                .valid(verifyResult.getValid())
+                .reason(verifyResult.getReason())
+                .qrcodeId(verifyResult.getQrcodeId())
+                .type(verifyResult.getType());
+
+        String contextEtag = "";
+        if (Boolean.TRUE.equals(verifyResult.getValid())) {
+            ParticipantContext context = participantContextCache.get(verifyResult.getActivityId(), countyCode);
+            if (context == null) {
+                throw new BusinessException(ResultCode.NOT_FOUND, "活动不存在");
+            }
+            builder.expireTime(verifyResult.getQrCodeState().expireTime())
+                    .context(context.json());
+            contextEtag = context.etag();
+        }
+
+        ParticipantBootstrapVO bootstrap = builder.build();
+        // 引导数据完全由验证结果和活动上下文决定，据此计算ETag，无需再序列化整个响应
+        // 响应外层的 Result 每次都带新的 timestamp、requestId，字节不同而语义相同，因此使用弱ETag
+        String fingerprint = String.join("|", contextEtag, String.valueOf(bootstrap.getValid()),
+                String.valueOf(bootstrap.getReason()), String.valueOf(bootstrap.getQrcodeId()),
+                String.valueOf(bootstrap.getType()), String.valueOf(bootstrap.getExpireTime()));
+        bootstrap.setEtag("W/\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"");
+        return bootstrap;
     }
 
     /**
@@ -366,17 +448,29 @@ public class ActivityServiceImpl implements ActivityService {
         log.info("构建打卡详情列表: activityId={}", activityId);
         
         List<java.util.Map<String, Object>> rawData = activityMapper.selectCheckinDetails(activityId);
-        
+
+        // 教学点与县域信息取自内存目录，按县域编码、提交时间倒序排列
+        Map<Long, TeachingPointEntry> teachingPoints = teachingPointDirectory.resolve(rawData.stream()
+                .map(row -> ((Number) row.get("teachingPointId")).longValue())
+                .collect(Collectors.toSet()));
+
         return rawData.stream()
-                .map(row -> CheckinDetailVO.builder()
-                        .id(((Number) row.get("id")).longValue())
-                        .teachingPointId(((Number) row.get("teachingPointId")).longValue())
-                        .teachingPointName((String) row.get("teachingPointName"))
-                        .countyCode((String) row.get("countyCode"))
-                        .countyName((String) row.get("countyName"))
-                        .attendeeCount(((Number) row.get("attendeeCount")).intValue())
-                        .submittedTime((java.time.LocalDateTime) row.get("submittedTime"))
-                        .build())
+                .map(row -> {
+                    Long teachingPointId = ((Number) row.get("teachingPointId")).longValue();
+                    TeachingPointEntry teachingPoint = teachingPoints.get(teachingPointId);
+                    String pointCountyCode = teachingPoint != null ? teachingPoint.countyCode() : "UNKNOWN";
+                    return CheckinDetailVO.builder()
+                            .id(((Number) row.get("id")).longValue())
+                            .teachingPointId(teachingPointId)
+                            .teachingPointName(teachingPoint != null ? teachingPoint.name() : "未知教学点")
+                            .countyCode(pointCountyCode)
+                            .countyName(countyDirectory.getName(pointCountyCode, "未分类"))
+                            .attendeeCount(((Number) row.get("attendeeCount")).intValue())
+                            .submittedTime((java.time.LocalDateTime) row.get("submittedTime"))
+                            .build();
+                })
+                .sorted(Comparator.comparing(CheckinDetailVO::getCountyCode)
+                        .thenComparing(CheckinDetailVO::getSubmittedTime, Comparator.reverseOrder()))
                 .collect(Collectors.toList());
     }
 
@@ -426,32 +520,41 @@ public class ActivityServiceImpl implements ActivityService {
      * 将Activity实体转换为ActivityVO
      */
     private ActivityVO convertToVO(Activity activity) {
-        // 查询创建人信息
-        Admin creator = adminMapper.selectById(activity.getCreatedId());
-
-        return ActivityVO.builder()
-                .id(activity.getId())
-                .name(activity.getName())
-                .description(activity.getDescription())
-                .scopeCountyCode(activity.getScopeCountyCode())
-                .scopeCountyName(activity.getScopeCountyCode() != null ? getCountyName(activity.getScopeCountyCode()) : "全市")
-                .startTime(activity.getStartTime())
-                .endTime(activity.getEndTime())
-                .endedTime(activity.getEndedTime())
-                .createdId(activity.getCreatedId())
-                .createdUsername(creator != null ? creator.getUsername() : "未知")
-                .status(activity.getStatus())
-                .statusDesc(activity.getStatus().getDescription())
-                .createdTime(activity.getCreatedTime())
-                .updatedTime(activity.getUpdatedTime())
-                .build();
+        return convertToVOs(List.of(activity)).get(0);
     }
 
     /**
-     * 获取县域名称（简化实现，实际应从县域表查询）
+     * 批量将Activity实体转换为ActivityVO
+     * 创建人与县域名称经由目录批量解析，整页最多各查询一次数据库
      */
-    private String getCountyName(String countyCode) {
-        // TODO: 从县域表查询县域名称
-        return countyCode;
+    private List<ActivityVO> convertToVOs(List<Activity> activities) {
+        Map<Long, String> creators = adminDirectory.resolveUsernames(activities.stream()
+                .map(Activity::getCreatedId)
+                .collect(Collectors.toSet()));
+        Map<String, String> countyNames = countyDirectory.resolveNames(activities.stream()
+                .map(Activity::getScopeCountyCode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        return activities.stream()
+                .map(activity -> ActivityVO.builder()
+                        .id(activity.getId())
+                        .name(activity.getName())
+                        .description(activity.getDescription())
+                        .scopeCountyCode(activity.getScopeCountyCode())
+                        .scopeCountyName(activity.getScopeCountyCode() != null
+                                ? countyNames.getOrDefault(activity.getScopeCountyCode(), activity.getScopeCountyCode())
+                                : "全市")
+                        .startTime(activity.getStartTime())
+                        .endTime(activity.getEndTime())
+                        .endedTime(activity.getEndedTime())
+                        .createdId(activity.getCreatedId())
+                        .createdUsername(creators.getOrDefault(activity.getCreatedId(), "未知"))
+                        .status(activity.getStatus())
+                        .statusDesc(activity.getStatus().getDescription())
+                        .createdTime(activity.getCreatedTime())
+                        .updatedTime(activity.getUpdatedTime())
+                        .build())
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,158 @@
+package com.wechat.checkin.activity.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.wechat.checkin.activity.entity.Activity;
+import com.wechat.checkin.activity.entity.ActivityStats;
+import com.wechat.checkin.activity.mapper.ActivityMapper;
+import com.wechat.checkin.activity.mapper.ActivityStatsMapper;
+import com.wechat.checkin.activity.service.ActivityStatsService;
+import com.wechat.checkin.activity.vo.CountyCheckinStatisticsVO;
+import com.wechat.checkin.common.enums.ActivityStatusEnum;
+import com.wechat.checkin.county.directory.CountyDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 活动统计汇总服务实现类
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityStatsServiceImpl implements ActivityStatsService {
+
+    private final ActivityStatsMapper activityStatsMapper;
+    private final ActivityMapper activityMapper;
+    private final CountyDirectory countyDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Override
+    public void recordCheckins(Long activityId, Collection<Long> teachingPointIds) {
+        if (teachingPointIds == null || teachingPointIds.isEmpty()) {
+            return;
+        }
+        activityStatsMapper.addCheckinTotals(activityId, teachingPointIds);
+        activityStatsMapper.addCheckinCountyTotals(activityId, teachingPointIds);
+    }
+
+    @Override
+    public void recordEvaluations(Long activityId, Collection<Long> teachingPointIds) {
+        if (teachingPointIds == null || teachingPointIds.isEmpty()) {
+            return;
+        }
+        activityStatsMapper.addEvaluationTotals(activityId, teachingPointIds);
+        activityStatsMapper.addEvaluationCountyTotals(activityId, teachingPointIds);
+    }
+
+    @Override
+    public ActivityStats getActivityTotals(Long activityId) {
+        LambdaQueryWrapper<ActivityStats> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(ActivityStats::getActivityId, activityId)
+               .eq(ActivityStats::getCountyCode, ActivityStats.TOTAL_COUNTY_CODE);
+        ActivityStats totals = activityStatsMapper.selectOne(wrapper);
+        return totals != null ? totals : ActivityStats.empty(activityId);
+    }
+
+    @Override
+    public List<CountyCheckinStatisticsVO> listCountyStatistics(Long activityId) {
+        List<Map<String, Object>> rawData = activityMapper.selectCountyCheckinStatistics(activityId);
+
+        return rawData.stream()
+                .map(row -> CountyCheckinStatisticsVO.builder()
+                        .countyCode((String) row.get("countyCode"))
+                        .countyName(countyDirectory.getName((String) row.get("countyCode"), "未分类"))
+                        .participatingPoints(((Number) row.get("participatingPoints")).intValue())
+                        .totalAttendees(((Number) row.get("totalAttendees")).intValue())
+                        .totalCheckins(((Number) row.get("totalCheckins")).intValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int reconcile(Long activityId) {
+        // 锁定、重新计算、比较、修正在同一事务中完成：
+        // 锁定统计行后，并发写入的统计累加须等待本事务提交，已提交的写入均计入重新计算结果，
+        // 未提交的写入在本事务提交后再累加，修正不会覆盖其增量
+        Integer drift = transactionTemplate.execute(status -> {
+            // 1. 锁定当前汇总（锁定读不建立一致性快照，随后的重新计算读取加锁之后的最新提交数据）
+            Map<String, ActivityStats> actual = activityStatsMapper.selectForUpdate(activityId).stream()
+                    .collect(Collectors.toMap(ActivityStats::getCountyCode, Function.identity()));
+
+            // 2. 从原始记录重新计算
+            List<ActivityStats> expected = activityStatsMapper.computeFromRawRows(activityId);
+
+            // 3. 逐行比较，按差值修正
+            int rows = 0;
+            for (ActivityStats row : expected) {
+                ActivityStats current = actual.remove(row.getCountyCode());
+                if (row.sameCounters(current)) {
+                    continue;
+                }
+                rows++;
+                log.warn("活动统计存在偏差: activityId={}, countyCode='{}', 汇总={}/{}/{}, 实际={}/{}/{}",
+                        activityId, row.getCountyCode(),
+                        current != null ? current.getParticipatedCount() : null,
+                        current != null ? current.getTotalAttendees() : null,
+                        current != null ? current.getEvaluationCount() : null,
+                        row.getParticipatedCount(), row.getTotalAttendees(), row.getEvaluationCount());
+                activityStatsMapper.applyCorrection(row.minus(current));
+            }
+
+            // 原始记录中已不存在的县域分行
+            for (ActivityStats extra : actual.values()) {
+                rows++;
+                log.warn("活动统计存在多余行: activityId={}, countyCode='{}'", activityId, extra.getCountyCode());
+                LambdaQueryWrapper<ActivityStats> wrapper = new LambdaQueryWrapper<>();
+                wrapper.eq(ActivityStats::getActivityId, activityId)
+                       .eq(ActivityStats::getCountyCode, extra.getCountyCode());
+                activityStatsMapper.delete(wrapper);
+            }
+            return rows;
+        });
+
+        int driftCount = drift != null ? drift : 0;
+        if (driftCount == 0) {
+            return 0;
+        }
+        meterRegistryProvider.ifAvailable(registry ->
+                registry.counter("activity.stats.drift").increment(driftCount));
+        log.info("活动统计已按原始记录修正: activityId={}, 偏差行数={}", activityId, driftCount);
+        return driftCount;
+    }
+
+    @Override
+    public int reconcileRecentActivities(Duration endedWithin) {
+        LambdaQueryWrapper<Activity> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(Activity::getId)
+               .eq(Activity::getStatus, ActivityStatusEnum.ONGOING)
+               .or()
+               .ge(Activity::getEndedTime, LocalDateTime.now().minus(endedWithin));
+        List<Activity> activities = activityMapper.selectList(wrapper);
+
+        int totalDrift = 0;
+        for (Activity activity : activities) {
+            try {
+                totalDrift += reconcile(activity.getId());
+            } catch (Exception e) {
+                log.error("活动统计对账失败: activityId={}", activity.getId(), e);
+            }
+        }
+        log.info("活动统计对账完成: 活动数={}, 偏差行数={}", activities.size(), totalDrift);
+        return totalDrift;
+    }
+}
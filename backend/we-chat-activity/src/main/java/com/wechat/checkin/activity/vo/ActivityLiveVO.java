@@ -0,0 +1,63 @@
+package com.wechat.checkin.activity.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 活动实时统计推送VO
+ * 订阅时推送一次快照（snapshot），之后每次打卡、评价推送一次增量（update）
+ *
+ * 增量只携带本次事件，不含统计总数，客户端在快照基础上累加：
+ * - checkin：参与教学点数+1，累计参与人数+attendeeCount，对应县域分行同样累加
+ * - evaluation：评价数+1，对应县域分行同样累加
+ * 增量按 sequence 递增编号，异步推送可能乱序到达，客户端按序号排序应用；发现序号缺口时重新订阅获取快照
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "活动实时统计推送")
+public class ActivityLiveVO {
+
+    @Schema(description = "活动ID", example = "1")
+    private Long activityId;
+
+    @Schema(description = "事件类型(snapshot-快照, checkin-新打卡, evaluation-新评价)", example = "checkin")
+    private String event;
+
+    @Schema(description = "序号（快照为订阅时的最新序号，增量逐条递增）", example = "42")
+    private Long sequence;
+
+    @Schema(description = "触发事件的教学点ID（快照时为空；县级订阅者仅可见本县教学点）", example = "12")
+    private Long teachingPointId;
+
+    @Schema(description = "触发事件的教学点所属县域编码（快照时为空；县级订阅者仅可见本县）", example = "001")
+    private String countyCode;
+
+    @Schema(description = "本次打卡人数（快照及评价时为0）", example = "30")
+    private Integer attendeeCount;
+
+    @Schema(description = "参与教学点数（仅快照）", example = "25")
+    private Integer participatedCount;
+
+    @Schema(description = "累计参与人数（仅快照）", example = "750")
+    private Integer totalAttendees;
+
+    @Schema(description = "评价数（仅快照）", example = "10")
+    private Integer evaluationCount;
+
+    @Schema(description = "县域打卡统计（仅市级订阅者的快照）")
+    private List<CountyCheckinStatisticsVO> countyStatistics;
+
+    @Schema(description = "推送时间")
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,48 @@
+package com.wechat.checkin.activity.vo;
+
+import com.wechat.checkin.common.enums.ActivityStatusEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 参与端活动摘要VO
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "参与端活动摘要")
+public class ParticipantActivityVO {
+
+    @Schema(description = "活动ID")
+    private Long id;
+
+    @Schema(description = "活动名称")
+    private String name;
+
+    @Schema(description = "活动状态")
+    private ActivityStatusEnum status;
+
+    @Schema(description = "活动状态描述")
+    private String statusDesc;
+
+    @Schema(description = "打卡开始时间")
+    private LocalDateTime startTime;
+
+    @Schema(description = "打卡结束时间")
+    private LocalDateTime endTime;
+
+    @Schema(description = "县域范围编码")
+    private String scopeCountyCode;
+
+    @Schema(description = "县域范围名称")
+    private String scopeCountyName;
+}
@@ -0,0 +1,56 @@
+package com.wechat.checkin.activity.vo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 参与端扫码引导VO
+ * 一次返回二维码验证结果、活动摘要和可选教学点，替代扫码后的多次请求
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "参与端扫码引导信息")
+public class ParticipantBootstrapVO {
+
+    @Schema(description = "二维码是否有效")
+    private Boolean valid;
+
+    @Schema(description = "无效原因（有效时为空）")
+    private String reason;
+
+    @Schema(description = "二维码ID")
+    private Long qrcodeId;
+
+    @Schema(description = "二维码类型")
+    private String type;
+
+    @Schema(description = "二维码过期时间")
+    private LocalDateTime expireTime;
+
+    /**
+     * 活动上下文（按活动和县域预先序列化的JSON，包含 activity 和 teachingPoints）
+     */
+    @JsonRawValue
+    @Schema(description = "活动上下文：activity（活动摘要）与 teachingPoints（可选教学点列表），二维码无效时为空",
+            implementation = ParticipantContextVO.class)
+    private String context;
+
+    /**
+     * 弱ETag（不参与序列化）
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private String etag;
+}
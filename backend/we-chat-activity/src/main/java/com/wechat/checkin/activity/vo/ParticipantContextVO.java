@@ -0,0 +1,18 @@
+package com.wechat.checkin.activity.vo;
+
+import com.wechat.checkin.teachingpoint.vo.TeachingPointOptionVO;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * 参与端活动上下文（按活动和县域共享，预先序列化后缓存）
+ *
+ * @param activity       活动摘要
+ * @param teachingPoints 可选教学点列表
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Schema(description = "参与端活动上下文")
+public record ParticipantContextVO(ParticipantActivityVO activity, List<TeachingPointOptionVO> teachingPoints) {
+}
@@ -9,12 +9,14 @@ import com.wechat.checkin.admin.dto.UpdateAdminPasswordRequest;
 import com.wechat.checkin.admin.dto.UpdateAdminRequest;
 import com.wechat.checkin.admin.service.AdminService;
 import com.wechat.checkin.admin.vo.AdminVO;
+import com.wechat.checkin.auth.directory.AdminDirectory;
 import com.wechat.checkin.auth.entity.Admin;
 import com.wechat.checkin.auth.mapper.AdminMapper;
 import com.wechat.checkin.common.enums.StatusEnum;
 import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.PageResult;
 import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.county.directory.CountyDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -38,6 +40,8 @@ public class AdminServiceImpl implements AdminService {
 
     private final AdminMapper adminMapper;
     private final PasswordEncoder passwordEncoder;
+    private final AdminDirectory adminDirectory;
+    private final CountyDirectory countyDirectory;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -53,7 +57,7 @@ public class AdminServiceImpl implements AdminService {
 
         // 2. 如果是县级管理员，验证县域代码是否存在
         if ("county".equals(request.getRole()) && StringUtils.hasText(request.getCountyCode())) {
-            if (!adminMapper.existsCountyCode(request.getCountyCode())) {
+            if (!countyDirectory.exists(request.getCountyCode())) {
                 throw new BusinessException(ResultCode.COUNTY_CODE_NOT_FOUND);
             }
         }
@@ -107,7 +111,7 @@ public class AdminServiceImpl implements AdminService {
         // 4. 更新县域代码（如果提供）
         if (StringUtils.hasText(request.getCountyCode())) {
             // 验证县域代码是否存在
-            if (!adminMapper.existsCountyCode(request.getCountyCode())) {
+            if (!countyDirectory.exists(request.getCountyCode())) {
                 throw new BusinessException(ResultCode.COUNTY_CODE_NOT_FOUND);
             }
             admin.setCountyCode(request.getCountyCode());
@@ -118,6 +122,7 @@ public class AdminServiceImpl implements AdminService {
         if (result <= 0) {
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        adminDirectory.invalidate(adminId);
 
         log.info("更新管理员成功: adminId={}", adminId);
     }
@@ -239,7 +244,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     /**
-     * 更新管理员状态
+     * 更新管理员状态（事务提交后刷新管理员目录）
      *
      * @param adminId 管理员ID
      * @param status 状态
@@ -257,6 +262,7 @@ public class AdminServiceImpl implements AdminService {
         if (result <= 0) {
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        adminDirectory.invalidate(adminId);
     }
 
     /**
@@ -36,6 +36,10 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         "/api/checkins/evaluate",
                         "/api/evaluations/evaluation",
                         "/api/qrcodes/verify",
+                        // 二维码图片签名地址（由签名校验访问权限）
+                        "/api/qrcodes/*/image/signed",
+                        "/api/teaching-points/options",
+                        "/api/participant/**",
                         // 文档和健康检查
                         "/actuator/**",
                         "/doc.html",
@@ -59,6 +63,10 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         "/api/checkins/evaluate",
                         "/api/evaluations/evaluation",
                         "/api/qrcodes/verify",
+                        // 二维码图片签名地址（由签名校验访问权限）
+                        "/api/qrcodes/*/image/signed",
+                        "/api/teaching-points/options",
+                        "/api/participant/**",
                         // 文档和健康检查
                         "/actuator/**",
                         "/doc.html",
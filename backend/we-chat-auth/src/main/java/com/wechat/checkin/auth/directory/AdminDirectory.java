@@ -0,0 +1,88 @@
+package com.wechat.checkin.auth.directory;
+
+import com.wechat.checkin.auth.entity.Admin;
+import com.wechat.checkin.auth.mapper.AdminMapper;
+import com.wechat.checkin.common.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 管理员目录
+ * 活动等列表需要展示创建人用户名，管理员数量少且极少变化，因此在内存中维护 ID 到用户名的只读快照
+ *
+ * 加载策略：
+ * - 批量解析时只对快照中缺失的ID发起一次 IN 查询，结果合并进新快照
+ * - 快照为不可变 Map，合并和失效时整体替换（写时复制），读取无锁
+ * - AdminService 修改管理员后失效对应条目（事务提交后再失效一次）
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminDirectory {
+
+    private final AdminMapper adminMapper;
+
+    /**
+     * 管理员ID到用户名的不可变快照
+     */
+    private volatile Map<Long, String> usernames = Map.of();
+
+    /**
+     * 批量解析管理员用户名
+     *
+     * @param adminIds 管理员ID集合
+     * @return 管理员ID到用户名的映射，不存在的管理员不包含在结果中
+     */
+    public Map<Long, String> resolveUsernames(Collection<Long> adminIds) {
+        Map<Long, String> snapshot = usernames;
+        List<Long> missing = adminIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !snapshot.containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return snapshot;
+        }
+
+        List<Admin> admins = adminMapper.selectByIds(missing);
+        synchronized (this) {
+            Map<Long, String> merged = new HashMap<>(usernames);
+            admins.forEach(admin -> merged.put(admin.getId(), admin.getUsername()));
+            usernames = Map.copyOf(merged);
+        }
+        log.debug("管理员目录加载缺失条目: requested={}, loaded={}", missing.size(), admins.size());
+        return usernames;
+    }
+
+    /**
+     * 失效管理员条目（下次解析时重新加载）
+     *
+     * @param adminId 管理员ID
+     */
+    public void invalidate(Long adminId) {
+        if (adminId == null) {
+            return;
+        }
+        remove(adminId);
+        TransactionUtils.afterCommit(() -> remove(adminId));
+    }
+
+    private synchronized void remove(Long adminId) {
+        if (!usernames.containsKey(adminId)) {
+            return;
+        }
+        Map<Long, String> copy = new HashMap<>(usernames);
+        copy.remove(adminId);
+        usernames = Map.copyOf(copy);
+    }
+}
@@ -1,15 +1,17 @@
 package com.wechat.checkin.auth.interceptor;
 
-import com.wechat.checkin.auth.annotation.RequirePermission;
-import com.wechat.checkin.auth.annotation.RequireRole;
 import com.wechat.checkin.auth.entity.Admin;
+import com.wechat.checkin.auth.security.AuthClaims;
+import com.wechat.checkin.auth.security.HandlerSecurityPolicy;
+import com.wechat.checkin.auth.security.HandlerSecurityPolicyRegistry;
 import com.wechat.checkin.auth.security.JwtTokenProvider;
 import com.wechat.checkin.auth.security.UserPrincipal;
+import com.wechat.checkin.common.constant.CommonConstants;
 import com.wechat.checkin.common.enums.StatusEnum;
 import com.wechat.checkin.common.enums.UserRoleEnum;
-import com.wechat.checkin.common.enums.PermissionTypeEnum;
 import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.ResultCode;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -21,8 +23,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.lang.reflect.Method;
-
 /**
  * 认证拦截器
  * 负责JWT令牌验证和权限检查
@@ -33,6 +33,7 @@ import java.lang.reflect.Method;
 public class AuthInterceptor implements HandlerInterceptor {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final HandlerSecurityPolicyRegistry policyRegistry;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -42,7 +43,7 @@ public class AuthInterceptor implements HandlerInterceptor {
         }
 
         HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
+        HandlerSecurityPolicy policy = policyRegistry.get(handlerMethod);
 
         // 提取并验证JWT令牌
         String token = extractTokenFromRequest(request);
@@ -50,24 +51,29 @@ public class AuthInterceptor implements HandlerInterceptor {
             throw new BusinessException(ResultCode.UNAUTHORIZED, "缺少访问令牌");
         }
 
-        // 验证令牌有效性
-        if (!jwtTokenProvider.validateToken(token)) {
+        // 验证令牌并一次性解析声明
+        AuthClaims claims;
+        try {
+            claims = jwtTokenProvider.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("JWT令牌验证失败: {}", e.getMessage());
             throw new BusinessException(ResultCode.UNAUTHORIZED, "访问令牌无效或已过期");
         }
 
-        // 从令牌中获取用户信息并构建UserPrincipal
-        UserPrincipal userPrincipal = buildUserPrincipalFromToken(token);
-        
+        // 构建UserPrincipal并写入请求属性，供后续拦截器复用
+        UserPrincipal userPrincipal = buildUserPrincipal(claims);
+        request.setAttribute(CommonConstants.USER_PRINCIPAL_ATTR, userPrincipal);
+
         // 设置Spring Security上下文
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 userPrincipal, null, userPrincipal.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         // 检查角色权限
-        checkRolePermission(method, userPrincipal);
+        checkRolePermission(policy, userPrincipal);
 
         // 检查接口权限
-        checkInterfacePermission(method, userPrincipal);
+        checkInterfacePermission(policy, userPrincipal);
 
         return true;
     }
@@ -92,13 +98,13 @@ public class AuthInterceptor implements HandlerInterceptor {
     }
 
     /**
-     * 从JWT令牌构建UserPrincipal
+     * 从令牌声明构建UserPrincipal
      */
-    private UserPrincipal buildUserPrincipalFromToken(String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token);
-        String username = jwtTokenProvider.getUsernameFromToken(token);
-        String role = jwtTokenProvider.getRoleFromToken(token);
-        String countyCode = jwtTokenProvider.getCountyCodeFromToken(token);
+    private UserPrincipal buildUserPrincipal(AuthClaims claims) {
+        Long userId = claims.userId();
+        String username = claims.username();
+        String role = claims.role();
+        String countyCode = claims.countyCode();
 
         // 校验必须字段
         if (userId == null || username == null || role == null || role.trim().isEmpty()) {
@@ -120,63 +126,43 @@ public class AuthInterceptor implements HandlerInterceptor {
     /**
      * 检查角色权限
      */
-    private void checkRolePermission(Method method, UserPrincipal userPrincipal) {
-        RequireRole requireRole = method.getAnnotation(RequireRole.class);
-        if (requireRole == null) {
-            requireRole = method.getDeclaringClass().getAnnotation(RequireRole.class);
+    private void checkRolePermission(HandlerSecurityPolicy policy, UserPrincipal userPrincipal) {
+        if (!policy.roleRequired()) {
+            return;
         }
 
-        if (requireRole != null) {
-            String[] requiredRoles = requireRole.value();
-            String userRole = userPrincipal.getRole();
-
-            // 检查用户角色是否在允许的角色列表中
-            boolean hasRole = false;
-            for (String role : requiredRoles) {
-                if (role.equals(userRole)) {
-                    hasRole = true;
-                    break;
-                }
-            }
-
-            if (!hasRole) {
-                throw new BusinessException(ResultCode.FORBIDDEN, 
-                    String.format("访问被拒绝：需要角色 %s，当前角色 %s", 
-                        String.join(",", requiredRoles), userRole));
-            }
+        String userRole = userPrincipal.getRole();
+        if (!policy.allowsRole(HandlerSecurityPolicy.roleBit(userRole))) {
+            throw new BusinessException(ResultCode.FORBIDDEN, 
+                String.format("访问被拒绝：需要角色 %s，当前角色 %s", 
+                    String.join(",", policy.requiredRoles()), userRole));
+        }
 
-            // 如果启用了县级权限隔离，检查县级权限
-            if (requireRole.countyIsolation()) {
-                checkCountyPermission(userPrincipal);
-            }
+        // 如果启用了县级权限隔离，检查县级权限
+        if (policy.countyIsolation()) {
+            checkCountyPermission(userPrincipal);
         }
     }
 
     /**
      * 检查接口权限
      */
-    private void checkInterfacePermission(Method method, UserPrincipal userPrincipal) {
-        RequirePermission requirePermission = method.getAnnotation(RequirePermission.class);
-        if (requirePermission == null) {
-            requirePermission = method.getDeclaringClass().getAnnotation(RequirePermission.class);
+    private void checkInterfacePermission(HandlerSecurityPolicy policy, UserPrincipal userPrincipal) {
+        if (!policy.permissionRequired()) {
+            return;
         }
 
-        if (requirePermission != null) {
-            String permissionCode = requirePermission.value();
-            
-            // 这里可以扩展权限检查逻辑
-            // 目前简单检查：市级管理员拥有所有权限，县级管理员只能访问县级权限
-            if (UserRoleEnum.COUNTY.getValue().equals(userPrincipal.getRole())) {
-                // 县级管理员权限检查
-                if (!isCountyPermission(permissionCode)) {
-                    throw new BusinessException(ResultCode.FORBIDDEN, 
-                        String.format("访问被拒绝：县级管理员无权限访问 %s", permissionCode));
-                }
-
-                // 如果启用了县级数据权限过滤，进行数据权限检查
-                if (requirePermission.countyDataFilter()) {
-                    checkCountyDataPermission(userPrincipal);
-                }
+        // 目前简单检查：市级管理员拥有所有权限，县级管理员只能访问县级权限
+        if (UserRoleEnum.COUNTY.getValue().equals(userPrincipal.getRole())) {
+            // 县级管理员权限检查（是否为县级权限已在启动时预计算）
+            if (!policy.countyPermitted()) {
+                throw new BusinessException(ResultCode.FORBIDDEN, 
+                    String.format("访问被拒绝：县级管理员无权限访问 %s", policy.permissionCode()));
+            }
+
+            // 如果启用了县级数据权限过滤，进行数据权限检查
+            if (policy.countyDataFilter()) {
+                checkCountyDataPermission(userPrincipal);
             }
         }
     }
@@ -193,14 +179,6 @@ public class AuthInterceptor implements HandlerInterceptor {
         }
     }
 
-    /**
-     * 判断是否为县级权限
-     */
-    private boolean isCountyPermission(String permissionCode) {
-        // 使用枚举替代硬编码字符串，提高代码可维护性
-        return PermissionTypeEnum.isCountyRelated(permissionCode);
-    }
-
     /**
      * 检查县级数据权限
      */
@@ -1,11 +1,14 @@
 package com.wechat.checkin.auth.interceptor;
 
-import com.wechat.checkin.auth.annotation.RequireDataPermission;
+import com.wechat.checkin.auth.security.AuthClaims;
+import com.wechat.checkin.auth.security.HandlerSecurityPolicyRegistry;
 import com.wechat.checkin.auth.security.JwtTokenProvider;
+import com.wechat.checkin.auth.security.UserPrincipal;
 import com.wechat.checkin.common.constant.CommonConstants;
 import com.wechat.checkin.common.enums.UserRoleEnum;
 import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.ResultCode;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -28,6 +31,7 @@ import jakarta.servlet.http.HttpServletResponse;
 public class DataPermissionInterceptor implements HandlerInterceptor {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final HandlerSecurityPolicyRegistry policyRegistry;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -37,25 +41,23 @@ public class DataPermissionInterceptor implements HandlerInterceptor {
         }
 
         HandlerMethod handlerMethod = (HandlerMethod) handler;
-        RequireDataPermission annotation = handlerMethod.getMethodAnnotation(RequireDataPermission.class);
         
         // 如果没有数据权限注解，直接通过
-        if (annotation == null) {
+        if (!policyRegistry.get(handlerMethod).dataPermission()) {
             return true;
         }
 
-        // 获取JWT令牌
-        String token = extractToken(request);
-        if (token == null) {
-            throw new BusinessException(ResultCode.TOKEN_MISSING);
+        // 优先复用认证拦截器已解析的用户主体，未经过认证拦截器时才解析令牌
+        String userRole;
+        String countyCode;
+        if (request.getAttribute(CommonConstants.USER_PRINCIPAL_ATTR) instanceof UserPrincipal principal) {
+            userRole = principal.getRole();
+            countyCode = principal.getCountyCode();
+        } else {
+            AuthClaims claims = parseClaims(request);
+            userRole = claims.role();
+            countyCode = claims.countyCode();
         }
-
-        // 验证令牌并获取用户信息
-        if (!jwtTokenProvider.validateToken(token)) {
-            throw new BusinessException(ResultCode.TOKEN_INVALID);
-        }
-
-        String userRole = jwtTokenProvider.getRoleFromToken(token);
         
         // 如果是市级管理员，可以访问所有数据
         if (UserRoleEnum.CITY.getValue().equals(userRole)) {
@@ -64,7 +66,6 @@ public class DataPermissionInterceptor implements HandlerInterceptor {
         
         // 如果是县级管理员，需要验证数据权限
         if (UserRoleEnum.COUNTY.getValue().equals(userRole)) {
-            String countyCode = jwtTokenProvider.getCountyCodeFromToken(token);
             if (countyCode == null) {
                 throw new BusinessException(ResultCode.BUSINESS_ERROR, "县级管理员缺少县域信息");
             }
@@ -78,6 +79,23 @@ public class DataPermissionInterceptor implements HandlerInterceptor {
         throw new BusinessException(ResultCode.PERMISSION_DENIED);
     }
 
+    /**
+     * 从请求中提取并解析JWT令牌
+     */
+    private AuthClaims parseClaims(HttpServletRequest request) {
+        String token = extractToken(request);
+        if (token == null) {
+            throw new BusinessException(ResultCode.TOKEN_MISSING);
+        }
+
+        try {
+            return jwtTokenProvider.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("JWT令牌验证失败: {}", e.getMessage());
+            throw new BusinessException(ResultCode.TOKEN_INVALID);
+        }
+    }
+
     /**
      * 从请求中提取JWT令牌
      */
@@ -65,15 +65,6 @@ public interface AdminMapper extends BaseMapper<Admin> {
     @Select("SELECT COUNT(*) FROM admins WHERE username = #{username}")
     int countByUsername(@Param("username") String username);
 
-    /**
-     * 检查县域代码是否存在
-     *
-     * @param countyCode 县域代码
-     * @return 是否存在
-     */
-    @Select("SELECT COUNT(*) > 0 FROM counties WHERE code = #{countyCode} AND status != 'deleted'")
-    boolean existsCountyCode(@Param("countyCode") String countyCode);
-
     /**
      * 更新最后登录信息
      * 注意：数据库表中已删除last_login_time和last_login_ip字段，此方法保留但不实际使用
@@ -0,0 +1,29 @@
+package com.wechat.checkin.auth.security;
+
+import java.util.Date;
+
+/**
+ * 认证令牌声明
+ * 令牌验签后一次性解析出的不可变声明，供拦截器、服务层复用，避免同一令牌被重复解析
+ *
+ * @param userId     用户ID
+ * @param username   用户名
+ * @param role       角色（刷新令牌为null）
+ * @param countyCode 县级代码（刷新令牌为null）
+ * @param tokenType  令牌类型（access/refresh）
+ * @param expiration 过期时间
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record AuthClaims(Long userId, String username, String role, String countyCode,
+                         String tokenType, Date expiration) {
+
+    /**
+     * 令牌是否已过期
+     *
+     * @return 是否过期
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,116 @@
+package com.wechat.checkin.auth.security;
+
+import com.wechat.checkin.auth.annotation.RequireDataPermission;
+import com.wechat.checkin.auth.annotation.RequirePermission;
+import com.wechat.checkin.auth.annotation.RequireRole;
+import com.wechat.checkin.common.enums.PermissionTypeEnum;
+import com.wechat.checkin.common.enums.UserRoleEnum;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 处理器安全策略
+ * 启动时由 @RequireRole、@RequirePermission、@RequireDataPermission 编译得到的不可变策略，
+ * 拦截器按处理器方法查表后只需做位运算，不再每次请求反射读取注解
+ *
+ * 角色以位集合表示：第 n 位对应 UserRoleEnum 的第 n 个枚举值
+ *
+ * @param handler          处理器（类名#方法名）
+ * @param mapping          请求映射（运行时补编译的策略为null）
+ * @param roleRequired     是否声明了角色要求
+ * @param roleMask         允许的角色位集合
+ * @param requiredRoles    允许的角色（用于提示信息）
+ * @param countyIsolation  是否要求县级管理员携带县区代码
+ * @param permissionCode   接口权限代码（未声明时为null）
+ * @param countyPermitted  县级管理员是否可访问该权限
+ * @param countyDataFilter 是否启用县级数据权限过滤
+ * @param dataPermission   是否需要数据权限控制
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record HandlerSecurityPolicy(String handler,
+                                    String mapping,
+                                    boolean roleRequired,
+                                    int roleMask,
+                                    List<String> requiredRoles,
+                                    boolean countyIsolation,
+                                    String permissionCode,
+                                    boolean countyPermitted,
+                                    boolean countyDataFilter,
+                                    boolean dataPermission) {
+
+    /**
+     * 编译处理器方法的安全策略
+     * 注解查找规则与原拦截器保持一致：角色、接口权限先查方法再查声明类，数据权限只查方法
+     *
+     * @param handlerMethod 处理器方法
+     * @param mapping 请求映射描述
+     * @return 安全策略
+     */
+    public static HandlerSecurityPolicy compile(HandlerMethod handlerMethod, String mapping) {
+        Method method = handlerMethod.getMethod();
+
+        RequireRole requireRole = method.getAnnotation(RequireRole.class);
+        if (requireRole == null) {
+            requireRole = method.getDeclaringClass().getAnnotation(RequireRole.class);
+        }
+        int roleMask = 0;
+        List<String> requiredRoles = List.of();
+        if (requireRole != null) {
+            requiredRoles = List.of(requireRole.value());
+            for (String role : requiredRoles) {
+                roleMask |= roleBit(role);
+            }
+        }
+
+        RequirePermission requirePermission = method.getAnnotation(RequirePermission.class);
+        if (requirePermission == null) {
+            requirePermission = method.getDeclaringClass().getAnnotation(RequirePermission.class);
+        }
+        String permissionCode = requirePermission != null ? requirePermission.value() : null;
+
+        return new HandlerSecurityPolicy(
+                method.getDeclaringClass().getSimpleName() + "#" + method.getName(),
+                mapping,
+                requireRole != null,
+                roleMask,
+                requiredRoles,
+                requireRole != null && requireRole.countyIsolation(),
+                permissionCode,
+                permissionCode != null && PermissionTypeEnum.isCountyRelated(permissionCode),
+                requirePermission != null && requirePermission.countyDataFilter(),
+                handlerMethod.hasMethodAnnotation(RequireDataPermission.class));
+    }
+
+    /**
+     * 获取角色对应的位
+     *
+     * @param role 角色值
+     * @return 角色位，未知角色返回0
+     */
+    public static int roleBit(String role) {
+        UserRoleEnum roleEnum = UserRoleEnum.getByValue(role);
+        return roleEnum != null ? 1 << roleEnum.ordinal() : 0;
+    }
+
+    /**
+     * 角色是否满足要求（未声明角色要求时总是满足）
+     *
+     * @param roleBit 用户角色位
+     * @return 是否满足
+     */
+    public boolean allowsRole(int roleBit) {
+        return !roleRequired || (roleMask & roleBit) != 0;
+    }
+
+    /**
+     * 是否声明了接口权限
+     *
+     * @return 是否声明
+     */
+    public boolean permissionRequired() {
+        return permissionCode != null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.wechat.checkin.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 处理器安全策略表
+ * 所有单例初始化完成后扫描全部 @RequestMapping 处理器并编译安全策略，
+ * 请求期间拦截器只做一次查表
+ *
+ * 以处理器方法为键：请求期间的 HandlerMethod 会替换为已解析的bean实例，与扫描时的实例不相等，
+ * 而底层 Method 保持不变。扫描之后才注册的处理器在首次请求时补编译
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class HandlerSecurityPolicyRegistry implements SmartInitializingSingleton {
+
+    private final ApplicationContext applicationContext;
+    private final Map<Method, HandlerSecurityPolicy> policies = new ConcurrentHashMap<>();
+
+    public HandlerSecurityPolicyRegistry(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()
+                .forEach(mapping -> mapping.getHandlerMethods().forEach((info, handlerMethod) ->
+                        policies.putIfAbsent(handlerMethod.getMethod(),
+                                HandlerSecurityPolicy.compile(handlerMethod, info.toString()))));
+        log.info("处理器安全策略已编译: handlers={}", policies.size());
+    }
+
+    /**
+     * 获取处理器的安全策略
+     *
+     * @param handlerMethod 处理器方法
+     * @return 安全策略
+     */
+    public HandlerSecurityPolicy get(HandlerMethod handlerMethod) {
+        return policies.computeIfAbsent(handlerMethod.getMethod(),
+                method -> HandlerSecurityPolicy.compile(handlerMethod, null));
+    }
+
+    /**
+     * 获取全部安全策略（按处理器名称排序）
+     *
+     * @return 安全策略列表
+     */
+    public List<HandlerSecurityPolicy> policies() {
+        return policies.values().stream()
+                .sorted(Comparator.comparing(HandlerSecurityPolicy::handler))
+                .toList();
+    }
+}
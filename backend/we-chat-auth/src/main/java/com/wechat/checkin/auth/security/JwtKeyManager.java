@@ -0,0 +1,305 @@
+package com.wechat.checkin.auth.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HMAC签名密钥管理器
+ * 启动时一次性构建签名密钥和JwtParser，供JwtTokenProvider、QrCodeTokenProvider复用
+ *
+ * 密钥轮换（两阶段，避免多节点切换时间差导致验签失败）：
+ * - 新签发的令牌在header中写入当前密钥的kid
+ * - 调用 publish 预先发布下一个密钥，仅用于验签；所有节点都已发布后再调用 rotate 启用签发
+ * - 调用 rotate 后旧密钥在重叠窗口内仍可验签，窗口结束后失效
+ * - 重叠窗口不得短于该密钥签发的令牌的最长有效期（见 overlapFor）；
+ *   有效期不固定的令牌（二维码）可通过 retain 按实际最晚过期时间延长旧密钥
+ * - 发布和轮换由 SigningKeyReloadJob 在密钥文件（jwt.key-file / qrcode.key-file）变化后触发
+ * - 未携带kid的历史令牌按初始密钥验签
+ *
+ * 线程安全：密钥集合为不可变快照，轮换时整体替换
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+public class JwtKeyManager {
+
+    /**
+     * 管理器名称（用于日志）
+     */
+    private final String name;
+
+    /**
+     * 旧密钥的重叠有效期
+     */
+    private final Duration overlap;
+
+    /**
+     * 初始密钥ID（未携带kid的令牌使用该密钥验签）
+     */
+    private final String legacyKeyId;
+
+    /**
+     * 复用的解析器（通过kid动态定位密钥，轮换时无需重建）
+     */
+    private final JwtParser parser;
+
+    /**
+     * 当前密钥快照
+     */
+    private volatile KeySnapshot snapshot;
+
+    public JwtKeyManager(String name, String keyId, String secret, Duration overlap) {
+        this.name = name;
+        this.overlap = overlap;
+        this.legacyKeyId = keyId;
+
+        Map<String, KeyEntry> keys = new HashMap<>();
+        keys.put(keyId, new KeyEntry(buildKey(secret), null));
+        this.snapshot = new KeySnapshot(keyId, Map.copyOf(keys));
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return locateKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 获取当前签名密钥
+     *
+     * @return 签名密钥
+     */
+    public SecretKey signingKey() {
+        KeySnapshot current = snapshot;
+        return current.keys().get(current.currentKeyId()).key();
+    }
+
+    /**
+     * 获取当前密钥ID
+     *
+     * @return 密钥ID
+     */
+    public String currentKeyId() {
+        return snapshot.currentKeyId();
+    }
+
+    /**
+     * 获取初始密钥ID（未携带kid的历史令牌按该密钥验签）
+     *
+     * @return 密钥ID
+     */
+    public String legacyKeyId() {
+        return legacyKeyId;
+    }
+
+    /**
+     * 获取已退役但仍在重叠窗口内的密钥ID
+     *
+     * @return 密钥ID集合
+     */
+    public Set<String> retiredKeyIds() {
+        Instant now = Instant.now();
+        Set<String> retired = new HashSet<>();
+        snapshot.keys().forEach((kid, entry) -> {
+            if (entry.validUntil() != null && entry.validUntil().isAfter(now)) {
+                retired.add(kid);
+            }
+        });
+        return retired;
+    }
+
+    /**
+     * 获取复用的JwtParser（线程安全）
+     *
+     * @return JwtParser
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    /**
+     * 获取当前可用于验签的密钥ID
+     *
+     * @return 密钥ID集合
+     */
+    public Set<String> keyIds() {
+        return snapshot.keys().keySet();
+    }
+
+    /**
+     * 根据kid获取验签密钥
+     * 供非JWT格式的令牌复用同一套密钥及轮换策略
+     *
+     * @param keyId 密钥ID（为空时使用初始密钥）
+     * @return 验签密钥
+     * @throws SignatureException 密钥不存在或已失效
+     */
+    public SecretKey verificationKey(String keyId) {
+        return locateKey(keyId);
+    }
+
+    /**
+     * 发布下一个签名密钥（仅用于验签，不用于签发）
+     * 替换此前发布但尚未启用的密钥
+     *
+     * @param keyId 下一个密钥ID（为null时撤销已发布的密钥）
+     * @param secret 下一个密钥
+     */
+    public synchronized void publish(String keyId, String secret) {
+        KeySnapshot current = snapshot;
+        Map<String, KeyEntry> keys = new HashMap<>();
+        current.keys().forEach((kid, entry) -> {
+            if (kid.equals(current.currentKeyId()) || entry.validUntil() != null) {
+                keys.put(kid, entry);
+            }
+        });
+        if (keyId != null && !keyId.equals(current.currentKeyId())) {
+            keys.put(keyId, new KeyEntry(buildKey(secret), null));
+        }
+        if (keys.equals(current.keys())) {
+            return;
+        }
+
+        snapshot = new KeySnapshot(current.currentKeyId(), Map.copyOf(keys));
+        if (keyId != null) {
+            log.info("[{}] 下一个签名密钥已发布（仅验签）: kid={}", name, keyId);
+        } else {
+            log.info("[{}] 已撤销发布的下一个签名密钥", name);
+        }
+    }
+
+    /**
+     * 轮换签名密钥
+     * 新密钥立即用于签发，旧密钥在重叠窗口内仍可用于验签
+     * 新密钥应已通过 publish 在所有节点发布，否则尚未发布的节点在此期间无法验证新签发的令牌
+     *
+     * @param keyId 新密钥ID
+     * @param secret 新密钥
+     */
+    public synchronized void rotate(String keyId, String secret) {
+        KeySnapshot current = snapshot;
+        if (current.currentKeyId().equals(keyId)) {
+            log.debug("[{}] 密钥ID未变化，无需轮换: kid={}", name, keyId);
+            return;
+        }
+
+        SecretKey newKey = buildKey(secret);
+        KeyEntry published = current.keys().get(keyId);
+        if (published == null || published.validUntil() != null
+                || !MessageDigest.isEqual(published.key().getEncoded(), newKey.getEncoded())) {
+            log.warn("[{}] 新密钥未预先发布，其他节点在完成轮换前无法验证本节点签发的令牌: kid={}", name, keyId);
+        }
+
+        Instant now = Instant.now();
+        Instant retireAt = now.plus(overlap);
+
+        Map<String, KeyEntry> keys = new HashMap<>();
+        current.keys().forEach((kid, entry) -> {
+            if (kid.equals(current.currentKeyId())) {
+                // 当前密钥退役，进入重叠窗口
+                keys.put(kid, new KeyEntry(entry.key(), retireAt));
+            } else if (entry.validUntil() == null || entry.validUntil().isAfter(now)) {
+                keys.put(kid, entry);
+            }
+        });
+        keys.put(keyId, new KeyEntry(newKey, null));
+
+        snapshot = new KeySnapshot(keyId, Map.copyOf(keys));
+        log.info("[{}] 签名密钥已轮换: kid={}, 旧密钥有效期至 {}", name, keyId, retireAt);
+    }
+
+    /**
+     * 延长已退役密钥的验签期限（只延长不缩短，当前密钥不受影响）
+     *
+     * @param keyId 已退役的密钥ID
+     * @param until 至少保留到该时间
+     */
+    public synchronized void retain(String keyId, Instant until) {
+        KeySnapshot current = snapshot;
+        KeyEntry entry = current.keys().get(keyId);
+        if (entry == null || entry.validUntil() == null || !until.isAfter(entry.validUntil())) {
+            return;
+        }
+
+        Map<String, KeyEntry> keys = new HashMap<>(current.keys());
+        keys.put(keyId, new KeyEntry(entry.key(), until));
+        snapshot = new KeySnapshot(current.currentKeyId(), Map.copyOf(keys));
+        log.info("[{}] 旧密钥验签期限已延长: kid={}, 有效期至 {}", name, keyId, until);
+    }
+
+    /**
+     * 计算实际使用的重叠窗口（不短于令牌最长有效期）
+     *
+     * @param name 管理器名称（用于日志）
+     * @param configured 配置的重叠窗口（为0表示按令牌最长有效期）
+     * @param tokenLifetime 令牌最长有效期
+     * @return 重叠窗口
+     */
+    public static Duration overlapFor(String name, Duration configured, Duration tokenLifetime) {
+        if (configured != null && configured.compareTo(tokenLifetime) >= 0) {
+            return configured;
+        }
+        if (configured != null && !configured.isZero()) {
+            log.warn("[{}] 密钥重叠窗口 {} 短于令牌最长有效期 {}，轮换后未过期的令牌将无法验签，已按令牌有效期处理",
+                    name, configured, tokenLifetime);
+        }
+        return tokenLifetime;
+    }
+
+    /**
+     * 根据kid定位验签密钥
+     */
+    private SecretKey locateKey(String keyId) {
+        KeySnapshot current = snapshot;
+        KeyEntry entry = current.keys().get(keyId != null ? keyId : legacyKeyId);
+        if (entry == null) {
+            throw new SignatureException("未知的签名密钥: kid=" + keyId);
+        }
+        if (entry.validUntil() != null && entry.validUntil().isBefore(Instant.now())) {
+            throw new SignatureException("签名密钥已失效: kid=" + keyId);
+        }
+        return entry.key();
+    }
+
+    private static SecretKey buildKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 密钥条目
+     *
+     * @param key 密钥
+     * @param validUntil 失效时间（当前密钥为null）
+     */
+    private record KeyEntry(SecretKey key, Instant validUntil) {
+    }
+
+    /**
+     * 不可变密钥快照
+     *
+     * @param currentKeyId 当前签名密钥ID
+     * @param keys 所有可用于验签的密钥
+     */
+    private record KeySnapshot(String currentKeyId, Map<String, KeyEntry> keys) {
+    }
+}
@@ -1,16 +1,28 @@
 package com.wechat.checkin.auth.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.ResultCode;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 
 /**
@@ -22,8 +34,13 @@ import java.util.Map;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private static final String CLAIMS_CACHE_NAME = "jwtClaims";
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
     /**
      * JWT密钥
      */
@@ -48,6 +65,87 @@ public class JwtTokenProvider {
     @Value("${jwt.issuer:wechat-checkin-system}")
     private String issuer;
 
+    /**
+     * 签名密钥ID（写入令牌header的kid）
+     */
+    @Value("${jwt.key-id:default}")
+    private String keyId;
+
+    /**
+     * 密钥轮换后旧密钥的重叠有效期（不短于访问令牌、刷新令牌的最长有效期，为0时取该值）
+     */
+    @Value("${jwt.key-overlap:PT0S}")
+    private Duration keyOverlap;
+
+    /**
+     * 声明缓存最大条目数
+     */
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    /**
+     * 声明缓存最长有效期（不超过令牌自身的过期时间）
+     */
+    @Value("${jwt.claims-cache.ttl:PT5M}")
+    private Duration claimsCacheTtl;
+
+    /**
+     * 签名密钥管理器（启动时构建，复用密钥和解析器）
+     */
+    private JwtKeyManager keyManager;
+
+    /**
+     * 已验签声明缓存（令牌SHA-256 -> 声明）
+     * 管理端页面轮询时同一令牌反复出现，命中后跳过HS512验签；
+     * 条目在令牌过期时刻与TTL中较早者失效，密钥轮换后旧密钥签发的令牌最多再被接受一个TTL
+     */
+    private Cache<String, AuthClaims> claimsCache;
+
+    /**
+     * 初始化签名密钥和声明缓存
+     */
+    @PostConstruct
+    public void init() {
+        Duration tokenLifetime = Duration.ofMillis(Math.max(accessTokenExpiration, refreshTokenExpiration));
+        keyManager = new JwtKeyManager("jwt", keyId, jwtSecret,
+                JwtKeyManager.overlapFor("jwt", keyOverlap, tokenLifetime));
+
+        long maxTtlNanos = claimsCacheTtl.toNanos();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(Expiry.creating((String key, AuthClaims claims) -> {
+                    long remainingMillis = claims.expiration() != null
+                            ? claims.expiration().getTime() - System.currentTimeMillis()
+                            : Long.MAX_VALUE;
+                    return Duration.ofNanos(Math.min(maxTtlNanos,
+                            Math.max(0, Duration.ofMillis(remainingMillis).toNanos())));
+                }))
+                .recordStats()
+                .build();
+        meterRegistryProvider.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, claimsCache, CLAIMS_CACHE_NAME));
+        log.info("JWT声明缓存已初始化: maxSize={}, ttl={}", claimsCacheMaxSize, claimsCacheTtl);
+    }
+
+    /**
+     * 发布下一个签名密钥（仅验签），所有节点发布后再调用 rotateSigningKey 启用
+     *
+     * @param nextKeyId 下一个密钥ID（为null时撤销）
+     * @param nextSecret 下一个密钥
+     */
+    public void publishNextSigningKey(String nextKeyId, String nextSecret) {
+        keyManager.publish(nextKeyId, nextSecret);
+    }
+
+    /**
+     * 轮换签名密钥，旧密钥在重叠窗口内仍可验签
+     *
+     * @param newKeyId 新密钥ID
+     * @param newSecret 新密钥
+     */
+    public void rotateSigningKey(String newKeyId, String newSecret) {
+        keyManager.rotate(newKeyId, newSecret);
+    }
+
     /**
      * 生成访问令牌
      *
@@ -94,13 +192,16 @@ public class JwtTokenProvider {
     private String generateToken(Map<String, Object> claims, long expiration) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
+        // kid 与签名密钥取自同一密钥ID，轮换期间不会错配
+        String currentKeyId = keyManager.currentKeyId();
 
         return Jwts.builder()
+                .header().keyId(currentKeyId).and()
                 .claims(claims)
                 .issuer(issuer)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+                .signWith(keyManager.verificationKey(currentKeyId), Jwts.SIG.HS512)
                 .compact();
     }
 
@@ -111,8 +212,7 @@ public class JwtTokenProvider {
      * @return 用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return parseClaims(token).userId();
     }
 
     /**
@@ -122,8 +222,7 @@ public class JwtTokenProvider {
      * @return 用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("username", String.class);
+        return parseClaims(token).username();
     }
 
     /**
@@ -133,8 +232,7 @@ public class JwtTokenProvider {
      * @return 角色
      */
     public String getRoleFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("role", String.class);
+        return parseClaims(token).role();
     }
 
     /**
@@ -144,8 +242,7 @@ public class JwtTokenProvider {
      * @return 县级代码
      */
     public String getCountyCodeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("countyCode", String.class);
+        return parseClaims(token).countyCode();
     }
 
     /**
@@ -155,8 +252,7 @@ public class JwtTokenProvider {
      * @return 令牌类型
      */
     public String getTokenTypeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("tokenType", String.class);
+        return parseClaims(token).tokenType();
     }
 
     /**
@@ -166,8 +262,7 @@ public class JwtTokenProvider {
      * @return 过期时间
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
+        return parseClaims(token).expiration();
     }
 
     /**
@@ -178,7 +273,7 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            getClaimsFromToken(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.warn("JWT令牌验证失败: {}", e.getMessage());
@@ -201,6 +296,56 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * 解析令牌声明（验签结果按令牌摘要缓存）
+     * 同一请求内应只调用一次，并复用返回的声明
+     *
+     * @param token JWT令牌
+     * @return 声明
+     * @throws BusinessException 令牌过期、格式错误或参数错误
+     * @throws JwtException 签名验证失败
+     */
+    public AuthClaims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            log.warn("JWT令牌参数错误: 令牌为空");
+            throw new BusinessException(ResultCode.TOKEN_INVALID);
+        }
+
+        String cacheKey = digest(token);
+        AuthClaims cached = claimsCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            claimsCache.invalidate(cacheKey);
+            log.warn("JWT令牌已过期: exp={}", cached.expiration());
+            throw new BusinessException(ResultCode.TOKEN_EXPIRED);
+        }
+
+        Claims claims = getClaimsFromToken(token);
+        AuthClaims authClaims = new AuthClaims(
+                claims.get("userId", Long.class),
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                claims.get("countyCode", String.class),
+                claims.get("tokenType", String.class),
+                claims.getExpiration());
+        claimsCache.put(cacheKey, authClaims);
+        return authClaims;
+    }
+
+    /**
+     * 计算令牌摘要作为缓存键，避免在内存中长期保留令牌原文
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
     /**
      * 从令牌中获取声明
      *
@@ -209,9 +354,7 @@ public class JwtTokenProvider {
      */
     private Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return keyManager.parser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (ExpiredJwtException e) {
@@ -224,24 +367,18 @@ public class JwtTokenProvider {
             log.warn("JWT令牌格式错误: {}", e.getMessage());
             throw new BusinessException(ResultCode.TOKEN_INVALID);
         } catch (SecurityException e) {
+            // 含 SignatureException：签名不匹配，或 kid 未知/已过重叠窗口
             log.warn("JWT令牌签名验证失败: {}", e.getMessage());
             throw new BusinessException(ResultCode.TOKEN_INVALID);
         } catch (IllegalArgumentException e) {
             log.warn("JWT令牌参数错误: {}", e.getMessage());
             throw new BusinessException(ResultCode.TOKEN_INVALID);
+        } catch (JwtException e) {
+            log.warn("JWT令牌验证失败: {}", e.getMessage());
+            throw new BusinessException(ResultCode.TOKEN_INVALID);
         }
     }
 
-    /**
-     * 获取签名密钥
-     *
-     * @return 签名密钥
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     /**
      * 获取访问令牌过期时间（秒）
      *
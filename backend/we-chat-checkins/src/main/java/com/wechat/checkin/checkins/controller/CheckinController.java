@@ -9,6 +9,7 @@ import com.wechat.checkin.checkins.service.CheckinService;
 import com.wechat.checkin.checkins.vo.CheckinStatisticsVO;
 import com.wechat.checkin.checkins.vo.CheckinSubmitResponseVO;
 import com.wechat.checkin.checkins.vo.CheckinVO;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.Result;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -84,6 +85,26 @@ public class CheckinController {
         return Result.success("查询成功", result);
     }
 
+    /**
+     * 游标分页查询打卡记录（管理端接口，需要登录）
+     * 
+     * @param request 查询请求
+     * @return 打卡记录游标分页结果
+     */
+    @GetMapping("/scroll")
+    @RequireRole({"city", "county"})
+    @RequireDataPermission
+    @Operation(
+        summary = "游标分页查询打卡记录",
+        description = "按提交时间倒序游标分页，翻页深度不影响查询耗时。" +
+                     "首次请求不带cursor，之后传入上一批返回的nextCursor；withTotal=true时额外返回总数。"
+    )
+    public Result<CursorPage<CheckinVO>> scrollCheckins(CheckinQueryRequest request) {
+        log.info("游标查询打卡记录: {}", request);
+        CursorPage<CheckinVO> result = checkinService.scrollCheckins(request);
+        return Result.success("查询成功", result);
+    }
+
     /**
      * 查询活动的打卡统计信息
      * 
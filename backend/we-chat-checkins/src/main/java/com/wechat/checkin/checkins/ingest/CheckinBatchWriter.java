@@ -0,0 +1,252 @@
+package com.wechat.checkin.checkins.ingest;
+
+import com.wechat.checkin.activity.live.ParticipationEvent;
+import com.wechat.checkin.activity.service.ActivityStatsService;
+import com.wechat.checkin.checkins.entity.Checkin;
+import com.wechat.checkin.checkins.mapper.CheckinMapper;
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointDirectory;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointEntry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 打卡批量写入器（write-behind）
+ * 仅在 checkin.ingest.mode=batch 时启用
+ *
+ * 工作方式：
+ * - 校验通过的打卡记录进入有界队列，提交线程不占用数据库连接
+ * - 专用写线程按批量大小或刷新间隔合并为一条多行INSERT，并在同一事务中累加活动统计
+ * - 提交线程等待所在批次写入完成后才返回，确认即持久化
+ * - 批量插入失败（如唯一约束冲突）时逐条回退，每条记录单独返回结果
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "checkin.ingest.mode", havingValue = "batch")
+public class CheckinBatchWriter {
+
+    private final CheckinMapper checkinMapper;
+    private final ActivityStatsService activityStatsService;
+    private final TeachingPointDirectory teachingPointDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final BlockingQueue<PendingCheckin> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration ackTimeout;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public CheckinBatchWriter(CheckinMapper checkinMapper,
+                              ActivityStatsService activityStatsService,
+                              TeachingPointDirectory teachingPointDirectory,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectProvider<MeterRegistry> meterRegistryProvider,
+                              @Value("${checkin.ingest.queue-capacity:10000}") int queueCapacity,
+                              @Value("${checkin.ingest.batch-size:100}") int batchSize,
+                              @Value("${checkin.ingest.flush-interval:PT0.005S}") Duration flushInterval,
+                              @Value("${checkin.ingest.ack-timeout:PT5S}") Duration ackTimeout) {
+        this.checkinMapper = checkinMapper;
+        this.activityStatsService = activityStatsService;
+        this.teachingPointDirectory = teachingPointDirectory;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.ackTimeout = ackTimeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runLoop, "checkin-batch-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        meterRegistryProvider.ifAvailable(registry -> Gauge.builder("checkin.ingest.queue.size", queue, BlockingQueue::size)
+                .description("待写入的打卡记录数")
+                .register(registry));
+        log.info("打卡批量写入器已启动: batchSize={}, flushInterval={}, queueCapacity={}",
+                batchSize, flushInterval, queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread.join(ackTimeout.toMillis());
+        }
+        log.info("打卡批量写入器已停止, 剩余未写入={}", queue.size());
+    }
+
+    /**
+     * 提交打卡记录并等待写入完成
+     *
+     * @param checkin 打卡记录
+     * @return 已写入的打卡记录（包含ID）
+     * @throws org.springframework.dao.DuplicateKeyException 唯一约束冲突
+     */
+    public Checkin write(Checkin checkin) {
+        if (!running) {
+            throw new BusinessException(ResultCode.SERVICE_UNAVAILABLE, "打卡服务正在停止，请稍后重试");
+        }
+
+        PendingCheckin pending = new PendingCheckin(checkin, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.warn("打卡写入队列已满, activityId={}, teachingPointId={}",
+                    checkin.getActivityId(), checkin.getTeachingPointId());
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "打卡提交繁忙，请稍后重试");
+        }
+
+        try {
+            return pending.future().get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException(ResultCode.SYSTEM_ERROR, "打卡写入失败");
+        } catch (TimeoutException e) {
+            log.warn("打卡写入确认超时, activityId={}, teachingPointId={}",
+                    checkin.getActivityId(), checkin.getTeachingPointId());
+            throw new BusinessException(ResultCode.GATEWAY_TIMEOUT, "打卡提交超时，请稍后查询打卡结果");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.SYSTEM_ERROR, "打卡提交被中断");
+        }
+    }
+
+    /**
+     * 写线程主循环：停止后继续写完队列中剩余记录
+     */
+    private void runLoop() {
+        List<PendingCheckin> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // 停止信号：退出等待，继续写完已收集和剩余的记录
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 收集一个批次：等待第一条记录，之后在刷新间隔内凑满批量大小
+     */
+    private void collectBatch(List<PendingCheckin> batch) throws InterruptedException {
+        PendingCheckin first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PendingCheckin next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * 写入一个批次
+     */
+    private void flush(List<PendingCheckin> batch) {
+        List<Checkin> checkins = batch.stream().map(PendingCheckin::checkin).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                checkinMapper.insertBatch(checkins);
+                recordStatistics(checkins);
+            });
+            batch.forEach(pending -> pending.future().complete(pending.checkin()));
+            log.debug("打卡批量写入完成, size={}", batch.size());
+        } catch (Exception e) {
+            log.warn("打卡批量写入失败，逐条回退, size={}, reason={}", batch.size(), e.getMessage());
+            flushOneByOne(batch);
+        }
+    }
+
+    /**
+     * 逐条写入（批量失败时回退），每条记录单独返回结果
+     */
+    private void flushOneByOne(List<PendingCheckin> batch) {
+        for (PendingCheckin pending : batch) {
+            try {
+                Checkin checkin = pending.checkin();
+                checkin.setId(null);
+                transactionTemplate.executeWithoutResult(status -> {
+                    checkinMapper.insert(checkin);
+                    recordStatistics(List.of(checkin));
+                });
+                pending.future().complete(pending.checkin());
+            } catch (Exception e) {
+                pending.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 按活动累加统计汇总并发布参与事件（事务提交后推送）
+     */
+    private void recordStatistics(List<Checkin> checkins) {
+        Map<Long, List<Long>> teachingPointIdsByActivity = checkins.stream()
+                .collect(Collectors.groupingBy(Checkin::getActivityId,
+                        Collectors.mapping(Checkin::getTeachingPointId, Collectors.toList())));
+        teachingPointIdsByActivity.forEach(activityStatsService::recordCheckins);
+        for (Checkin checkin : checkins) {
+            TeachingPointEntry teachingPoint = teachingPointDirectory.get(checkin.getTeachingPointId());
+            eventPublisher.publishEvent(ParticipationEvent.checkin(checkin.getActivityId(), checkin.getTeachingPointId(),
+                    teachingPoint != null ? teachingPoint.countyCode() : null, checkin.getAttendeeCount()));
+        }
+    }
+
+    /**
+     * 待写入的打卡记录
+     *
+     * @param checkin 打卡记录
+     * @param future 写入结果
+     */
+    private record PendingCheckin(Checkin checkin, CompletableFuture<Checkin> future) {
+    }
+}
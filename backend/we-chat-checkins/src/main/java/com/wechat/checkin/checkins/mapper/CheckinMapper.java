@@ -2,7 +2,14 @@ package com.wechat.checkin.checkins.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.wechat.checkin.checkins.entity.Checkin;
+import com.wechat.checkin.checkins.vo.CheckinStatisticsVO;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 打卡数据访问接口
@@ -12,4 +19,32 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface CheckinMapper extends BaseMapper<Checkin> {
+
+    /**
+     * 聚合查询活动打卡统计（单次查询，由覆盖索引 idx_checkins_activity_tp_attendee 支撑）
+     * 唯一约束保证同一活动同一教学点只有一条记录，COUNT(*) 即参与教学点数
+     *
+     * @param activityId 活动ID
+     * @return 打卡统计
+     */
+    @Select("SELECT #{activityId} AS activityId, " +
+            "COUNT(*) AS participatingTeachingPoints, " +
+            "COALESCE(SUM(attendee_count), 0) AS totalAttendees " +
+            "FROM checkins WHERE activity_id = #{activityId}")
+    CheckinStatisticsVO selectStatistics(@Param("activityId") Long activityId);
+
+    /**
+     * 多行插入打卡记录（批量写入模式使用，回填自增ID）
+     *
+     * @param checkins 打卡记录列表
+     * @return 插入行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO checkins (activity_id, teaching_point_id, attendee_count, submitted_time, source_qrcode_id) VALUES",
+            "<foreach collection='list' item='c' separator=','>",
+            "(#{c.activityId}, #{c.teachingPointId}, #{c.attendeeCount}, #{c.submittedTime}, #{c.sourceQrcodeId})",
+            "</foreach>",
+            "</script>"})
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insertBatch(@Param("list") List<Checkin> checkins);
 }
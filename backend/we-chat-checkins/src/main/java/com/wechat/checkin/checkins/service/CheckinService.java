@@ -8,6 +8,7 @@ import com.wechat.checkin.checkins.entity.Checkin;
 import com.wechat.checkin.checkins.vo.CheckinStatisticsVO;
 import com.wechat.checkin.checkins.vo.CheckinSubmitResponseVO;
 import com.wechat.checkin.checkins.vo.CheckinVO;
+import com.wechat.checkin.common.response.CursorPage;
 
 /**
  * 打卡服务接口
@@ -33,6 +34,14 @@ public interface CheckinService extends IService<Checkin> {
      */
     Page<CheckinVO> queryCheckins(CheckinQueryRequest request);
 
+    /**
+     * 游标分页查询打卡记录（按提交时间、ID倒序，不受翻页深度影响）
+     * 
+     * @param request 查询请求（使用 cursor、size、withTotal）
+     * @return 打卡记录游标分页结果
+     */
+    CursorPage<CheckinVO> scrollCheckins(CheckinQueryRequest request);
+
     /**
      * 查询活动的打卡统计信息
      * 
@@ -4,11 +4,14 @@ import cn.hutool.core.util.ObjectUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.wechat.checkin.activity.entity.Activity;
-import com.wechat.checkin.activity.mapper.ActivityMapper;
+import com.wechat.checkin.activity.cache.ActivitySnapshot;
+import com.wechat.checkin.activity.cache.ActivitySnapshotCache;
+import com.wechat.checkin.activity.live.ParticipationEvent;
+import com.wechat.checkin.activity.service.ActivityStatsService;
 import com.wechat.checkin.checkins.dto.CheckinQueryRequest;
 import com.wechat.checkin.checkins.dto.CheckinSubmitRequest;
 import com.wechat.checkin.checkins.entity.Checkin;
+import com.wechat.checkin.checkins.ingest.CheckinBatchWriter;
 import com.wechat.checkin.checkins.mapper.CheckinMapper;
 import com.wechat.checkin.checkins.service.CheckinService;
 import com.wechat.checkin.checkins.vo.CheckinStatisticsVO;
@@ -16,17 +19,29 @@ import com.wechat.checkin.checkins.vo.CheckinSubmitResponseVO;
 import com.wechat.checkin.checkins.vo.CheckinVO;
 import com.wechat.checkin.common.enums.QrCodeTypeEnum;
 import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.CursorPage;
+import com.wechat.checkin.common.util.InFlightGuard;
+import com.wechat.checkin.common.util.KeysetPagination;
 import com.wechat.checkin.common.validator.ParticipationValidator;
-import com.wechat.checkin.qrcode.entity.QrCode;
-import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
+import com.wechat.checkin.county.directory.CountyDirectory;
+import com.wechat.checkin.qrcode.cache.QrCodeState;
 import com.wechat.checkin.qrcode.service.QrCodeService;
 import com.wechat.checkin.qrcode.vo.QrCodeVerifyResultVO;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointDirectory;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointEntry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 打卡服务实现
@@ -45,13 +60,26 @@ import java.time.LocalDateTime;
 public class CheckinServiceImpl extends ServiceImpl<CheckinMapper, Checkin> implements CheckinService {
 
     private final CheckinMapper checkinMapper;
-    private final ActivityMapper activityMapper;
+    private final ActivitySnapshotCache activitySnapshotCache;
+    private final CountyDirectory countyDirectory;
+    private final TeachingPointDirectory teachingPointDirectory;
     private final QrCodeService qrCodeService;
-    private final QrCodeMapper qrCodeMapper;
     private final ParticipationValidator validator;  // 新增
+    private final ObjectProvider<CheckinBatchWriter> batchWriterProvider;
+    private final ActivityStatsService activityStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * 重复打卡防护（进程内拦截并发重复提交，数据库唯一约束兜底）
+     */
+    private final InFlightGuard submitGuard = new InFlightGuard(10000, Duration.ofHours(1));
+
+    /**
+     * 提交打卡
+     * 校验阶段不开启事务，避免占用数据库连接；写入记录与统计汇总在独立的短事务中完成
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public CheckinSubmitResponseVO submitCheckin(CheckinSubmitRequest request) {
         log.info("开始提交打卡, token={}, teachingPointId={}, attendeeCount={}", 
             request.getToken(), request.getTeachingPointId(), request.getAttendeeCount());
@@ -68,36 +96,53 @@ public class CheckinServiceImpl extends ServiceImpl<CheckinMapper, Checkin> impl
         );
         validator.validateQrCodeValid(verifyResult);
 
-        // 2. 获取二维码和活动信息
-        QrCode qrCode = qrCodeMapper.selectById(verifyResult.getQrcodeId());
-        Long activityId = qrCode.getActivityId();
+        // 2. 获取二维码和活动信息（二维码状态由验证结果携带，无需再次查询）
+        QrCodeState qrCode = verifyResult.getQrCodeState();
+        Long activityId = qrCode.activityId();
         
-        Activity activity = activityMapper.selectById(activityId);
+        ActivitySnapshot activity = activitySnapshotCache.get(activityId);
 
         // 3. 验证活动状态（进行中）
         validator.validateActivityOngoing(activity);
 
-        // 4. 检查幂等性（防重复打卡）
-        LambdaQueryWrapper<Checkin> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Checkin::getActivityId, activityId)
-                   .eq(Checkin::getTeachingPointId, request.getTeachingPointId());
-        
-        if (checkinMapper.exists(queryWrapper)) {
+        // 教学点须启用且属于活动范围（内存目录校验，不访问数据库）
+        TeachingPointEntry teachingPoint = teachingPointDirectory.requireEnabled(
+                request.getTeachingPointId(), activity.getScopeCountyCode());
+
+        // 4. 检查幂等性（防重复打卡）：进程内拦截重复提交，不访问数据库
+        String guardKey = InFlightGuard.key(activityId, request.getTeachingPointId());
+        if (submitGuard.isCompleted(guardKey)) {
             log.info("该教学点已打卡, activityId={}, teachingPointId={}", 
                 activityId, request.getTeachingPointId());
             throw new BusinessException(1402, "该教学点已打卡");
         }
+        if (!submitGuard.tryAcquire(guardKey)) {
+            log.info("该教学点打卡正在提交中, activityId={}, teachingPointId={}", 
+                activityId, request.getTeachingPointId());
+            throw new BusinessException(1402, "该教学点打卡正在提交中，请勿重复提交");
+        }
 
-        // 5. 创建打卡记录
+        // 5. 创建打卡记录（直接插入，由唯一约束 uk_checkins_activity_teaching_point 保证幂等）
         Checkin checkin = Checkin.builder()
                 .activityId(activityId)
                 .teachingPointId(request.getTeachingPointId())
                 .attendeeCount(request.getAttendeeCount())
                 .submittedTime(LocalDateTime.now())
-                .sourceQrcodeId(qrCode.getId())
+                .sourceQrcodeId(qrCode.id())
                 .build();
 
-        checkinMapper.insert(checkin);
+        boolean succeeded = false;
+        try {
+            persist(checkin, teachingPoint.countyCode());
+            succeeded = true;
+        } catch (DuplicateKeyException e) {
+            log.info("该教学点已打卡, activityId={}, teachingPointId={}", 
+                activityId, request.getTeachingPointId());
+            submitGuard.markCompleted(guardKey);
+            throw new BusinessException(1402, "该教学点已打卡");
+        } finally {
+            submitGuard.release(guardKey, succeeded);
+        }
         log.info("打卡成功, checkinId={}", checkin.getId());
 
         return CheckinSubmitResponseVO.builder()
@@ -113,6 +158,33 @@ public class CheckinServiceImpl extends ServiceImpl<CheckinMapper, Checkin> impl
             request.getActivityId(), request.getTeachingPointId());
 
         Page<Checkin> page = new Page<>(request.getCurrent(), request.getSize());
+        LambdaQueryWrapper<Checkin> queryWrapper = buildQueryWrapper(request);
+        queryWrapper.orderByDesc(Checkin::getSubmittedTime);
+
+        Page<Checkin> checkinPage = checkinMapper.selectPage(page, queryWrapper);
+
+        Page<CheckinVO> resultPage = new Page<>(checkinPage.getCurrent(), checkinPage.getSize());
+        resultPage.setTotal(checkinPage.getTotal());
+        resultPage.setRecords(convertToVOs(checkinPage.getRecords()));
+        return resultPage;
+    }
+
+    @Override
+    public CursorPage<CheckinVO> scrollCheckins(CheckinQueryRequest request) {
+        log.info("游标查询打卡记录, activityId={}, teachingPointId={}, size={}", 
+            request.getActivityId(), request.getTeachingPointId(), request.getSize());
+
+        // 按 (submitted_time, id) 倒序，指定活动时走 idx_checkins_activity_submitted_time
+        CursorPage<Checkin> page = KeysetPagination.query(checkinMapper, buildQueryWrapper(request),
+                Checkin::getSubmittedTime, Checkin::getId,
+                request.getCursor(), request.getSize(), Boolean.TRUE.equals(request.getWithTotal()));
+        return page.convert(convertToVOs(page.getRecords()));
+    }
+
+    /**
+     * 构建打卡记录过滤条件（不含排序）
+     */
+    private LambdaQueryWrapper<Checkin> buildQueryWrapper(CheckinQueryRequest request) {
         LambdaQueryWrapper<Checkin> queryWrapper = new LambdaQueryWrapper<>();
 
         if (ObjectUtil.isNotNull(request.getActivityId())) {
@@ -122,18 +194,28 @@ public class CheckinServiceImpl extends ServiceImpl<CheckinMapper, Checkin> impl
         if (ObjectUtil.isNotNull(request.getTeachingPointId())) {
             queryWrapper.eq(Checkin::getTeachingPointId, request.getTeachingPointId());
         }
+        return queryWrapper;
+    }
 
-        queryWrapper.orderByDesc(Checkin::getSubmittedTime);
-
-        Page<Checkin> checkinPage = checkinMapper.selectPage(page, queryWrapper);
+    /**
+     * 批量组装打卡记录VO
+     * 按当前页去重后的活动ID、教学点ID批量解析（活动走快照缓存，教学点走内存目录），再从映射组装VO
+     */
+    private List<CheckinVO> convertToVOs(List<Checkin> records) {
+        Map<Long, ActivitySnapshot> activities = activitySnapshotCache.getAll(records.stream()
+                .map(Checkin::getActivityId)
+                .filter(ObjectUtil::isNotNull)
+                .collect(Collectors.toSet()));
+        Map<Long, TeachingPointEntry> teachingPoints = teachingPointDirectory.resolve(records.stream()
+                .map(Checkin::getTeachingPointId)
+                .filter(ObjectUtil::isNotNull)
+                .collect(Collectors.toSet()));
 
-        // 转换为VO并填充活动名称
-        Page<CheckinVO> resultPage = new Page<>(checkinPage.getCurrent(), checkinPage.getSize());
-        resultPage.setTotal(checkinPage.getTotal());
-        resultPage.setRecords(checkinPage.getRecords().stream()
-                .map(this::convertToVO)
-                .collect(java.util.stream.Collectors.toList()));
-        return resultPage;
+        return records.stream()
+                .map(checkin -> convertToVO(checkin,
+                        activities.get(checkin.getActivityId()),
+                        teachingPoints.get(checkin.getTeachingPointId())))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -142,49 +224,33 @@ public class CheckinServiceImpl extends ServiceImpl<CheckinMapper, Checkin> impl
 
         validator.validatePositive(activityId, "活动ID");
 
-        // 使用数据库聚合（优化：不再使用Java stream求和）
-        LambdaQueryWrapper<Checkin> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Checkin::getActivityId, activityId);
-
-        // 参与教学点数
-        long participatingTeachingPoints = checkinMapper.selectCount(queryWrapper);
+        // 数据库单次聚合，不再加载活动全部打卡记录
+        return checkinMapper.selectStatistics(activityId);
+    }
 
-        // 累计参与人数（使用数据库SUM，需要在Mapper中添加方法）
-        // 如果Mapper中有sumAttendeeCount方法，使用它；否则使用原方法
-        long totalAttendees = 0;
-        try {
-            // 尝试使用Mapper中的sum方法
-            totalAttendees = checkinMapper.selectCount(queryWrapper);
-            // 如果Mapper中有专门的sum方法，可以改为：
-            // totalAttendees = checkinMapper.sumAttendeeCountByActivityId(activityId);
-            
-            // 暂时仍使用原方法（后续优化）
-            Page<Checkin> page = new Page<>(1, Integer.MAX_VALUE);
-            Page<Checkin> checkinPage = checkinMapper.selectPage(page, queryWrapper);
-            totalAttendees = checkinPage.getRecords().stream()
-                    .mapToLong(Checkin::getAttendeeCount)
-                    .sum();
-        } catch (Exception e) {
-            log.warn("查询总人数失败，使用备用方案", e);
-            Page<Checkin> page = new Page<>(1, Integer.MAX_VALUE);
-            Page<Checkin> checkinPage = checkinMapper.selectPage(page, queryWrapper);
-            totalAttendees = checkinPage.getRecords().stream()
-                    .mapToLong(Checkin::getAttendeeCount)
-                    .sum();
+    /**
+     * 写入打卡记录
+     * 启用批量写入模式（checkin.ingest.mode=batch）时交由批量写入器合并写入，
+     * 否则在同一事务中插入记录并累加活动统计
+     */
+    private void persist(Checkin checkin, String countyCode) {
+        CheckinBatchWriter batchWriter = batchWriterProvider.getIfAvailable();
+        if (batchWriter != null) {
+            batchWriter.write(checkin);
+            return;
         }
-
-        return CheckinStatisticsVO.builder()
-                .activityId(activityId)
-                .participatingTeachingPoints(participatingTeachingPoints)
-                .totalAttendees(totalAttendees)
-                .build();
+        transactionTemplate.executeWithoutResult(status -> {
+            checkinMapper.insert(checkin);
+            activityStatsService.recordCheckins(checkin.getActivityId(), List.of(checkin.getTeachingPointId()));
+            eventPublisher.publishEvent(ParticipationEvent.checkin(checkin.getActivityId(),
+                    checkin.getTeachingPointId(), countyCode, checkin.getAttendeeCount()));
+        });
     }
 
     /**
      * 将Checkin转换为CheckinVO
      */
-    private CheckinVO convertToVO(Checkin checkin) {
-        Activity activity = activityMapper.selectById(checkin.getActivityId());
+    private CheckinVO convertToVO(Checkin checkin, ActivitySnapshot activity, TeachingPointEntry teachingPoint) {
         String activityName = ObjectUtil.isNotNull(activity) ? activity.getName() : "";
 
         return CheckinVO.builder()
@@ -192,6 +258,9 @@ public class CheckinServiceImpl extends ServiceImpl<CheckinMapper, Checkin> impl
                 .activityId(checkin.getActivityId())
                 .activityName(activityName)
                 .teachingPointId(checkin.getTeachingPointId())
+                .teachingPointName(ObjectUtil.isNotNull(teachingPoint) ? teachingPoint.name() : "")
+                .countyCode(ObjectUtil.isNotNull(teachingPoint) ? teachingPoint.countyCode() : null)
+                .countyName(ObjectUtil.isNotNull(teachingPoint) ? countyDirectory.getName(teachingPoint.countyCode(), "") : "")
                 .attendeeCount(checkin.getAttendeeCount())
                 .submittedTime(checkin.getSubmittedTime())
                 .sourceQrcodeId(checkin.getSourceQrcodeId())
@@ -52,6 +52,18 @@ public class CheckinVO {
     @Schema(description = "教学点名称", example = "第一小学教学点")
     private String teachingPointName;
 
+    /**
+     * 县域编码
+     */
+    @Schema(description = "县域编码", example = "450102")
+    private String countyCode;
+
+    /**
+     * 县域名称
+     */
+    @Schema(description = "县域名称", example = "江州区")
+    private String countyName;
+
     /**
      * 实到人数
      */
@@ -0,0 +1,16 @@
+package com.wechat.checkin.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * 启用 @Scheduled 定时任务（统计对账等后台任务）
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -232,4 +232,9 @@ public final class CommonConstants {
      * 县域代码请求属性名
      */
     public static final String COUNTY_CODE_ATTR = "currentCountyCode";
+
+    /**
+     * 当前用户主体请求属性名（认证拦截器解析令牌后写入，后续拦截器复用，避免重复验签）
+     */
+    public static final String USER_PRINCIPAL_ATTR = "currentUserPrincipal";
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.wechat.checkin.common.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Map;
+
 /**
  * 活动状态枚举
  * 对应数据库activities表的status字段：ENUM('draft', 'ongoing', 'ended')
@@ -12,7 +14,7 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public enum ActivityStatusEnum {
+public enum ActivityStatusEnum implements ValueEnum {
 
     /**
      * 草稿状态
@@ -39,19 +41,16 @@ public enum ActivityStatusEnum {
      */
     private final String description;
 
+    /**
+     * 值 -> 枚举 查找表
+     */
+    private static final Map<String, ActivityStatusEnum> BY_VALUE = ValueEnum.index(values());
+
     /**
      * 根据状态值获取枚举
      */
     public static ActivityStatusEnum getByValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        for (ActivityStatusEnum status : values()) {
-            if (status.getValue().equals(value)) {
-                return status;
-            }
-        }
-        return null;
+        return value == null ? null : BY_VALUE.get(value);
     }
 
     /**
@@ -3,6 +3,8 @@ package com.wechat.checkin.common.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Map;
+
 /**
  * 签到状态枚举
  *
@@ -11,7 +13,7 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public enum CheckInStatusEnum {
+public enum CheckInStatusEnum implements ValueEnum {
 
     /**
      * 未签到
@@ -43,19 +45,16 @@ public enum CheckInStatusEnum {
      */
     private final String description;
 
+    /**
+     * 值 -> 枚举 查找表
+     */
+    private static final Map<String, CheckInStatusEnum> BY_VALUE = ValueEnum.index(values());
+
     /**
      * 根据状态值获取枚举
      */
     public static CheckInStatusEnum getByValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        for (CheckInStatusEnum status : values()) {
-            if (status.getValue().equals(value)) {
-                return status;
-            }
-        }
-        return null;
+        return value == null ? null : BY_VALUE.get(value);
     }
 
     /**
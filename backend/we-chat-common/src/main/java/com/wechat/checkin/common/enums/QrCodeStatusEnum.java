@@ -3,6 +3,8 @@ package com.wechat.checkin.common.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Map;
+
 /**
  * 二维码状态枚举
  * 对应数据库qrcodes表的status字段：ENUM('enabled', 'disabled', 'deleted')
@@ -12,7 +14,7 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public enum QrCodeStatusEnum {
+public enum QrCodeStatusEnum implements ValueEnum {
 
     /**
      * 启用状态
@@ -39,19 +41,16 @@ public enum QrCodeStatusEnum {
      */
     private final String description;
 
+    /**
+     * 值 -> 枚举 查找表
+     */
+    private static final Map<String, QrCodeStatusEnum> BY_VALUE = ValueEnum.index(values());
+
     /**
      * 根据状态值获取枚举
      */
     public static QrCodeStatusEnum getByValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        for (QrCodeStatusEnum status : values()) {
-            if (status.getValue().equals(value)) {
-                return status;
-            }
-        }
-        return null;
+        return value == null ? null : BY_VALUE.get(value);
     }
 
     /**
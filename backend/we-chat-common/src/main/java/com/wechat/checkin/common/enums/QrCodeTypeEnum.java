@@ -3,6 +3,8 @@ package com.wechat.checkin.common.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Map;
+
 /**
  * 二维码类型枚举
  * 对应数据库qrcodes表的type字段：ENUM('checkin', 'evaluation')
@@ -12,7 +14,7 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public enum QrCodeTypeEnum {
+public enum QrCodeTypeEnum implements ValueEnum {
 
     /**
      * 签到二维码
@@ -34,19 +36,16 @@ public enum QrCodeTypeEnum {
      */
     private final String description;
 
+    /**
+     * 值 -> 枚举 查找表
+     */
+    private static final Map<String, QrCodeTypeEnum> BY_VALUE = ValueEnum.index(values());
+
     /**
      * 根据类型值获取枚举
      */
     public static QrCodeTypeEnum getByValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        for (QrCodeTypeEnum type : values()) {
-            if (type.getValue().equals(value)) {
-                return type;
-            }
-        }
-        return null;
+        return value == null ? null : BY_VALUE.get(value);
     }
 
     /**
@@ -3,6 +3,8 @@ package com.wechat.checkin.common.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Map;
+
 /**
  * 通用状态枚举
  *
@@ -11,7 +13,7 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public enum StatusEnum {
+public enum StatusEnum implements ValueEnum {
 
     /**
      * 启用
@@ -38,19 +40,16 @@ public enum StatusEnum {
      */
     private final String description;
 
+    /**
+     * 值 -> 枚举 查找表
+     */
+    private static final Map<String, StatusEnum> BY_VALUE = ValueEnum.index(values());
+
     /**
      * 根据状态值获取枚举
      */
     public static StatusEnum getByValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        for (StatusEnum status : values()) {
-            if (status.getValue().equals(value)) {
-                return status;
-            }
-        }
-        return null;
+        return value == null ? null : BY_VALUE.get(value);
     }
 
     /**
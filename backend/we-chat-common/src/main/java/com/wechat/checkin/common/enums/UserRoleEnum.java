@@ -3,6 +3,8 @@ package com.wechat.checkin.common.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Map;
+
 /**
  * 用户角色枚举
  * 对应数据库admins表的role字段：ENUM('city', 'county')
@@ -12,7 +14,7 @@ import lombok.Getter;
  */
 @Getter
 @AllArgsConstructor
-public enum UserRoleEnum {
+public enum UserRoleEnum implements ValueEnum {
 
     /**
      * 市级管理员
@@ -39,19 +41,16 @@ public enum UserRoleEnum {
      */
     private final String description;
 
+    /**
+     * 值 -> 枚举 查找表
+     */
+    private static final Map<String, UserRoleEnum> BY_VALUE = ValueEnum.index(values());
+
     /**
      * 根据角色值获取枚举
      */
     public static UserRoleEnum getByValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        for (UserRoleEnum role : values()) {
-            if (role.getValue().equals(value)) {
-                return role;
-            }
-        }
-        return null;
+        return value == null ? null : BY_VALUE.get(value);
     }
 
     /**
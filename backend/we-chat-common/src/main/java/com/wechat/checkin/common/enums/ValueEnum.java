@@ -0,0 +1,42 @@
+package com.wechat.checkin.common.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 字符串值枚举
+ * 数据库以字符串存储的枚举统一实现该接口，类型处理器据此直接读取值，无需反射
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public interface ValueEnum {
+
+    /**
+     * 获取枚举值（对应数据库中的值）
+     *
+     * @return 枚举值
+     */
+    String getValue();
+
+    /**
+     * 构建 值 -> 枚举 的不可变查找表
+     * 各枚举在类初始化时构建一次，替代每次调用 values() 复制数组后线性查找
+     *
+     * @param constants 枚举常量
+     * @param <E> 枚举类型
+     * @return 查找表
+     * @throws IllegalArgumentException 枚举值重复
+     */
+    static <E extends Enum<E> & ValueEnum> Map<String, E> index(E[] constants) {
+        Map<String, E> byValue = new HashMap<>(constants.length * 2);
+        for (E constant : constants) {
+            E previous = byValue.put(constant.getValue(), constant);
+            if (previous != null) {
+                throw new IllegalArgumentException(String.format("枚举 %s 的值重复: %s",
+                        constant.getDeclaringClass().getSimpleName(), constant.getValue()));
+            }
+        }
+        return Map.copyOf(byValue);
+    }
+}
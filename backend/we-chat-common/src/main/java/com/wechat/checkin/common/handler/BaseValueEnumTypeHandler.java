@@ -1,44 +1,38 @@
 package com.wechat.checkin.common.handler;
 
+import com.wechat.checkin.common.enums.ValueEnum;
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 
-import java.lang.reflect.Method;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 /**
  * 通用枚举类型处理器基类
- * 支持所有具有 getValue() 和 getByValue(String) 方法的枚举类型
+ * 支持所有实现 ValueEnum 的枚举类型
+ *
+ * 写入时直接调用 getValue()，读取时查构造期建立的 值 -> 枚举 查找表，
+ * 分页查询、统计明细的每一行都不再经过反射调用
  *
  * @param <E> 枚举类型
  * @author WeChat Check-in System
  * @since 1.0.0
  */
-public abstract class BaseValueEnumTypeHandler<E extends Enum<E>> extends BaseTypeHandler<E> {
+public abstract class BaseValueEnumTypeHandler<E extends Enum<E> & ValueEnum> extends BaseTypeHandler<E> {
 
-    private final Class<E> enumClass;
-    private final Method getValueMethod;
-    private final Method getByValueMethod;
+    /**
+     * 值 -> 枚举 查找表（每个处理器实例构建一次）
+     */
+    private final Map<String, E> byValue;
 
     public BaseValueEnumTypeHandler(Class<E> enumClass) {
         if (enumClass == null) {
             throw new IllegalArgumentException("枚举类型不能为空");
         }
-        this.enumClass = enumClass;
-        
-        try {
-            // 获取 getValue() 方法
-            this.getValueMethod = enumClass.getMethod("getValue");
-            // 获取 getByValue(String) 静态方法
-            this.getByValueMethod = enumClass.getMethod("getByValue", String.class);
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException(
-                String.format("枚举类 %s 必须包含 getValue() 实例方法和 getByValue(String) 静态方法", 
-                enumClass.getSimpleName()), e);
-        }
+        this.byValue = ValueEnum.index(enumClass.getEnumConstants());
     }
 
     /**
@@ -46,12 +40,7 @@ public abstract class BaseValueEnumTypeHandler<E extends Enum<E>> extends BaseTy
      */
     @Override
     public void setNonNullParameter(PreparedStatement ps, int i, E parameter, JdbcType jdbcType) throws SQLException {
-        try {
-            String value = (String) getValueMethod.invoke(parameter);
-            ps.setString(i, value);
-        } catch (Exception e) {
-            throw new SQLException("设置枚举参数失败: " + parameter, e);
-        }
+        ps.setString(i, parameter.getValue());
     }
 
     /**
@@ -82,19 +71,9 @@ public abstract class BaseValueEnumTypeHandler<E extends Enum<E>> extends BaseTy
     }
 
     /**
-     * 将字符串值转换为枚举
+     * 将字符串值转换为枚举（未知值返回null，与各枚举的 getByValue 一致）
      */
-    @SuppressWarnings("unchecked")
-    private E convertToEnum(String value) throws SQLException {
-        if (value == null) {
-            return null;
-        }
-        
-        try {
-            return (E) getByValueMethod.invoke(null, value);
-        } catch (Exception e) {
-            throw new SQLException(
-                String.format("无法将值 '%s' 转换为枚举类型 %s", value, enumClass.getSimpleName()), e);
-        }
+    private E convertToEnum(String value) {
+        return value == null ? null : byValue.get(value);
     }
 }
\ No newline at end of file
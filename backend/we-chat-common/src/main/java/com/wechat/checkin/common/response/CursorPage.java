@@ -0,0 +1,74 @@
+package com.wechat.checkin.common.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ * 以不透明的游标替代页码翻页，翻到任意深度的代价都与第一页相同
+ *
+ * 使用方式：首次请求不带游标，之后将响应中的 nextCursor 原样作为下一次请求的 cursor，
+ * hasNext 为 false 时表示已到末尾
+ *
+ * @param <T> 数据类型
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    /**
+     * 当前批次记录
+     */
+    private List<T> records;
+
+    /**
+     * 每批大小
+     */
+    private Long size;
+
+    /**
+     * 下一批的游标（已到末尾时为null）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一批
+     */
+    private Boolean hasNext;
+
+    /**
+     * 总记录数（仅在请求 withTotal=true 时返回）
+     */
+    private Long total;
+
+    /**
+     * 转换记录类型，游标与总数保持不变
+     *
+     * @param mapper 转换函数
+     * @param <R> 目标类型
+     * @return 转换后的分页结果
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return convert(records.stream().<R>map(mapper).toList());
+    }
+
+    /**
+     * 替换记录（用于批量转换），游标与总数保持不变
+     *
+     * @param converted 转换后的记录，顺序与原记录一致
+     * @param <R> 目标类型
+     * @return 转换后的分页结果
+     */
+    public <R> CursorPage<R> convert(List<R> converted) {
+        return new CursorPage<>(converted, size, nextCursor, hasNext, total);
+    }
+}
@@ -0,0 +1,120 @@
+package com.wechat.checkin.common.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内重复提交防护
+ * 在访问数据库之前拦截同一业务键的并发重复提交（如连续点击），最终一致性仍由数据库唯一约束保证
+ *
+ * 使用方式：
+ * 1. isCompleted 判断是否已成功提交过
+ * 2. tryAcquire 占用业务键，失败表示存在并发提交
+ * 3. 占用成功后立即调用 releaseAfterCompletion，事务结束时释放，提交成功则记为已完成；
+ *    不在事务中执行时，在 finally 中调用 release
+ *
+ * 线程安全：基于 ConcurrentHashMap，无锁
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public class InFlightGuard {
+
+    /**
+     * 正在处理中的业务键
+     */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 最近提交成功的业务键（有界，过期自动清理）
+     */
+    private final Cache<String, Boolean> completed;
+
+    public InFlightGuard(long maxCompleted, Duration completedTtl) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxCompleted)
+                .expireAfterWrite(completedTtl)
+                .build();
+    }
+
+    /**
+     * 生成业务键
+     *
+     * @param activityId 活动ID
+     * @param teachingPointId 教学点ID
+     * @return 业务键
+     */
+    public static String key(Long activityId, Long teachingPointId) {
+        return activityId + ":" + teachingPointId;
+    }
+
+    /**
+     * 是否已成功提交过
+     *
+     * @param key 业务键
+     * @return 是否已完成
+     */
+    public boolean isCompleted(String key) {
+        return completed.getIfPresent(key) != null;
+    }
+
+    /**
+     * 占用业务键
+     *
+     * @param key 业务键
+     * @return 是否占用成功（false表示存在并发提交）
+     */
+    public boolean tryAcquire(String key) {
+        return inFlight.add(key);
+    }
+
+    /**
+     * 事务结束时释放业务键，提交成功则记为已完成
+     * 不存在活动事务时立即释放
+     *
+     * @param key 业务键
+     */
+    public void releaseAfterCompletion(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.remove(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    completed.put(key, Boolean.TRUE);
+                }
+                inFlight.remove(key);
+            }
+        });
+    }
+
+    /**
+     * 立即释放业务键
+     *
+     * @param key 业务键
+     * @param succeeded 是否提交成功（成功则记为已完成）
+     */
+    public void release(String key, boolean succeeded) {
+        if (succeeded) {
+            completed.put(key, Boolean.TRUE);
+        }
+        inFlight.remove(key);
+    }
+
+    /**
+     * 标记业务键为已完成（数据库已存在记录时调用）
+     *
+     * @param key 业务键
+     */
+    public void markCompleted(String key) {
+        completed.put(key, Boolean.TRUE);
+    }
+}
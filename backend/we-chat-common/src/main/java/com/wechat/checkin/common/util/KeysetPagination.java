@@ -0,0 +1,139 @@
+package com.wechat.checkin.common.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.CursorPage;
+import com.wechat.checkin.common.response.ResultCode;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 键集（游标）分页工具类
+ * 按 (时间列, id) 倒序翻页，以上一批最后一行的键作为下一批的起点：
+ * <pre>
+ * WHERE ... AND (time &lt; ? OR (time = ? AND id &lt; ?)) ORDER BY time DESC, id DESC LIMIT size + 1
+ * </pre>
+ * 与 OFFSET 分页相比，翻到任意深度都只扫描 size + 1 行（InnoDB二级索引隐含主键，
+ * (..., time) 索引即可按 (time, id) 有序读取），且默认不执行 COUNT(*)
+ *
+ * 游标为 版本(1) + 秒(8) + 纳秒(4) + id(8) 的base64url编码，对调用方不透明
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public class KeysetPagination {
+
+    /**
+     * 默认每批大小
+     */
+    public static final long DEFAULT_SIZE = 10;
+
+    /**
+     * 最大每批大小
+     */
+    public static final long MAX_SIZE = 100;
+
+    private static final byte CURSOR_VERSION = 1;
+    private static final int CURSOR_LENGTH = 1 + 8 + 4 + 8;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * 执行游标分页查询
+     * 查询条件中不应包含排序，排序由本方法按 (时间列, id) 倒序统一添加
+     *
+     * @param mapper 实体Mapper
+     * @param wrapper 过滤条件
+     * @param timeColumn 时间列
+     * @param idColumn 主键列
+     * @param cursor 游标（首批为空）
+     * @param size 每批大小（为空时取默认值，超过上限时取上限）
+     * @param withTotal 是否统计总数（额外执行一次 COUNT(*)）
+     * @param <T> 实体类型
+     * @return 游标分页结果
+     * @throws BusinessException 游标无效
+     */
+    public static <T> CursorPage<T> query(BaseMapper<T> mapper,
+                                          LambdaQueryWrapper<T> wrapper,
+                                          SFunction<T, LocalDateTime> timeColumn,
+                                          SFunction<T, Long> idColumn,
+                                          String cursor,
+                                          Long size,
+                                          boolean withTotal) {
+        long limit = size == null || size < 1 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+
+        // 总数在追加游标条件之前统计
+        Long total = withTotal ? mapper.selectCount(wrapper) : null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            Key key = decode(cursor);
+            wrapper.and(w -> w.lt(timeColumn, key.time())
+                    .or(o -> o.eq(timeColumn, key.time()).lt(idColumn, key.id())));
+        }
+        wrapper.orderByDesc(timeColumn)
+                .orderByDesc(idColumn)
+                .last("LIMIT " + (limit + 1));
+
+        List<T> rows = mapper.selectList(wrapper);
+        boolean hasNext = rows.size() > limit;
+        List<T> records = hasNext ? rows.subList(0, (int) limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            T last = records.get(records.size() - 1);
+            nextCursor = encode(timeColumn.apply(last), idColumn.apply(last));
+        }
+        return new CursorPage<>(records, limit, nextCursor, hasNext, total);
+    }
+
+    /**
+     * 编码游标
+     */
+    private static String encode(LocalDateTime time, Long id) {
+        Objects.requireNonNull(time, "游标时间列不能为空");
+        Objects.requireNonNull(id, "游标主键不能为空");
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_LENGTH)
+                .put(CURSOR_VERSION)
+                .putLong(time.toEpochSecond(ZoneOffset.UTC))
+                .putInt(time.getNano())
+                .putLong(id);
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * 解码游标
+     */
+    private static Key decode(String cursor) {
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != CURSOR_LENGTH || bytes[0] != CURSOR_VERSION) {
+                throw new IllegalArgumentException("游标格式错误");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, CURSOR_LENGTH - 1);
+            LocalDateTime time = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new Key(time, buffer.getLong());
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+        }
+    }
+
+    /**
+     * 游标键
+     *
+     * @param time 时间列
+     * @param id 主键
+     */
+    private record Key(LocalDateTime time, Long id) {
+    }
+}
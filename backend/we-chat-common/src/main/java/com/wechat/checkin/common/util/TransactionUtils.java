@@ -0,0 +1,33 @@
+package com.wechat.checkin.common.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ * 用于在事务提交后执行缓存失效、事件发布等操作
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public class TransactionUtils {
+
+    /**
+     * 事务提交后执行
+     * 存在活动事务时注册到提交后回调，否则立即执行
+     *
+     * @param action 待执行操作
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.wechat.checkin.common.validator;
+
+import com.wechat.checkin.common.enums.ActivityStatusEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * 参与流程所需的活动视图
+ * 由活动实体及活动快照实现，供 ParticipationValidator 直接读取活动状态和时间范围
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public interface ParticipationActivityView {
+
+    /**
+     * 获取活动状态
+     *
+     * @return 活动状态
+     */
+    ActivityStatusEnum getStatus();
+
+    /**
+     * 获取打卡开始时间
+     *
+     * @return 开始时间
+     */
+    LocalDateTime getStartTime();
+
+    /**
+     * 获取打卡结束时间
+     *
+     * @return 结束时间
+     */
+    LocalDateTime getEndTime();
+}
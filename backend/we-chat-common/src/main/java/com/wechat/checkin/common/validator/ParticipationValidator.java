@@ -43,25 +43,11 @@ public class ParticipationValidator {
      * @param verifyResult 二维码验证结果
      * @throws BusinessException 验证失败抛出异常
      */
-    public void validateQrCodeValid(Object verifyResult) {
-        // 使用反射判断是否为有效的验证结果
-        try {
-            boolean valid = (boolean) verifyResult.getClass()
-                    .getMethod("getValid")
-                    .invoke(verifyResult);
-            
-            if (!valid) {
-                String reason = (String) verifyResult.getClass()
-                        .getMethod("getReason")
-                        .invoke(verifyResult);
-                throw new BusinessException(ResultCode.QRCODE_INVALID, 
-                    reason != null ? reason : "二维码无效");
-            }
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("验证二维码失败", e);
-            throw new BusinessException(ResultCode.QRCODE_INVALID, "二维码验证异常");
+    public void validateQrCodeValid(VerificationOutcome verifyResult) {
+        if (!Boolean.TRUE.equals(verifyResult.getValid())) {
+            String reason = verifyResult.getReason();
+            throw new BusinessException(ResultCode.QRCODE_INVALID, 
+                reason != null ? reason : "二维码无效");
         }
     }
 
@@ -86,45 +72,26 @@ public class ParticipationValidator {
      * @param activity 活动对象
      * @throws BusinessException 验证失败抛出异常
      */
-    public void validateActivityOngoing(Object activity) {
+    public void validateActivityOngoing(ParticipationActivityView activity) {
         if (ObjectUtil.isNull(activity)) {
             throw new BusinessException(ResultCode.NOT_FOUND, "活动不存在");
         }
         
-        try {
-            ActivityStatusEnum status = (ActivityStatusEnum) activity.getClass()
-                    .getMethod("getStatus")
-                    .invoke(activity);
-            
-            LocalDateTime startTime = (LocalDateTime) activity.getClass()
-                    .getMethod("getStartTime")
-                    .invoke(activity);
-            
-            LocalDateTime endTime = (LocalDateTime) activity.getClass()
-                    .getMethod("getEndTime")
-                    .invoke(activity);
-            
-            // 检查活动状态
-            if (!ActivityStatusEnum.ONGOING.equals(status)) {
-                throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动不在进行中");
-            }
-            
-            LocalDateTime now = LocalDateTime.now();
-            
-            // 检查活动是否已开始
-            if (now.isBefore(startTime)) {
-                throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动未开始");
-            }
-            
-            // 检查活动是否已结束
-            if (now.isAfter(endTime)) {
-                throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动已结束");
-            }
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("验证活动状态失败", e);
-            throw new BusinessException(ResultCode.SYSTEM_ERROR, "活动验证异常");
+        // 检查活动状态
+        if (!ActivityStatusEnum.ONGOING.equals(activity.getStatus())) {
+            throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动不在进行中");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        
+        // 检查活动是否已开始
+        if (now.isBefore(activity.getStartTime())) {
+            throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动未开始");
+        }
+        
+        // 检查活动是否已结束
+        if (now.isAfter(activity.getEndTime())) {
+            throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动已结束");
         }
     }
 
@@ -134,25 +101,14 @@ public class ParticipationValidator {
      * @param activity 活动对象
      * @throws BusinessException 验证失败抛出异常
      */
-    public void validateActivityEnded(Object activity) {
+    public void validateActivityEnded(ParticipationActivityView activity) {
         if (ObjectUtil.isNull(activity)) {
             throw new BusinessException(ResultCode.NOT_FOUND, "活动不存在");
         }
         
-        try {
-            ActivityStatusEnum status = (ActivityStatusEnum) activity.getClass()
-                    .getMethod("getStatus")
-                    .invoke(activity);
-            
-            // 评价只能在活动结束后进行
-            if (!ActivityStatusEnum.ENDED.equals(status)) {
-                throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动未结束，暂无法评价");
-            }
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("验证活动状态失败", e);
-            throw new BusinessException(ResultCode.SYSTEM_ERROR, "活动验证异常");
+        // 评价只能在活动结束后进行
+        if (!ActivityStatusEnum.ENDED.equals(activity.getStatus())) {
+            throw new BusinessException(ResultCode.BUSINESS_ERROR, "活动未结束，暂无法评价");
         }
     }
 
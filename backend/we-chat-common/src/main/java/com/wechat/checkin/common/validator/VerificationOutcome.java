@@ -0,0 +1,25 @@
+package com.wechat.checkin.common.validator;
+
+/**
+ * 令牌验证结果
+ * 由二维码验证结果实现，供 ParticipationValidator 直接判断验证是否通过
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public interface VerificationOutcome {
+
+    /**
+     * 是否有效
+     *
+     * @return 是否有效
+     */
+    Boolean getValid();
+
+    /**
+     * 获取验证失败原因
+     *
+     * @return 失败原因（有效时为null）
+     */
+    String getReason();
+}
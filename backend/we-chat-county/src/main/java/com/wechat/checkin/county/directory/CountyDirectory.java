@@ -0,0 +1,139 @@
+package com.wechat.checkin.county.directory;
+
+import com.wechat.checkin.common.util.TransactionUtils;
+import com.wechat.checkin.county.entity.County;
+import com.wechat.checkin.county.mapper.CountyMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 县域目录
+ * 县域只有少量记录且几乎不变，在内存中维护全量不可变快照，
+ * 其他模块的县域名称展示、县域编码校验统一经由本目录，不再查询或关联 counties 表
+ *
+ * 快照维护：
+ * - 启动时在 DataInitService（Order 1）初始化县域数据之后全量加载
+ * - CountyService 新增、修改、删除、启停县域后，在事务提交后以写时复制方式原子替换快照
+ * - 定时全量重载，使其他节点的变更最终可见
+ *
+ * 线程安全：快照为不可变 Map，读取无锁，写入串行化后整体替换
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class CountyDirectory implements CommandLineRunner {
+
+    private final CountyMapper countyMapper;
+
+    /**
+     * 县域编码到条目的不可变快照
+     */
+    private volatile Map<String, CountyEntry> entries = Map.of();
+
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    /**
+     * 全量重载快照
+     */
+    @Scheduled(fixedDelayString = "${county.directory.refresh-interval:PT10M}",
+            initialDelayString = "${county.directory.refresh-interval:PT10M}")
+    public synchronized void reload() {
+        entries = countyMapper.selectList(null).stream()
+                .map(CountyEntry::of)
+                .collect(Collectors.toUnmodifiableMap(CountyEntry::code, Function.identity()));
+        log.debug("县域目录已重载: size={}", entries.size());
+    }
+
+    /**
+     * 获取县域条目
+     *
+     * @param code 县域编码
+     * @return 县域条目，不存在时返回null
+     */
+    public CountyEntry get(String code) {
+        return code != null ? entries.get(code) : null;
+    }
+
+    /**
+     * 获取县域名称
+     *
+     * @param code 县域编码
+     * @param defaultName 县域不存在时的默认名称
+     * @return 县域名称
+     */
+    public String getName(String code, String defaultName) {
+        CountyEntry entry = get(code);
+        return entry != null ? entry.name() : defaultName;
+    }
+
+    /**
+     * 批量解析县域名称
+     *
+     * @param codes 县域编码集合
+     * @return 县域编码到名称的映射，不存在的县域不包含在结果中
+     */
+    public Map<String, String> resolveNames(Collection<String> codes) {
+        Map<String, CountyEntry> snapshot = entries;
+        return codes.stream()
+                .filter(Objects::nonNull)
+                .map(snapshot::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(CountyEntry::code, CountyEntry::name, (a, b) -> a));
+    }
+
+    /**
+     * 县域编码是否存在（未软删除）
+     * 快照未命中时重载一次，避免其他节点刚创建的县域被误判为不存在
+     *
+     * @param code 县域编码
+     * @return 是否存在
+     */
+    public boolean exists(String code) {
+        if (code == null) {
+            return false;
+        }
+        CountyEntry entry = entries.get(code);
+        if (entry == null) {
+            reload();
+            entry = entries.get(code);
+        }
+        return entry != null && !entry.isDeleted();
+    }
+
+    /**
+     * 应用县域变更（事务提交后替换快照，回滚时不生效）
+     *
+     * @param county 变更后的县域
+     */
+    public void apply(County county) {
+        if (county == null || county.getCode() == null) {
+            return;
+        }
+        CountyEntry entry = CountyEntry.of(county);
+        TransactionUtils.afterCommit(() -> put(entry));
+    }
+
+    private synchronized void put(CountyEntry entry) {
+        Map<String, CountyEntry> copy = new HashMap<>(entries);
+        copy.put(entry.code(), entry);
+        entries = Map.copyOf(copy);
+    }
+}
@@ -0,0 +1,34 @@
+package com.wechat.checkin.county.directory;
+
+import com.wechat.checkin.common.enums.StatusEnum;
+import com.wechat.checkin.county.entity.County;
+
+/**
+ * 县域目录条目（不可变）
+ *
+ * @param code   县域编码
+ * @param name   县域名称
+ * @param status 状态
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record CountyEntry(String code, String name, StatusEnum status) {
+
+    public static CountyEntry of(County county) {
+        return new CountyEntry(county.getCode(), county.getName(), county.getStatus());
+    }
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return StatusEnum.ENABLED.equals(status);
+    }
+
+    /**
+     * 是否已软删除
+     */
+    public boolean isDeleted() {
+        return StatusEnum.DELETED.equals(status);
+    }
+}
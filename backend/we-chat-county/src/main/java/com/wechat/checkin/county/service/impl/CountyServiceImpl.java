@@ -7,6 +7,7 @@ import com.wechat.checkin.auth.util.SecurityContextHolder;
 import com.wechat.checkin.common.enums.StatusEnum;
 import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.county.directory.CountyDirectory;
 import com.wechat.checkin.county.dto.CountyCreateRequest;
 import com.wechat.checkin.county.dto.CountyQueryRequest;
 import com.wechat.checkin.county.dto.CountyUpdateRequest;
@@ -31,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class CountyServiceImpl implements CountyService {
 
     private final CountyMapper countyMapper;
+    private final CountyDirectory countyDirectory;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -68,6 +70,7 @@ public class CountyServiceImpl implements CountyService {
             log.error("创建县域失败: code={}", request.getCode());
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        countyDirectory.apply(county);
 
         log.info("县域创建成功: code={}, name={}", county.getCode(), county.getName());
         return convertToVO(county);
@@ -115,6 +118,7 @@ public class CountyServiceImpl implements CountyService {
             log.error("更新县域失败: code={}", code);
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        countyDirectory.apply(county);
 
         log.info("县域更新成功: code={}", code);
         return convertToVO(county);
@@ -142,6 +146,7 @@ public class CountyServiceImpl implements CountyService {
             log.error("删除县域失败: code={}", code);
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        countyDirectory.apply(county);
 
         log.info("县域删除成功: code={}", code);
     }
@@ -254,6 +259,7 @@ public class CountyServiceImpl implements CountyService {
             log.error("更新县域状态失败: code={}, status={}", code, status);
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        countyDirectory.apply(county);
 
         return county;
     }
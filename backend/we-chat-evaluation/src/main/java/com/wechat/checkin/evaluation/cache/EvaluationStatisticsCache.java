@@ -0,0 +1,72 @@
+package com.wechat.checkin.evaluation.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wechat.checkin.common.util.TransactionUtils;
+import com.wechat.checkin.evaluation.entity.EvaluationStatisticsRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 评价统计缓存
+ * 评价只在活动结束后提交，统计卡片在评价期间被反复刷新，因此按活动缓存已结束活动的统计聚合行
+ * 缓存的聚合行只在本模块内读取，对外返回的VO每次调用重新组装，调用方修改返回值不会影响缓存
+ *
+ * 失效策略：
+ * - 评价提交成功后（事务提交后）失效对应活动
+ * - TTL兜底，防止其他节点的新评价长期不可见
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class EvaluationStatisticsCache {
+
+    private static final String CACHE_NAME = "evaluationStatistics";
+
+    private final Cache<Long, EvaluationStatisticsRow> cache;
+
+    public EvaluationStatisticsCache(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                     @Value("${evaluation.statistics-cache.max-size:500}") long maxSize,
+                                     @Value("${evaluation.statistics-cache.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistryProvider.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+        log.info("评价统计缓存已初始化: maxSize={}, ttl={}", maxSize, ttl);
+    }
+
+    /**
+     * 获取活动评价统计（未命中时通过loader加载）
+     *
+     * @param activityId 活动ID
+     * @param loader 统计加载函数
+     * @return 评价统计聚合行（只读，不得修改）
+     */
+    public EvaluationStatisticsRow get(Long activityId, Function<Long, EvaluationStatisticsRow> loader) {
+        return cache.get(activityId, loader);
+    }
+
+    /**
+     * 失效活动评价统计（事务提交后再失效一次）
+     *
+     * @param activityId 活动ID
+     */
+    public void evict(Long activityId) {
+        if (activityId == null) {
+            return;
+        }
+        cache.invalidate(activityId);
+        TransactionUtils.afterCommit(() -> cache.invalidate(activityId));
+    }
+}
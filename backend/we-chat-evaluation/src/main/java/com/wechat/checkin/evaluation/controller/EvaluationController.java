@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wechat.checkin.auth.annotation.RequireDataPermission;
 import com.wechat.checkin.auth.annotation.RequireRole;
 import com.wechat.checkin.auth.security.JwtTokenProvider;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.Result;
 import com.wechat.checkin.evaluation.dto.EvaluationQueryRequest;
 import com.wechat.checkin.evaluation.dto.EvaluationSubmitRequest;
@@ -91,6 +92,33 @@ public class EvaluationController {
         return Result.success("查询成功", result);
     }
 
+    /**
+     * 游标分页查询评价列表（管理端接口，需要登录）
+     * 
+     * @param request 查询请求
+     * @param token 访问令牌
+     * @return 评价列表游标分页结果
+     */
+    @GetMapping("/scroll")
+    @RequireRole({"city", "county"})
+    @RequireDataPermission
+    @Operation(
+        summary = "游标分页查询评价列表",
+        description = "按提交时间倒序游标分页，翻页深度不影响查询耗时。" +
+                     "首次请求不带cursor，之后传入上一批返回的nextCursor；withTotal=true时额外返回总数。"
+    )
+    public Result<CursorPage<EvaluationVO>> scrollEvaluationList(
+            @Valid EvaluationQueryRequest request,
+            @RequestHeader("Authorization") String token) {
+        log.info("接收评价列表游标查询请求: {}", request);
+        
+        // 从Token中获取县域编码
+        String countyCode = jwtTokenProvider.getCountyCodeFromToken(token.replace("Bearer ", ""));
+        
+        CursorPage<EvaluationVO> result = evaluationService.scrollEvaluationList(request, countyCode);
+        return Result.success("查询成功", result);
+    }
+
     /**
      * 查询评价统计（管理端接口，需要登录）
      * 
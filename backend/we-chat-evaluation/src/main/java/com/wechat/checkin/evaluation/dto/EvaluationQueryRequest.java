@@ -45,4 +45,16 @@ public class EvaluationQueryRequest {
     @Min(value = 1, message = "每页数量必须至少为1")
     @Schema(description = "每页数量", example = "10")
     private Long pageSize = 10L;
+
+    /**
+     * 游标（仅游标分页使用）
+     */
+    @Schema(description = "游标分页的游标，首批为空，之后传入上一批返回的nextCursor")
+    private String cursor;
+
+    /**
+     * 是否返回总记录数（仅游标分页使用）
+     */
+    @Schema(description = "游标分页是否返回总记录数（额外执行一次计数），默认false", example = "false")
+    private Boolean withTotal;
 }
@@ -0,0 +1,60 @@
+package com.wechat.checkin.evaluation.entity;
+
+import lombok.Data;
+
+/**
+ * 活动评价统计聚合行
+ * 对应 EvaluationMapper.selectStatistics 的单行聚合结果（列名与字段一一对应）
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+public class EvaluationStatisticsRow {
+
+    /**
+     * 总评价数
+     */
+    private long totalCount;
+
+    /**
+     * 满意度平均分
+     */
+    private double avgSatisfaction;
+
+    /**
+     * 实用性平均分
+     */
+    private double avgPracticality;
+
+    /**
+     * 质量平均分
+     */
+    private double avgQuality;
+
+    /**
+     * 满意度评分分布（1~3）
+     */
+    private long satisfactionLevel1;
+    private long satisfactionLevel2;
+    private long satisfactionLevel3;
+
+    /**
+     * 实用性评分分布（1~3）
+     */
+    private long practicalityLevel1;
+    private long practicalityLevel2;
+    private long practicalityLevel3;
+
+    /**
+     * 质量评分分布（1~3）
+     */
+    private long qualityLevel1;
+    private long qualityLevel2;
+    private long qualityLevel3;
+
+    /**
+     * 包含建议的评价数量
+     */
+    private long suggestionCount;
+}
@@ -2,6 +2,7 @@ package com.wechat.checkin.evaluation.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.wechat.checkin.evaluation.entity.Evaluation;
+import com.wechat.checkin.evaluation.entity.EvaluationStatisticsRow;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -17,65 +18,26 @@ import org.apache.ibatis.annotations.Select;
 public interface EvaluationMapper extends BaseMapper<Evaluation> {
 
     /**
-     * 查询满意度平均分
-     * 
+     * 单次条件聚合查询活动评价统计
+     * 一行返回总数、三项平均分、三项评分分布及建议数量
+     *
      * @param activityId 活动ID
-     * @return 平均分
+     * @return 统计聚合行（无评价时各项为0）
      */
-    @Select("SELECT AVG(CAST(q1_satisfaction AS DECIMAL(3,2))) FROM evaluations WHERE activity_id = #{activityId}")
-    Double queryAvgSatisfaction(@Param("activityId") Long activityId);
-
-    /**
-     * 查询实用性平均分
-     * 
-     * @param activityId 活动ID
-     * @return 平均分
-     */
-    @Select("SELECT AVG(CAST(q2_practicality AS DECIMAL(3,2))) FROM evaluations WHERE activity_id = #{activityId}")
-    Double queryAvgPracticality(@Param("activityId") Long activityId);
-
-    /**
-     * 查询质量平均分
-     * 
-     * @param activityId 活动ID
-     * @return 平均分
-     */
-    @Select("SELECT AVG(CAST(q3_quality AS DECIMAL(3,2))) FROM evaluations WHERE activity_id = #{activityId} AND q3_quality IS NOT NULL")
-    Double queryAvgQuality(@Param("activityId") Long activityId);
-
-    /**
-     * 查询满意度评分为3的数量
-     * 
-     * @param activityId 活动ID
-     * @return 数量
-     */
-    @Select("SELECT COUNT(*) FROM evaluations WHERE activity_id = #{activityId} AND q1_satisfaction = 3")
-    Long querySatisfactionLevel3Count(@Param("activityId") Long activityId);
-
-    /**
-     * 查询满意度评分为2的数量
-     * 
-     * @param activityId 活动ID
-     * @return 数量
-     */
-    @Select("SELECT COUNT(*) FROM evaluations WHERE activity_id = #{activityId} AND q1_satisfaction = 2")
-    Long querySatisfactionLevel2Count(@Param("activityId") Long activityId);
-
-    /**
-     * 查询满意度评分为1的数量
-     * 
-     * @param activityId 活动ID
-     * @return 数量
-     */
-    @Select("SELECT COUNT(*) FROM evaluations WHERE activity_id = #{activityId} AND q1_satisfaction = 1")
-    Long querySatisfactionLevel1Count(@Param("activityId") Long activityId);
-
-    /**
-     * 查询包含建议的评价数量
-     * 
-     * @param activityId 活动ID
-     * @return 数量
-     */
-    @Select("SELECT COUNT(*) FROM evaluations WHERE activity_id = #{activityId} AND suggestion_text IS NOT NULL AND suggestion_text != ''")
-    Long querySuggestionCount(@Param("activityId") Long activityId);
+    @Select("SELECT COUNT(*) AS totalCount, " +
+            "COALESCE(AVG(CAST(q1_satisfaction AS DECIMAL(3,2))), 0) AS avgSatisfaction, " +
+            "COALESCE(AVG(CAST(q2_practicality AS DECIMAL(3,2))), 0) AS avgPracticality, " +
+            "COALESCE(AVG(CAST(q3_quality AS DECIMAL(3,2))), 0) AS avgQuality, " +
+            "COALESCE(SUM(q1_satisfaction = 1), 0) AS satisfactionLevel1, " +
+            "COALESCE(SUM(q1_satisfaction = 2), 0) AS satisfactionLevel2, " +
+            "COALESCE(SUM(q1_satisfaction = 3), 0) AS satisfactionLevel3, " +
+            "COALESCE(SUM(q2_practicality = 1), 0) AS practicalityLevel1, " +
+            "COALESCE(SUM(q2_practicality = 2), 0) AS practicalityLevel2, " +
+            "COALESCE(SUM(q2_practicality = 3), 0) AS practicalityLevel3, " +
+            "COALESCE(SUM(q3_quality = 1), 0) AS qualityLevel1, " +
+            "COALESCE(SUM(q3_quality = 2), 0) AS qualityLevel2, " +
+            "COALESCE(SUM(q3_quality = 3), 0) AS qualityLevel3, " +
+            "COALESCE(SUM(suggestion_text IS NOT NULL AND suggestion_text != ''), 0) AS suggestionCount " +
+            "FROM evaluations WHERE activity_id = #{activityId}")
+    EvaluationStatisticsRow selectStatistics(@Param("activityId") Long activityId);
 }
@@ -2,6 +2,7 @@ package com.wechat.checkin.evaluation.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.evaluation.dto.EvaluationQueryRequest;
 import com.wechat.checkin.evaluation.dto.EvaluationSubmitRequest;
 import com.wechat.checkin.evaluation.entity.Evaluation;
@@ -34,6 +35,15 @@ public interface EvaluationService extends IService<Evaluation> {
      */
     Page<EvaluationVO> queryEvaluationList(EvaluationQueryRequest request, String countyCode);
 
+    /**
+     * 游标分页查询评价列表（按提交时间、ID倒序，不受翻页深度影响）
+     * 
+     * @param request 查询请求（使用 cursor、pageSize、withTotal）
+     * @param countyCode 县域编码（用于权限控制）
+     * @return 评价列表游标分页结果
+     */
+    CursorPage<EvaluationVO> scrollEvaluationList(EvaluationQueryRequest request, String countyCode);
+
     /**
      * 查询评价统计
      * 
@@ -4,32 +4,48 @@ import cn.hutool.core.util.ObjectUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.wechat.checkin.activity.entity.Activity;
-import com.wechat.checkin.activity.mapper.ActivityMapper;
+import com.wechat.checkin.activity.cache.ActivitySnapshot;
+import com.wechat.checkin.activity.cache.ActivitySnapshotCache;
+import com.wechat.checkin.activity.live.ParticipationEvent;
+import com.wechat.checkin.activity.service.ActivityStatsService;
 import com.wechat.checkin.checkins.entity.Checkin;
 import com.wechat.checkin.checkins.mapper.CheckinMapper;
+import com.wechat.checkin.common.enums.ActivityStatusEnum;
 import com.wechat.checkin.common.enums.QrCodeTypeEnum;
 import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.common.util.InFlightGuard;
+import com.wechat.checkin.common.util.KeysetPagination;
 import com.wechat.checkin.common.validator.ParticipationValidator;
+import com.wechat.checkin.evaluation.cache.EvaluationStatisticsCache;
 import com.wechat.checkin.evaluation.dto.EvaluationQueryRequest;
 import com.wechat.checkin.evaluation.dto.EvaluationSubmitRequest;
 import com.wechat.checkin.evaluation.entity.Evaluation;
+import com.wechat.checkin.evaluation.entity.EvaluationStatisticsRow;
 import com.wechat.checkin.evaluation.mapper.EvaluationMapper;
 import com.wechat.checkin.evaluation.service.EvaluationService;
 import com.wechat.checkin.evaluation.vo.EvaluationStatisticsVO;
 import com.wechat.checkin.evaluation.vo.EvaluationSubmitResponseVO;
+import com.wechat.checkin.evaluation.vo.EvaluationSummaryVO;
 import com.wechat.checkin.evaluation.vo.EvaluationVO;
-import com.wechat.checkin.qrcode.entity.QrCode;
-import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
+import com.wechat.checkin.qrcode.cache.QrCodeState;
 import com.wechat.checkin.qrcode.service.QrCodeService;
 import com.wechat.checkin.qrcode.vo.QrCodeVerifyResultVO;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointDirectory;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointEntry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 评价服务实现
@@ -48,11 +64,19 @@ import java.time.LocalDateTime;
 public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluation> implements EvaluationService {
 
     private final EvaluationMapper evaluationMapper;
-    private final ActivityMapper activityMapper;
+    private final ActivitySnapshotCache activitySnapshotCache;
     private final CheckinMapper checkinMapper;
     private final QrCodeService qrCodeService;
-    private final QrCodeMapper qrCodeMapper;
     private final ParticipationValidator validator;  // 新增
+    private final EvaluationStatisticsCache statisticsCache;
+    private final ActivityStatsService activityStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TeachingPointDirectory teachingPointDirectory;
+
+    /**
+     * 重复评价防护（进程内拦截并发重复提交，数据库唯一约束兜底）
+     */
+    private final InFlightGuard submitGuard = new InFlightGuard(10000, Duration.ofHours(1));
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -70,16 +94,36 @@ public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluat
         );
         validator.validateQrCodeValid(verifyResult);
 
-        // 2. 获取二维码和活动信息
-        QrCode qrCode = qrCodeMapper.selectById(verifyResult.getQrcodeId());
-        Long activityId = qrCode.getActivityId();
+        // 2. 获取二维码和活动信息（二维码状态由验证结果携带，无需再次查询）
+        QrCodeState qrCode = verifyResult.getQrCodeState();
+        Long activityId = qrCode.activityId();
         
-        Activity activity = activityMapper.selectById(activityId);
+        ActivitySnapshot activity = activitySnapshotCache.get(activityId);
 
         // 3. 验证活动状态（已结束）
         validator.validateActivityEnded(activity);
 
-        // 4. 检查教学点是否已参与过该活动
+        // 教学点校验走内存目录，不访问数据库
+        TeachingPointEntry teachingPoint = teachingPointDirectory.get(request.getTeachingPointId());
+        if (teachingPoint == null) {
+            throw new BusinessException(ResultCode.TEACHING_POINT_NOT_FOUND);
+        }
+
+        // 4. 检查是否已评价：进程内拦截重复提交，不访问数据库
+        String guardKey = InFlightGuard.key(activityId, request.getTeachingPointId());
+        if (submitGuard.isCompleted(guardKey)) {
+            log.info("该教学点已评价, activityId={}, teachingPointId={}", 
+                activityId, request.getTeachingPointId());
+            throw new BusinessException(1602, "该教学点已评价");
+        }
+        if (!submitGuard.tryAcquire(guardKey)) {
+            log.info("该教学点评价正在提交中, activityId={}, teachingPointId={}", 
+                activityId, request.getTeachingPointId());
+            throw new BusinessException(1602, "该教学点评价正在提交中，请勿重复提交");
+        }
+        submitGuard.releaseAfterCompletion(guardKey);
+
+        // 5. 检查教学点是否已参与过该活动
         LambdaQueryWrapper<Checkin> checkinQuery = new LambdaQueryWrapper<>();
         checkinQuery.eq(Checkin::getActivityId, activityId)
                     .eq(Checkin::getTeachingPointId, request.getTeachingPointId());
@@ -91,18 +135,7 @@ public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluat
             throw new BusinessException(1601, "教学点未参与过此活动，无法进行评价");
         }
 
-        // 5. 检查是否已评价（防止重复评价）
-        LambdaQueryWrapper<Evaluation> evaluationQuery = new LambdaQueryWrapper<>();
-        evaluationQuery.eq(Evaluation::getActivityId, activityId)
-                       .eq(Evaluation::getTeachingPointId, request.getTeachingPointId());
-        
-        if (evaluationMapper.exists(evaluationQuery)) {
-            log.info("该教学点已评价, activityId={}, teachingPointId={}", 
-                activityId, request.getTeachingPointId());
-            throw new BusinessException(1602, "该教学点已评价");
-        }
-
-        // 6. 创建评价记录
+        // 6. 创建评价记录（直接插入，由唯一约束 uk_evaluations_activity_teaching_point 保证幂等）
         Evaluation evaluation = Evaluation.builder()
                 .activityId(activityId)
                 .teachingPointId(request.getTeachingPointId())
@@ -111,10 +144,21 @@ public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluat
                 .q3Quality(request.getQ3Quality())
                 .suggestionText(request.getSuggestionText())
                 .submittedTime(LocalDateTime.now())
-                .sourceQrcodeId(qrCode.getId())
+                .sourceQrcodeId(qrCode.id())
                 .build();
 
-        evaluationMapper.insert(evaluation);
+        try {
+            evaluationMapper.insert(evaluation);
+        } catch (DuplicateKeyException e) {
+            log.info("该教学点已评价, activityId={}, teachingPointId={}", 
+                activityId, request.getTeachingPointId());
+            submitGuard.markCompleted(guardKey);
+            throw new BusinessException(1602, "该教学点已评价");
+        }
+        activityStatsService.recordEvaluations(activityId, List.of(request.getTeachingPointId()));
+        eventPublisher.publishEvent(ParticipationEvent.evaluation(
+                activityId, request.getTeachingPointId(), teachingPoint.countyCode()));
+        statisticsCache.evict(activityId);
         log.info("评价提交成功, evaluationId={}, activityId={}, teachingPointId={}", 
             evaluation.getId(), activityId, request.getTeachingPointId());
 
@@ -134,16 +178,7 @@ public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluat
             request.getActivityId(), request.getTeachingPointId(), request.getPageNum(), request.getPageSize(), countyCode);
 
         // 构建查询条件
-        LambdaQueryWrapper<Evaluation> queryWrapper = new LambdaQueryWrapper<>();
-        
-        if (ObjectUtil.isNotNull(request.getActivityId())) {
-            queryWrapper.eq(Evaluation::getActivityId, request.getActivityId());
-        }
-        
-        if (ObjectUtil.isNotNull(request.getTeachingPointId())) {
-            queryWrapper.eq(Evaluation::getTeachingPointId, request.getTeachingPointId());
-        }
-        
+        LambdaQueryWrapper<Evaluation> queryWrapper = buildQueryWrapper(request);
         queryWrapper.orderByDesc(Evaluation::getSubmittedTime);
 
         // 分页查询
@@ -152,11 +187,51 @@ public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluat
 
         // 转换为VO
         Page<EvaluationVO> voPage = new Page<>(page.getCurrent(), page.getSize(), page.getTotal());
-        voPage.setRecords(page.getRecords().stream().map(this::convertToVO).toList());
+        voPage.setRecords(convertToVOs(page.getRecords()));
 
         return voPage;
     }
 
+    @Override
+    public CursorPage<EvaluationVO> scrollEvaluationList(EvaluationQueryRequest request, String countyCode) {
+        log.info("游标查询评价列表, activityId={}, teachingPointId={}, pageSize={}, countyCode={}", 
+            request.getActivityId(), request.getTeachingPointId(), request.getPageSize(), countyCode);
+
+        // 按 (submitted_time, id) 倒序，指定活动时走 idx_evaluations_activity_submitted_time
+        CursorPage<Evaluation> page = KeysetPagination.query(evaluationMapper, buildQueryWrapper(request),
+                Evaluation::getSubmittedTime, Evaluation::getId,
+                request.getCursor(), request.getPageSize(), Boolean.TRUE.equals(request.getWithTotal()));
+        return page.convert(convertToVOs(page.getRecords()));
+    }
+
+    /**
+     * 构建评价过滤条件（不含排序）
+     */
+    private LambdaQueryWrapper<Evaluation> buildQueryWrapper(EvaluationQueryRequest request) {
+        LambdaQueryWrapper<Evaluation> queryWrapper = new LambdaQueryWrapper<>();
+        
+        if (ObjectUtil.isNotNull(request.getActivityId())) {
+            queryWrapper.eq(Evaluation::getActivityId, request.getActivityId());
+        }
+        
+        if (ObjectUtil.isNotNull(request.getTeachingPointId())) {
+            queryWrapper.eq(Evaluation::getTeachingPointId, request.getTeachingPointId());
+        }
+        return queryWrapper;
+    }
+
+    /**
+     * 批量组装评价VO（教学点按去重ID从内存目录解析）
+     */
+    private List<EvaluationVO> convertToVOs(List<Evaluation> records) {
+        Map<Long, TeachingPointEntry> teachingPoints = teachingPointDirectory.resolve(records.stream()
+                .map(Evaluation::getTeachingPointId)
+                .collect(Collectors.toSet()));
+        return records.stream()
+                .map(evaluation -> convertToVO(evaluation, teachingPoints.get(evaluation.getTeachingPointId())))
+                .toList();
+    }
+
     @Override
     public EvaluationStatisticsVO queryEvaluationStatistics(Long activityId) {
         log.info("查询评价统计, activityId={}", activityId);
@@ -164,69 +239,74 @@ public class EvaluationServiceImpl extends ServiceImpl<EvaluationMapper, Evaluat
         validator.validatePositive(activityId, "活动ID");
 
         // 验证活动是否存在
-        Activity activity = activityMapper.selectById(activityId);
+        ActivitySnapshot activity = activitySnapshotCache.get(activityId);
         if (ObjectUtil.isNull(activity)) {
             log.warn("活动不存在, activityId={}", activityId);
             throw new BusinessException(ResultCode.NOT_FOUND, "活动不存在");
         }
 
-        // 统计总数
-        LambdaQueryWrapper<Evaluation> countQuery = new LambdaQueryWrapper<>();
-        countQuery.eq(Evaluation::getActivityId, activityId);
-        long totalCount = evaluationMapper.selectCount(countQuery);
-
-        // 如果没有评价，返回空的统计信息
-        if (totalCount == 0) {
-            return EvaluationStatisticsVO.builder()
-                    .activityId(activityId)
-                    .totalCount(0L)
-                    .avgSatisfaction(0.0)
-                    .avgPracticality(0.0)
-                    .avgQuality(0.0)
-                    .satisfactionLevel3(0L)
-                    .satisfactionLevel2(0L)
-                    .satisfactionLevel1(0L)
-                    .suggestionCount(0L)
-                    .build();
-        }
-
-        // 查询各项平均分
-        Double avgSatisfaction = evaluationMapper.queryAvgSatisfaction(activityId);
-        Double avgPracticality = evaluationMapper.queryAvgPracticality(activityId);
-        Double avgQuality = evaluationMapper.queryAvgQuality(activityId);
-
-        // 查询各评分等级数量
-        Long satisfactionLevel3 = evaluationMapper.querySatisfactionLevel3Count(activityId);
-        Long satisfactionLevel2 = evaluationMapper.querySatisfactionLevel2Count(activityId);
-        Long satisfactionLevel1 = evaluationMapper.querySatisfactionLevel1Count(activityId);
-
-        // 查询包含建议的评价数量
-        Long suggestionCount = evaluationMapper.querySuggestionCount(activityId);
+        // 已结束活动的统计走缓存（评价只在活动结束后提交，提交时失效）
+        EvaluationStatisticsRow row = ActivityStatusEnum.ENDED.equals(activity.getStatus())
+                ? statisticsCache.get(activityId, this::loadEvaluationStatistics)
+                : loadEvaluationStatistics(activityId);
+        return convertToStatisticsVO(activityId, row);
+    }
 
+    /**
+     * 单次条件聚合查询评价统计
+     */
+    private EvaluationStatisticsRow loadEvaluationStatistics(Long activityId) {
+        EvaluationStatisticsRow row = evaluationMapper.selectStatistics(activityId);
         log.info("评价统计查询完成, totalCount={}, avgSatisfaction={}, avgPracticality={}, avgQuality={}", 
-            totalCount, avgSatisfaction, avgPracticality, avgQuality);
+            row.getTotalCount(), row.getAvgSatisfaction(), 
+            row.getAvgPracticality(), row.getAvgQuality());
+        return row;
+    }
 
+    /**
+     * 由统计聚合行组装评价统计VO（每次调用返回新实例，不共享缓存对象）
+     */
+    private EvaluationStatisticsVO convertToStatisticsVO(Long activityId, EvaluationStatisticsRow row) {
         return EvaluationStatisticsVO.builder()
                 .activityId(activityId)
-                .totalCount(totalCount)
-                .avgSatisfaction(avgSatisfaction != null ? avgSatisfaction : 0.0)
-                .avgPracticality(avgPracticality != null ? avgPracticality : 0.0)
-                .avgQuality(avgQuality != null ? avgQuality : 0.0)
-                .satisfactionLevel3(satisfactionLevel3 != null ? satisfactionLevel3 : 0L)
-                .satisfactionLevel2(satisfactionLevel2 != null ? satisfactionLevel2 : 0L)
-                .satisfactionLevel1(satisfactionLevel1 != null ? satisfactionLevel1 : 0L)
-                .suggestionCount(suggestionCount != null ? suggestionCount : 0L)
+                .totalCount(row.getTotalCount())
+                .avgSatisfaction(row.getAvgSatisfaction())
+                .avgPracticality(row.getAvgPracticality())
+                .avgQuality(row.getAvgQuality())
+                .satisfactionLevel3(row.getSatisfactionLevel3())
+                .satisfactionLevel2(row.getSatisfactionLevel2())
+                .satisfactionLevel1(row.getSatisfactionLevel1())
+                .suggestionCount(row.getSuggestionCount())
+                .summary(EvaluationSummaryVO.builder()
+                        .totalEvaluations((int) row.getTotalCount())
+                        .q1Satisfaction(EvaluationSummaryVO.SatisfactionStats.builder()
+                                .unsatisfied((int) row.getSatisfactionLevel1())
+                                .neutral((int) row.getSatisfactionLevel2())
+                                .satisfied((int) row.getSatisfactionLevel3())
+                                .build())
+                        .q2Practicality(EvaluationSummaryVO.PracticalityStats.builder()
+                                .weak((int) row.getPracticalityLevel1())
+                                .medium((int) row.getPracticalityLevel2())
+                                .strong((int) row.getPracticalityLevel3())
+                                .build())
+                        .q3Quality(EvaluationSummaryVO.QualityStats.builder()
+                                .poor((int) row.getQualityLevel1())
+                                .medium((int) row.getQualityLevel2())
+                                .good((int) row.getQualityLevel3())
+                                .build())
+                        .build())
                 .build();
     }
 
     /**
      * 将评价实体转换为VO
      */
-    private EvaluationVO convertToVO(Evaluation evaluation) {
+    private EvaluationVO convertToVO(Evaluation evaluation, TeachingPointEntry teachingPoint) {
         return EvaluationVO.builder()
                 .id(evaluation.getId())
                 .activityId(evaluation.getActivityId())
                 .teachingPointId(evaluation.getTeachingPointId())
+                .teachingPointName(ObjectUtil.isNotNull(teachingPoint) ? teachingPoint.name() : "")
                 .q1Satisfaction(evaluation.getQ1Satisfaction())
                 .q2Practicality(evaluation.getQ2Practicality())
                 .q3Quality(evaluation.getQ3Quality())
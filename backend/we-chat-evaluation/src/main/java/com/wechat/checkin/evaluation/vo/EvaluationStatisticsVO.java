@@ -73,4 +73,10 @@ public class EvaluationStatisticsVO {
      */
     @Schema(description = "包含建议的评价数量", example = "20")
     private Long suggestionCount;
+
+    /**
+     * 三项评分分布（用于饼图等可视化）
+     */
+    @Schema(description = "三项评分分布")
+    private EvaluationSummaryVO summary;
 }
@@ -0,0 +1,52 @@
+package com.wechat.checkin.qrcode.cache;
+
+import com.wechat.checkin.common.enums.QrCodeStatusEnum;
+import com.wechat.checkin.common.enums.QrCodeTypeEnum;
+import com.wechat.checkin.qrcode.entity.QrCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 二维码状态快照
+ * 仅包含验证所需的字段，不可变，可安全地在线程间共享
+ *
+ * @param id         二维码ID
+ * @param activityId 活动ID
+ * @param type       二维码类型
+ * @param status     二维码状态
+ * @param expireTime 过期时间
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record QrCodeState(Long id, Long activityId, QrCodeTypeEnum type,
+                          QrCodeStatusEnum status, LocalDateTime expireTime) {
+
+    /**
+     * 从实体构建快照
+     *
+     * @param qrCode 二维码实体
+     * @return 状态快照
+     */
+    public static QrCodeState of(QrCode qrCode) {
+        return new QrCodeState(qrCode.getId(), qrCode.getActivityId(), qrCode.getType(),
+                qrCode.getStatus(), qrCode.getExpireTime());
+    }
+
+    /**
+     * 是否处于启用状态
+     *
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return QrCodeStatusEnum.ENABLED.equals(status);
+    }
+
+    /**
+     * 是否已过期
+     *
+     * @return 是否过期
+     */
+    public boolean isExpired() {
+        return expireTime != null && LocalDateTime.now().isAfter(expireTime);
+    }
+}
@@ -0,0 +1,137 @@
+package com.wechat.checkin.qrcode.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wechat.checkin.common.util.TransactionUtils;
+import com.wechat.checkin.qrcode.entity.QrCode;
+import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 二维码状态缓存
+ * 扫码验证是高频只读操作，二维码状态只在禁用时变化，因此缓存状态快照以避免每次扫码都查询数据库
+ *
+ * 失效策略：
+ * - 所有禁用操作在更新数据库后立即失效对应条目
+ * - 若处于事务中，事务提交后再失效一次，防止提交前被并发读回填旧状态
+ * - TTL兜底，防止其他节点的变更长期不可见
+ *
+ * 命中率通过Micrometer暴露：/actuator/metrics/cache.gets?tag=cache:qrcodeState
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class QrCodeStateCache {
+
+    private static final String CACHE_NAME = "qrcodeState";
+
+    private final QrCodeMapper qrCodeMapper;
+    private final Cache<Long, QrCodeState> cache;
+
+    public QrCodeStateCache(QrCodeMapper qrCodeMapper,
+                            ObjectProvider<MeterRegistry> meterRegistryProvider,
+                            @Value("${qrcode.state-cache.max-size:10000}") long maxSize,
+                            @Value("${qrcode.state-cache.ttl:PT5M}") Duration ttl) {
+        this.qrCodeMapper = qrCodeMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistryProvider.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+        log.info("二维码状态缓存已初始化: maxSize={}, ttl={}", maxSize, ttl);
+    }
+
+    /**
+     * 获取二维码状态（未命中时从数据库加载）
+     *
+     * @param id 二维码ID
+     * @return 状态快照，二维码不存在时返回null（不缓存）
+     */
+    public QrCodeState get(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return cache.get(id, key -> {
+            QrCode qrCode = qrCodeMapper.selectById(key);
+            return qrCode != null ? QrCodeState.of(qrCode) : null;
+        });
+    }
+
+    /**
+     * 失效单个二维码
+     *
+     * @param id 二维码ID
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        TransactionUtils.afterCommit(() -> cache.invalidate(id));
+    }
+
+    /**
+     * 批量失效二维码
+     *
+     * @param ids 二维码ID列表
+     */
+    public void evictAll(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(ids);
+        TransactionUtils.afterCommit(() -> cache.invalidateAll(ids));
+    }
+
+    /**
+     * 失效某个活动下的所有二维码
+     *
+     * @param activityId 活动ID
+     */
+    public void evictActivity(Long activityId) {
+        if (activityId == null) {
+            return;
+        }
+        Runnable eviction = () -> cache.asMap().values()
+                .removeIf(state -> Objects.equals(activityId, state.activityId()));
+        eviction.run();
+        TransactionUtils.afterCommit(eviction);
+    }
+
+    /**
+     * 失效多个活动下的所有二维码（一次遍历缓存）
+     *
+     * @param activityIds 活动ID集合
+     */
+    public void evictActivities(Collection<Long> activityIds) {
+        if (activityIds == null || activityIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(activityIds);
+        Runnable eviction = () -> cache.asMap().values()
+                .removeIf(state -> ids.contains(state.activityId()));
+        eviction.run();
+        TransactionUtils.afterCommit(eviction);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        TransactionUtils.afterCommit(cache::invalidateAll);
+    }
+}
@@ -2,9 +2,14 @@ package com.wechat.checkin.qrcode.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wechat.checkin.auth.annotation.RequireRole;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.Result;
 import com.wechat.checkin.qrcode.dto.GenerateQrCodeRequest;
 import com.wechat.checkin.qrcode.dto.QrCodeQueryRequest;
+import com.wechat.checkin.qrcode.image.QrImage;
+import com.wechat.checkin.qrcode.image.QrImageFormat;
+import com.wechat.checkin.qrcode.image.QrImageStore;
+import com.wechat.checkin.qrcode.image.QrImageUrlSigner;
 import com.wechat.checkin.qrcode.service.QrCodeService;
 import com.wechat.checkin.qrcode.vo.QrCodeVO;
 import com.wechat.checkin.qrcode.vo.QrCodeVerifyResultVO;
@@ -14,8 +19,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
 
 /**
  * 二维码管理控制器
@@ -33,6 +46,11 @@ import org.springframework.web.bind.annotation.*;
 public class QrCodeController {
 
     private final QrCodeService qrCodeService;
+    private final QrImageStore qrImageStore;
+    private final QrImageUrlSigner qrImageUrlSigner;
+
+    @Value("${qrcode.image.max-age:P1D}")
+    private Duration imageMaxAge;
 
     /**
      * 为活动生成二维码
@@ -74,6 +92,25 @@ public class QrCodeController {
         return Result.success(page);
     }
 
+    /**
+     * 游标分页查询二维码列表
+     *
+     * @param request 查询请求
+     * @return 二维码列表游标分页结果
+     */
+    @GetMapping("/qrcodes/scroll")
+    @RequireRole({"city", "county"})
+    @Operation(summary = "游标分页查询二维码列表", 
+            description = "按创建时间倒序游标分页，首次请求不带cursor，之后传入上一批返回的nextCursor；withTotal=true时额外返回总数")
+    public Result<CursorPage<QrCodeVO>> scrollQrCodes(@Validated QrCodeQueryRequest request) {
+        log.info("游标查询二维码列表: activityId={}, type={}, status={}, size={}", 
+                request.getActivityId(), request.getType(), request.getStatus(), request.getSize());
+        
+        CursorPage<QrCodeVO> page = qrCodeService.scrollQrCodes(request);
+        
+        return Result.success(page);
+    }
+
     /**
      * 查询二维码详情
      *
@@ -93,6 +130,78 @@ public class QrCodeController {
         return Result.success(qrCode);
     }
 
+    /**
+     * 获取二维码图片
+     * 图片按内容寻址缓存，二维码内容创建后不变，因此可长期缓存并通过ETag协商
+     *
+     * @param id 二维码ID
+     * @param size 边长（像素，64-1024，默认300）
+     * @param format 图片格式（png/svg，默认png）
+     * @return 图片字节
+     */
+    @GetMapping("/qrcodes/{id}/image")
+    @RequireRole({"city", "county"})
+    @Operation(summary = "获取二维码图片", description = "返回PNG或SVG格式的二维码图片，支持多种尺寸（1.4.0新增）")
+    public ResponseEntity<byte[]> getQrCodeImage(
+            @Parameter(description = "二维码ID", required = true)
+            @PathVariable("id") Long id,
+            @Parameter(description = "边长（像素，64-1024）")
+            @RequestParam(value = "size", required = false) Integer size,
+            @Parameter(description = "图片格式（png/svg）")
+            @RequestParam(value = "format", defaultValue = "png") String format,
+            WebRequest webRequest) {
+
+        return imageResponse(qrImageStore.get(id, size, QrImageFormat.of(format)), webRequest);
+    }
+
+    /**
+     * 通过签名地址获取二维码图片（无需登录，供 &lt;img src&gt; 直接引用）
+     *
+     * @param id 二维码ID
+     * @param expires 过期时间（秒）
+     * @param signature 签名
+     * @param size 边长（像素），为空时使用默认尺寸
+     * @param format 图片格式（png/svg，默认png）
+     * @return 图片字节
+     */
+    @GetMapping("/qrcodes/{id}/image/signed")
+    @Operation(summary = "通过签名地址获取二维码图片", description = "QrCodeVO.imageUrl 返回的短期签名地址，无需Bearer令牌（1.4.0新增）")
+    public ResponseEntity<byte[]> getSignedQrCodeImage(
+            @Parameter(description = "二维码ID", required = true)
+            @PathVariable("id") Long id,
+            @Parameter(description = "过期时间（秒）", required = true)
+            @RequestParam("expires") long expires,
+            @Parameter(description = "签名", required = true)
+            @RequestParam("signature") String signature,
+            @Parameter(description = "边长（像素，64-1024）")
+            @RequestParam(value = "size", required = false) Integer size,
+            @Parameter(description = "图片格式（png/svg）")
+            @RequestParam(value = "format", defaultValue = "png") String format,
+            WebRequest webRequest) {
+
+        qrImageUrlSigner.verify(id, expires, signature);
+        return imageResponse(qrImageStore.get(id, size, QrImageFormat.of(format)), webRequest);
+    }
+
+    /**
+     * 构建图片响应（支持 If-None-Match 返回304）
+     */
+    private ResponseEntity<byte[]> imageResponse(QrImage image, WebRequest webRequest) {
+        CacheControl cacheControl = CacheControl.maxAge(imageMaxAge).cachePrivate();
+
+        if (webRequest.checkNotModified(image.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(image.etag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(image.etag())
+                .contentType(MediaType.parseMediaType(image.format().getMediaType()))
+                .body(image.bytes());
+    }
+
     /**
      * 禁用二维码
      *
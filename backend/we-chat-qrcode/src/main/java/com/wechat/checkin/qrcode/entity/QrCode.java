@@ -22,9 +22,9 @@ import java.time.LocalDateTime;
 public class QrCode {
 
     /**
-     * 二维码ID
+     * 二维码ID（由 QrCodeIdAllocator 预先分配）
      */
-    @TableId(value = "id", type = IdType.AUTO)
+    @TableId(value = "id", type = IdType.INPUT)
     private Long id;
 
     /**
@@ -45,6 +45,12 @@ public class QrCode {
     @TableField("token")
     private String token;
 
+    /**
+     * 签名密钥ID（历史数据为空，表示由初始密钥签发）
+     */
+    @TableField("key_id")
+    private String keyId;
+
     /**
      * 过期时间
      */
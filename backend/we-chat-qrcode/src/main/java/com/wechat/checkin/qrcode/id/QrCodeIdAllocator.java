@@ -0,0 +1,105 @@
+package com.wechat.checkin.qrcode.id;
+
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 二维码ID分配器（号段模式）
+ * 令牌中需要包含二维码ID，预先分配ID后记录可携带最终令牌一次写入，无需先插入再回写
+ *
+ * 分配方式：
+ * - 从 id_sequences 表按号段（默认50个）取号，号段内在内存中以CAS递增分配
+ * - 取号在独立事务中完成，不占用业务事务的行锁；取号期间不持有任何锁，
+ *   号段耗尽时并发请求各自取号，只有一个号段成为当前号段，其余号段仅供取号线程本次使用
+ * - 首次使用时以 qrcodes 当前最大ID+1 初始化序列
+ * - 服务重启或并发取号会丢弃未用完的号段，ID可能不连续
+ * - 所有写入 qrcodes 的路径（含测试数据脚本）都须从 id_sequences 取号，不能依赖自增ID
+ *
+ * 未使用雪花ID：雪花ID超出JavaScript安全整数范围，前端以数字解析二维码ID时会丢失精度
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class QrCodeIdAllocator {
+
+    private final QrCodeMapper qrCodeMapper;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+
+    /**
+     * 当前号段
+     */
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(new AtomicLong(), 0));
+
+    public QrCodeIdAllocator(QrCodeMapper qrCodeMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${qrcode.id-block-size:50}") int blockSize) {
+        this.qrCodeMapper = qrCodeMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 分配连续的ID
+     *
+     * @param count 数量
+     * @return 起始ID（分配的ID为 [起始ID, 起始ID+count)）
+     */
+    public long allocate(int count) {
+        Block block = current.get();
+        long first = block.next().getAndAdd(count);
+        if (first + count <= block.limit()) {
+            return first;
+        }
+
+        // 号段耗尽：在锁外取新号段，本次请求使用号段开头，剩余部分尝试设为当前号段
+        int size = Math.max(blockSize, count);
+        long end = fetchBlock(size);
+        long start = end - size;
+        if (current.compareAndSet(block, new Block(new AtomicLong(start + count), end))) {
+            log.debug("二维码ID号段已分配: [{}, {})", start, end);
+        }
+        return start;
+    }
+
+    /**
+     * 推进序列并返回号段上界（不含）
+     */
+    private long fetchBlock(int size) {
+        Long end = requiresNew.execute(status -> {
+            if (qrCodeMapper.advanceIdSequence(size) == 0) {
+                qrCodeMapper.initIdSequence();
+                if (qrCodeMapper.advanceIdSequence(size) == 0) {
+                    return null;
+                }
+            }
+            return qrCodeMapper.lastInsertId();
+        });
+        if (end == null) {
+            throw new BusinessException(ResultCode.INTERNAL_SERVER_ERROR, "二维码ID序列初始化失败");
+        }
+        return end;
+    }
+
+    /**
+     * 号段
+     *
+     * @param next 下一个可用ID
+     * @param limit 上界（不含）
+     */
+    private record Block(AtomicLong next, long limit) {
+    }
+}
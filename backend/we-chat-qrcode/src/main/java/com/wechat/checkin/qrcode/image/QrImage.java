@@ -0,0 +1,13 @@
+package com.wechat.checkin.qrcode.image;
+
+/**
+ * 渲染后的二维码图片
+ *
+ * @param bytes  图片字节
+ * @param format 图片格式
+ * @param etag   强ETag（内容摘要+尺寸+格式）
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record QrImage(byte[] bytes, QrImageFormat format, String etag) {
+}
@@ -0,0 +1,39 @@
+package com.wechat.checkin.qrcode.image;
+
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 二维码图片格式
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Getter
+@AllArgsConstructor
+public enum QrImageFormat {
+
+    PNG("png", "image/png"),
+    SVG("svg", "image/svg+xml");
+
+    /**
+     * 扩展名
+     */
+    private final String extension;
+
+    /**
+     * 媒体类型
+     */
+    private final String mediaType;
+
+    public static QrImageFormat of(String value) {
+        for (QrImageFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BusinessException(ResultCode.PARAM_ERROR, "不支持的图片格式: " + value);
+    }
+}
@@ -0,0 +1,172 @@
+package com.wechat.checkin.qrcode.image;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.common.BitMatrix;
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.common.util.TransactionUtils;
+import com.wechat.checkin.qrcode.entity.QrCode;
+import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
+import com.wechat.checkin.qrcode.util.QrCodeGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.Executor;
+
+/**
+ * 二维码图片存储
+ * 二维码内容（验证URL）创建后不再变化，因此图片按内容寻址缓存，渲染移出创建事务
+ *
+ * 缓存层次：
+ * - 二维码ID → 内容摘要与内容
+ * - 内容摘要 → 模块矩阵（每个内容只编码一次）
+ * - 内容摘要+尺寸+格式 → 图片字节（按字节数限制容量）
+ *
+ * 创建二维码后在事务提交后异步预渲染默认尺寸PNG；其他尺寸和SVG按需由矩阵渲染
+ * 单个生成接口兼容返回的Base64图片（qrCodeImage）同样取自该缓存
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class QrImageStore {
+
+    private static final int MIN_SIZE = 64;
+    private static final int MAX_SIZE = 1024;
+
+    private final QrCodeMapper qrCodeMapper;
+    private final Executor taskExecutor;
+    private final String baseUrl;
+    private final int defaultSize;
+
+    private final Cache<Long, QrContent> contents;
+    private final Cache<String, BitMatrix> matrices;
+    private final Cache<String, byte[]> images;
+
+    public QrImageStore(QrCodeMapper qrCodeMapper,
+                        @Qualifier("taskExecutor") Executor taskExecutor,
+                        ObjectProvider<MeterRegistry> meterRegistryProvider,
+                        @Value("${qrcode.base-url:http://localhost:8080}") String baseUrl,
+                        @Value("${qrcode.image.default-size:300}") int defaultSize,
+                        @Value("${qrcode.image.max-entries:10000}") long maxEntries,
+                        @Value("${qrcode.image.max-bytes:67108864}") long maxBytes) {
+        this.qrCodeMapper = qrCodeMapper;
+        this.taskExecutor = taskExecutor;
+        this.baseUrl = baseUrl;
+        this.defaultSize = defaultSize;
+        this.contents = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.matrices = Caffeine.newBuilder().maximumSize(maxEntries).recordStats().build();
+        this.images = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build();
+        meterRegistryProvider.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, matrices, "qrMatrix");
+            CaffeineCacheMetrics.monitor(registry, images, "qrImage");
+        });
+        log.info("二维码图片存储已初始化: defaultSize={}, maxEntries={}, maxBytes={}", defaultSize, maxEntries, maxBytes);
+    }
+
+    /**
+     * 二维码扫码内容（验证URL）
+     *
+     * @param token 二维码令牌
+     * @return 扫码内容
+     */
+    public String contentOf(String token) {
+        return baseUrl + "/api/qrcodes/verify?token=" + token;
+    }
+
+    /**
+     * 事务提交后异步预渲染默认尺寸PNG
+     *
+     * @param qrCode 新建的二维码（已有ID和最终令牌）
+     */
+    public void renderAfterCommit(QrCode qrCode) {
+        Long id = qrCode.getId();
+        QrContent content = QrContent.of(contentOf(qrCode.getToken()));
+        TransactionUtils.afterCommit(() -> {
+            contents.put(id, content);
+            taskExecutor.execute(() -> {
+                try {
+                    render(content, defaultSize, QrImageFormat.PNG);
+                } catch (Exception e) {
+                    // 预渲染失败不影响业务，请求图片时会重新渲染
+                    log.warn("二维码图片预渲染失败: id={}", id, e);
+                }
+            });
+        });
+    }
+
+    /**
+     * 获取默认尺寸PNG的Data URI（兼容已废弃的 QrCodeVO.qrCodeImage）
+     * 取自图片缓存：与 renderAfterCommit 的异步预渲染共用缓存条目，同一图片只渲染一次
+     *
+     * @param qrcodeId 二维码ID（须在事务提交后调用）
+     * @return data:image/png;base64,...
+     */
+    public String dataUri(Long qrcodeId) {
+        QrImage image = get(qrcodeId, defaultSize, QrImageFormat.PNG);
+        return "data:" + QrImageFormat.PNG.getMediaType() + ";base64," + Base64.getEncoder().encodeToString(image.bytes());
+    }
+
+    /**
+     * 获取二维码图片
+     *
+     * @param qrcodeId 二维码ID
+     * @param size 边长（像素），为空时使用默认尺寸
+     * @param format 图片格式
+     * @return 图片
+     */
+    public QrImage get(Long qrcodeId, Integer size, QrImageFormat format) {
+        int effectiveSize = size != null ? size : defaultSize;
+        if (effectiveSize < MIN_SIZE || effectiveSize > MAX_SIZE) {
+            throw new BusinessException(ResultCode.PARAM_ERROR,
+                    String.format("图片尺寸须在 %d-%d 之间", MIN_SIZE, MAX_SIZE));
+        }
+
+        QrContent content = contents.get(qrcodeId, id -> {
+            QrCode qrCode = qrCodeMapper.selectById(id);
+            return qrCode != null ? QrContent.of(contentOf(qrCode.getToken())) : null;
+        });
+        if (content == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "二维码不存在");
+        }
+        return render(content, effectiveSize, format);
+    }
+
+    private QrImage render(QrContent content, int size, QrImageFormat format) {
+        String key = content.digest() + "-" + size + "." + format.getExtension();
+        byte[] bytes = images.get(key, k -> {
+            BitMatrix matrix = matrices.get(content.digest(), digest -> QrCodeGenerator.encodeMatrix(content.value()));
+            return format == QrImageFormat.SVG
+                    ? QrCodeGenerator.renderSvg(matrix, size)
+                    : QrCodeGenerator.renderPng(matrix, size);
+        });
+        return new QrImage(bytes, format, "\"" + key + "\"");
+    }
+
+    /**
+     * 扫码内容及其摘要
+     *
+     * @param value 内容
+     * @param digest 内容摘要
+     */
+    private record QrContent(String value, String digest) {
+
+        static QrContent of(String value) {
+            return new QrContent(value, DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
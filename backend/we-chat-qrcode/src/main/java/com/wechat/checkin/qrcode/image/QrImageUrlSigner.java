@@ -0,0 +1,94 @@
+package com.wechat.checkin.qrcode.image;
+
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 二维码图片签名地址
+ * 图片地址携带过期时间和HMAC签名，无需Bearer令牌即可直接用作 &lt;img src&gt;
+ *
+ * 签名方式：
+ * - 签名密钥由 qrcode.secret 派生，与令牌签名密钥互不通用
+ * - 签名覆盖 "二维码ID:过期时间"，截断为128位，base64url编码
+ * - 过期时间按有效期对齐到时间窗口，同一窗口内地址不变，浏览器缓存可命中；剩余有效期在1~2个有效期之间
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Component
+public class QrImageUrlSigner {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final String baseUrl;
+    private final long ttlSeconds;
+
+    public QrImageUrlSigner(@Value("${qrcode.secret:wechat-checkin-qrcode-secret-key-2024}") String secret,
+                            @Value("${qrcode.base-url:http://localhost:8080}") String baseUrl,
+                            @Value("${qrcode.image.url-ttl:PT1H}") Duration ttl) {
+        SecretKeySpec root = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.key = new SecretKeySpec(mac(root, "qrcode-image-url"), MAC_ALGORITHM);
+        this.baseUrl = baseUrl;
+        this.ttlSeconds = Math.max(1, ttl.toSeconds());
+    }
+
+    /**
+     * 生成二维码图片签名地址
+     *
+     * @param qrcodeId 二维码ID
+     * @return 图片地址（支持追加 size、format 参数）
+     */
+    public String sign(Long qrcodeId) {
+        long now = System.currentTimeMillis() / 1000;
+        long expires = (now / ttlSeconds + 2) * ttlSeconds;
+        return baseUrl + "/api/qrcodes/" + qrcodeId + "/image/signed?expires=" + expires
+                + "&signature=" + signature(qrcodeId, expires);
+    }
+
+    /**
+     * 校验签名地址
+     *
+     * @param qrcodeId 二维码ID
+     * @param expires 过期时间（秒）
+     * @param signature 签名
+     * @throws BusinessException 签名无效或已过期
+     */
+    public void verify(Long qrcodeId, long expires, String signature) {
+        boolean expired = expires < System.currentTimeMillis() / 1000;
+        if (expired || signature == null || !MessageDigest.isEqual(
+                signature(qrcodeId, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new BusinessException(ResultCode.FORBIDDEN, "图片链接无效或已过期");
+        }
+    }
+
+    private String signature(Long qrcodeId, long expires) {
+        byte[] digest = mac(key, qrcodeId + ":" + expires);
+        return ENCODER.encodeToString(Arrays.copyOf(digest, SIGNATURE_LENGTH));
+    }
+
+    private static byte[] mac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC计算失败", e);
+        }
+    }
+}
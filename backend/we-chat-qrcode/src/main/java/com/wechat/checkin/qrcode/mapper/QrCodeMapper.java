@@ -2,7 +2,14 @@ package com.wechat.checkin.qrcode.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.wechat.checkin.qrcode.entity.QrCode;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 二维码Mapper接口
@@ -12,5 +19,85 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface QrCodeMapper extends BaseMapper<QrCode> {
-}
 
+    /**
+     * 多行插入二维码（ID和最终令牌已预先生成，一次写入）
+     *
+     * @param qrCodes 二维码列表
+     * @return 插入行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO qrcodes (id, activity_id, type, token, key_id, expire_time, status, created_time, updated_time) VALUES",
+            "<foreach collection='list' item='q' separator=','>",
+            "(#{q.id}, #{q.activityId}, #{q.type.value}, #{q.token}, #{q.keyId}, #{q.expireTime}, #{q.status.value}, #{q.createdTime}, #{q.updatedTime})",
+            "</foreach>",
+            "</script>"})
+    int insertBatch(@Param("list") List<QrCode> qrCodes);
+
+    /**
+     * 初始化二维码ID序列（已存在时忽略，起始值为当前最大ID+1）
+     *
+     * @return 插入行数
+     */
+    @Insert("INSERT IGNORE INTO id_sequences (name, next_id) " +
+            "SELECT 'qrcodes', COALESCE(MAX(id), 0) + 1 FROM qrcodes")
+    int initIdSequence();
+
+    /**
+     * 推进二维码ID序列，推进后的值写入当前连接的 LAST_INSERT_ID()
+     *
+     * @param count 分配数量
+     * @return 更新行数（序列不存在时为0）
+     */
+    @Update("UPDATE id_sequences SET next_id = LAST_INSERT_ID(next_id + #{count}) WHERE name = 'qrcodes'")
+    int advanceIdSequence(@Param("count") int count);
+
+    /**
+     * 读取当前连接的 LAST_INSERT_ID()
+     *
+     * @return 推进后的序列值
+     */
+    @Select("SELECT LAST_INSERT_ID()")
+    long lastInsertId();
+
+    /**
+     * 查询时间窗口内已过期但仍启用的二维码ID（按过期时间升序，由 idx_qrcodes_expire_time 支撑）
+     *
+     * @param from 窗口起点（不含）
+     * @param now 当前时间
+     * @param limit 最大数量
+     * @return 二维码ID列表
+     */
+    @Select("SELECT id FROM qrcodes WHERE expire_time > #{from} AND expire_time <= #{now} " +
+            "AND status = 'enabled' ORDER BY expire_time LIMIT #{limit}")
+    List<Long> selectExpiredEnabledIds(@Param("from") LocalDateTime from, @Param("now") LocalDateTime now,
+                                       @Param("limit") int limit);
+
+    /**
+     * 查询时间窗口内最早一个已过期但仍启用的二维码的过期时间
+     *
+     * @param from 窗口起点（不含）
+     * @param now 当前时间
+     * @return 过期时间，没有时为null
+     */
+    @Select("SELECT MIN(expire_time) FROM qrcodes WHERE expire_time > #{from} AND expire_time <= #{now} " +
+            "AND status = 'enabled'")
+    LocalDateTime selectOldestExpiredEnabledTime(@Param("from") LocalDateTime from, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询指定密钥签发的启用二维码的最晚过期时间（由 idx_qrcodes_key_status_expire 支撑）
+     * 未设置过期时间的二维码视为永不过期
+     *
+     * @param keyId 签名密钥ID
+     * @param includeUnkeyed 是否包含未记录密钥ID的历史二维码（keyId为初始密钥时）
+     * @return 最晚过期时间，没有时为null
+     */
+    @Select({"<script>",
+            "SELECT MAX(COALESCE(expire_time, '9999-12-31 23:59:59')) FROM qrcodes",
+            "WHERE status = 'enabled' AND (key_id = #{keyId}",
+            "<if test='includeUnkeyed'>OR key_id IS NULL</if>",
+            ")",
+            "</script>"})
+    LocalDateTime selectLatestEnabledExpireTime(@Param("keyId") String keyId,
+                                                @Param("includeUnkeyed") boolean includeUnkeyed);
+}
@@ -1,11 +1,16 @@
 package com.wechat.checkin.qrcode.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.qrcode.dto.GenerateQrCodeRequest;
 import com.wechat.checkin.qrcode.dto.QrCodeQueryRequest;
 import com.wechat.checkin.qrcode.vo.QrCodeVO;
 import com.wechat.checkin.qrcode.vo.QrCodeVerifyResultVO;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 二维码服务接口
  * 
@@ -23,6 +28,16 @@ public interface QrCodeService {
      */
     QrCodeVO generateQrCode(Long activityId, GenerateQrCodeRequest request);
 
+    /**
+     * 为活动批量生成二维码（一条多行INSERT写入）
+     *
+     * @param activityId 活动ID
+     * @param expireTime 过期时间（为空时使用默认过期天数）
+     * @param types 二维码类型
+     * @return 二维码信息（与types顺序一致）
+     */
+    List<QrCodeVO> generateQrCodes(Long activityId, LocalDateTime expireTime, String... types);
+
     /**
      * 分页查询二维码列表
      *
@@ -31,6 +46,14 @@ public interface QrCodeService {
      */
     Page<QrCodeVO> listQrCodes(QrCodeQueryRequest request);
 
+    /**
+     * 游标分页查询二维码列表（按创建时间、ID倒序，不受翻页深度影响）
+     *
+     * @param request 查询请求（使用 cursor、size、withTotal）
+     * @return 二维码列表游标分页结果
+     */
+    CursorPage<QrCodeVO> scrollQrCodes(QrCodeQueryRequest request);
+
     /**
      * 根据ID查询二维码详情
      *
@@ -51,7 +74,7 @@ public interface QrCodeService {
      *
      * @param ids 二维码ID列表
      */
-    void disableQrCodesBatch(java.util.List<Long> ids);
+    void disableQrCodesBatch(List<Long> ids);
 
     /**
      * 验证二维码（参与端使用）
@@ -85,8 +108,40 @@ public interface QrCodeService {
      *
      * @param activityId 活动ID
      * @param excludedTypes 需要保留的二维码类型（不禁用）
+     * @return 本次禁用的二维码数量
+     */
+    int disableQrCodesExcept(Long activityId, String... excludedTypes);
+
+    /**
+     * 批量禁用多个活动中除指定类型外的二维码（单条UPDATE）
+     *
+     * @param activityIds 活动ID列表
+     * @param excludedTypes 需要保留的二维码类型（不禁用）
+     * @return 本次禁用的二维码数量
+     */
+    int disableQrCodesExcept(Collection<Long> activityIds, String... excludedTypes);
+
+    /**
+     * 禁用时间窗口内已过期但仍启用的二维码（定时任务调用，单批）
+     *
+     * @param expiredAfter 窗口起点（过期时间早于该时间的二维码不再处理）
+     * @param batchSize 单批最大数量
+     * @return 本批禁用的二维码数量
+     */
+    int disableExpiredQrCodes(LocalDateTime expiredAfter, int batchSize);
+
+    /**
+     * 时间窗口内最早一个已过期但仍启用的二维码的过期时间（用于度量过期清理的滞后）
+     *
+     * @param expiredAfter 窗口起点
+     * @return 过期时间，没有时为null
+     */
+    LocalDateTime oldestExpiredEnabledTime(LocalDateTime expiredAfter);
+
+    /**
+     * 将已退役的签名密钥保留到其签发的启用二维码全部过期为止（密钥轮换后由定时任务调用）
      */
-    void disableQrCodesExcept(Long activityId, String... excludedTypes);
+    void retainRetiredSigningKeys();
 
     /**
      * 验证特定类型的二维码（新增）
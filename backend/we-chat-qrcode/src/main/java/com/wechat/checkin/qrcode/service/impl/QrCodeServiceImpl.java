@@ -6,13 +6,21 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.wechat.checkin.common.enums.QrCodeStatusEnum;
 import com.wechat.checkin.common.enums.QrCodeTypeEnum;
 import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.common.util.KeysetPagination;
+import com.wechat.checkin.common.util.TransactionUtils;
+import com.wechat.checkin.qrcode.cache.QrCodeState;
+import com.wechat.checkin.qrcode.cache.QrCodeStateCache;
 import com.wechat.checkin.qrcode.dto.GenerateQrCodeRequest;
 import com.wechat.checkin.qrcode.dto.QrCodeQueryRequest;
 import com.wechat.checkin.qrcode.entity.QrCode;
+import com.wechat.checkin.qrcode.id.QrCodeIdAllocator;
+import com.wechat.checkin.qrcode.image.QrImageStore;
+import com.wechat.checkin.qrcode.image.QrImageUrlSigner;
 import com.wechat.checkin.qrcode.mapper.QrCodeMapper;
 import com.wechat.checkin.qrcode.service.QrCodeService;
-import com.wechat.checkin.qrcode.util.QrCodeGenerator;
+import com.wechat.checkin.qrcode.util.QrCodeClaims;
 import com.wechat.checkin.qrcode.util.QrCodeTokenProvider;
 import com.wechat.checkin.qrcode.vo.QrCodeVO;
 import com.wechat.checkin.qrcode.vo.QrCodeVerifyResultVO;
@@ -24,7 +32,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * 二维码服务实现类
@@ -39,9 +53,10 @@ public class QrCodeServiceImpl implements QrCodeService {
 
     private final QrCodeMapper qrCodeMapper;
     private final QrCodeTokenProvider tokenProvider;
-
-    @Value("${qrcode.base-url:http://localhost:8080}")
-    private String baseUrl;
+    private final QrCodeStateCache qrCodeStateCache;
+    private final QrImageStore qrImageStore;
+    private final QrImageUrlSigner qrImageUrlSigner;
+    private final QrCodeIdAllocator qrCodeIdAllocator;
 
     @Value("${qrcode.default-expiration-days:7}")
     private int defaultExpirationDays;
@@ -50,79 +65,75 @@ public class QrCodeServiceImpl implements QrCodeService {
     @Transactional
     public QrCodeVO generateQrCode(Long activityId, GenerateQrCodeRequest request) {
         log.info("为活动生成二维码: activityId={}, type={}", activityId, request.getType());
+        QrCodeVO qrCode = createQrCodes(activityId, request.getExpireTime(), request.getType()).get(0);
+
+        // 兼容已废弃的 qrCodeImage：仅单个生成接口返回，事务提交后（返回调用方之前）取自图片缓存
+        TransactionUtils.afterCommit(() -> qrCode.setQrCodeImage(qrImageStore.dataUri(qrCode.getId())));
+        return qrCode;
+    }
+
+    @Override
+    @Transactional
+    public List<QrCodeVO> generateQrCodes(Long activityId, LocalDateTime expireTime, String... types) {
+        log.info("为活动批量生成二维码: activityId={}, types={}", activityId, Arrays.toString(types));
+        return createQrCodes(activityId, expireTime, types);
+    }
+
+    /**
+     * 生成二维码并一次写入
+     * ID预先分配，令牌直接按最终ID签发，所有二维码通过一条多行INSERT写入
+     */
+    private List<QrCodeVO> createQrCodes(Long activityId, LocalDateTime expireTime, String... types) {
+        if (types == null || types.length == 0) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "二维码类型不能为空");
+        }
 
         // 1. 验证二维码类型
-        QrCodeTypeEnum typeEnum;
-        try {
-            typeEnum = QrCodeTypeEnum.valueOf(request.getType().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new BusinessException(ResultCode.PARAM_ERROR, "无效的二维码类型: " + request.getType());
+        List<QrCodeTypeEnum> typeEnums = new ArrayList<>(types.length);
+        for (String type : types) {
+            try {
+                typeEnums.add(QrCodeTypeEnum.valueOf(type.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的二维码类型: " + type);
+            }
         }
 
         // 2. 计算过期时间（如果未指定，则默认7天）
-        LocalDateTime expireTime = request.getExpireTime();
-        if (expireTime == null) {
-            expireTime = LocalDateTime.now().plusDays(defaultExpirationDays);
+        LocalDateTime effectiveExpireTime = expireTime != null
+                ? expireTime
+                : LocalDateTime.now().plusDays(defaultExpirationDays);
+        Date expireDate = Date.from(effectiveExpireTime.atZone(ZoneId.systemDefault()).toInstant());
+
+        // 3. 预分配ID并按最终ID签发令牌（记录签名密钥ID，用于密钥轮换后计算旧密钥的保留期限）
+        long firstId = qrCodeIdAllocator.allocate(typeEnums.size());
+        String keyId = tokenProvider.currentKeyId();
+        LocalDateTime now = LocalDateTime.now();
+        List<QrCode> qrCodes = new ArrayList<>(typeEnums.size());
+        for (int i = 0; i < typeEnums.size(); i++) {
+            QrCodeTypeEnum typeEnum = typeEnums.get(i);
+            QrCode qrCode = new QrCode();
+            qrCode.setId(firstId + i);
+            qrCode.setActivityId(activityId);
+            qrCode.setType(typeEnum);
+            qrCode.setToken(tokenProvider.generateToken(keyId, qrCode.getId(), activityId, typeEnum.getValue(), expireDate));
+            qrCode.setKeyId(keyId);
+            qrCode.setExpireTime(effectiveExpireTime);
+            qrCode.setStatus(QrCodeStatusEnum.ENABLED);
+            qrCode.setCreatedTime(now);
+            qrCode.setUpdatedTime(now);
+            qrCodes.add(qrCode);
         }
 
-        // 3. 生成临时token（使用activityId作为临时ID，稍后会重新生成）
-        Date expireDate = Date.from(expireTime.atZone(ZoneId.systemDefault()).toInstant());
-        String tempToken = tokenProvider.generateToken(
-                0L,  // 临时ID，稍后会更新
-                activityId,
-                typeEnum.getValue(),
-                expireDate
-        );
-
-        // 4. 创建二维码记录（包含token）
-        QrCode qrCode = new QrCode();
-        qrCode.setActivityId(activityId);
-        qrCode.setType(typeEnum);
-        qrCode.setToken(tempToken);  // 先设置临时token
-        qrCode.setExpireTime(expireTime);
-        qrCode.setStatus(QrCodeStatusEnum.ENABLED);
-        
-        // 插入数据库获取ID
-        qrCodeMapper.insert(qrCode);
-
-        // 5. 使用真实的ID重新生成token
-        String finalToken = tokenProvider.generateToken(
-                qrCode.getId(),
-                activityId,
-                typeEnum.getValue(),
-                expireDate
-        );
-
-        // 6. 更新为最终的token
-        LambdaUpdateWrapper<QrCode> updateWrapper = new LambdaUpdateWrapper<>();
-        updateWrapper.eq(QrCode::getId, qrCode.getId())
-                .set(QrCode::getToken, finalToken);
-        qrCodeMapper.update(null, updateWrapper);
-        
-        // 更新对象中的token值（用于后续返回）
-        qrCode.setToken(finalToken);
-
-        // 7. 生成二维码URL
-        String qrCodeUrl = baseUrl + "/api/qrcodes/verify?token=" + finalToken;
+        // 4. 一次写入
+        qrCodeMapper.insertBatch(qrCodes);
 
-        // 8. 生成二维码图片（Base64）
-        String qrCodeImage = QrCodeGenerator.generateQrCodeBase64(qrCodeUrl);
+        // 5. 事务提交后异步预渲染图片，图片通过 imageUrl 获取
+        qrCodes.forEach(qrImageStore::renderAfterCommit);
 
-        log.info("二维码生成成功: id={}, activityId={}, type={}", qrCode.getId(), activityId, typeEnum.getValue());
+        qrCodes.forEach(qrCode -> log.info("二维码生成成功: id={}, activityId={}, type={}",
+                qrCode.getId(), activityId, qrCode.getType().getValue()));
 
-        // 9. 构建响应
-        return QrCodeVO.builder()
-                .id(qrCode.getId())
-                .activityId(activityId)
-                .type(typeEnum.getValue())
-                .token(finalToken)
-                .url(qrCodeUrl)
-                .qrCodeImage(qrCodeImage)
-                .expireTime(expireTime)
-                .status(qrCode.getStatus().getValue())
-                .createdTime(qrCode.getCreatedTime())
-                .updatedTime(qrCode.getUpdatedTime())
-                .build();
+        return qrCodes.stream().map(this::convertToVO).toList();
     }
 
     @Override
@@ -132,6 +143,36 @@ public class QrCodeServiceImpl implements QrCodeService {
                 request.getCurrent(), request.getSize());
 
         // 1. 构建查询条件
+        LambdaQueryWrapper<QrCode> queryWrapper = buildQueryWrapper(request);
+        queryWrapper.orderByDesc(QrCode::getCreatedTime);
+
+        // 2. 执行分页查询
+        Page<QrCode> page = new Page<>(request.getCurrent(), request.getSize());
+        Page<QrCode> qrCodePage = qrCodeMapper.selectPage(page, queryWrapper);
+
+        // 3. 转换为VO
+        Page<QrCodeVO> voPage = new Page<>(qrCodePage.getCurrent(), qrCodePage.getSize(), qrCodePage.getTotal());
+        voPage.setRecords(qrCodePage.getRecords().stream().map(this::convertToVO).toList());
+
+        return voPage;
+    }
+
+    @Override
+    public CursorPage<QrCodeVO> scrollQrCodes(QrCodeQueryRequest request) {
+        log.info("游标查询二维码列表: activityId={}, type={}, status={}, size={}", 
+                request.getActivityId(), request.getType(), request.getStatus(), request.getSize());
+
+        // 按 (created_time, id) 倒序
+        CursorPage<QrCode> page = KeysetPagination.query(qrCodeMapper, buildQueryWrapper(request),
+                QrCode::getCreatedTime, QrCode::getId,
+                request.getCursor(), request.getSize(), Boolean.TRUE.equals(request.getWithTotal()));
+        return page.map(this::convertToVO);
+    }
+
+    /**
+     * 构建二维码列表过滤条件（不含排序）
+     */
+    private LambdaQueryWrapper<QrCode> buildQueryWrapper(QrCodeQueryRequest request) {
         LambdaQueryWrapper<QrCode> queryWrapper = new LambdaQueryWrapper<>();
         
         if (request.getActivityId() != null) {
@@ -155,18 +196,7 @@ public class QrCodeServiceImpl implements QrCodeService {
                 log.warn("无效的二维码状态: {}", request.getStatus());
             }
         }
-
-        queryWrapper.orderByDesc(QrCode::getCreatedTime);
-
-        // 2. 执行分页查询
-        Page<QrCode> page = new Page<>(request.getCurrent(), request.getSize());
-        Page<QrCode> qrCodePage = qrCodeMapper.selectPage(page, queryWrapper);
-
-        // 3. 转换为VO
-        Page<QrCodeVO> voPage = new Page<>(qrCodePage.getCurrent(), qrCodePage.getSize(), qrCodePage.getTotal());
-        voPage.setRecords(qrCodePage.getRecords().stream().map(this::convertToVO).toList());
-
-        return voPage;
+        return queryWrapper;
     }
 
     @Override
@@ -208,13 +238,14 @@ public class QrCodeServiceImpl implements QrCodeService {
         if (updated == 0) {
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "禁用二维码失败");
         }
+        qrCodeStateCache.evict(id);
 
         log.info("二维码禁用成功: id={}", id);
     }
 
     @Override
     @Transactional
-    public void disableQrCodesBatch(java.util.List<Long> ids) {
+    public void disableQrCodesBatch(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
             log.warn("批量禁用二维码: 二维码ID列表为空");
             return;
@@ -229,70 +260,74 @@ public class QrCodeServiceImpl implements QrCodeService {
                 .set(QrCode::getDisabledTime, LocalDateTime.now());
 
         int updated = qrCodeMapper.update(null, updateWrapper);
+        qrCodeStateCache.evictAll(ids);
         log.info("批量禁用二维码完成: 总数={}, 成功={}", ids.size(), updated);
     }
 
     @Override
     public QrCodeVerifyResultVO verifyQrCode(String token) {
         log.info("验证二维码令牌");
+        return verify(token, null);
+    }
+
+    @Override
+    public QrCodeVO getQrCodeByToken(String token) {
+        log.info("根据令牌获取二维码信息");
+
+        // 1. 从令牌中提取二维码ID
+        Long qrcodeId = tokenProvider.parseClaims(token).qrcodeId();
 
+        // 2. 查询二维码
+        QrCode qrCode = qrCodeMapper.selectById(qrcodeId);
+        if (qrCode == null) {
+            throw new BusinessException(ResultCode.QRCODE_INVALID, "二维码不存在");
+        }
+
+        return convertToVO(qrCode);
+    }
+
+    /**
+     * 验证二维码令牌
+     * 令牌只验签解析一次，后续校验全部基于解析出的声明
+     *
+     * @param token 二维码令牌
+     * @param expectedType 期望的二维码类型（为null时不校验类型）
+     * @return 验证结果
+     */
+    private QrCodeVerifyResultVO verify(String token, String expectedType) {
         try {
-            // 1. 验证令牌格式
-            if (!tokenProvider.validateToken(token)) {
-                return QrCodeVerifyResultVO.builder()
-                        .valid(false)
-                        .reason("二维码令牌无效")
-                        .build();
+            // 1. 验签并解析令牌声明
+            QrCodeClaims claims = tokenProvider.parseClaims(token);
+            Long qrcodeId = claims.qrcodeId();
+            Long activityId = claims.activityId();
+            String type = claims.type();
+
+            // 2. 检查令牌是否过期
+            if (claims.isExpired()) {
+                return invalidResult(claims, "二维码已过期");
             }
 
-            // 2. 从令牌中提取信息
-            Long qrcodeId = tokenProvider.getQrcodeIdFromToken(token);
-            Long activityId = tokenProvider.getActivityIdFromToken(token);
-            String type = tokenProvider.getTypeFromToken(token);
-
-            // 3. 检查令牌是否过期
-            if (tokenProvider.isTokenExpired(token)) {
-                return QrCodeVerifyResultVO.builder()
-                        .valid(false)
-                        .qrcodeId(qrcodeId)
-                        .activityId(activityId)
-                        .type(type)
-                        .reason("二维码已过期")
-                        .build();
+            // 3. 检查类型是否匹配（类型不符时无需查询数据库）
+            if (expectedType != null && !expectedType.equalsIgnoreCase(type)) {
+                log.warn("二维码类型不匹配: expected={}, actual={}", expectedType, type);
+                return invalidResult(claims,
+                        String.format("二维码类型不匹配，期望: %s, 实际: %s", expectedType, type));
             }
 
-            // 4. 查询二维码记录
-            QrCode qrCode = qrCodeMapper.selectById(qrcodeId);
-            if (qrCode == null) {
-                return QrCodeVerifyResultVO.builder()
-                        .valid(false)
-                        .qrcodeId(qrcodeId)
-                        .activityId(activityId)
-                        .type(type)
-                        .reason("二维码不存在")
-                        .build();
+            // 4. 获取二维码状态（优先命中缓存）
+            QrCodeState state = qrCodeStateCache.get(qrcodeId);
+            if (state == null) {
+                return invalidResult(claims, "二维码不存在");
             }
 
             // 5. 检查二维码状态
-            if (!QrCodeStatusEnum.ENABLED.equals(qrCode.getStatus())) {
-                return QrCodeVerifyResultVO.builder()
-                        .valid(false)
-                        .qrcodeId(qrcodeId)
-                        .activityId(activityId)
-                        .type(type)
-                        .reason("二维码已被禁用")
-                        .build();
+            if (!state.isEnabled()) {
+                return invalidResult(claims, "二维码已被禁用");
             }
 
             // 6. 检查数据库中的过期时间
-            if (qrCode.getExpireTime() != null && LocalDateTime.now().isAfter(qrCode.getExpireTime())) {
-                return QrCodeVerifyResultVO.builder()
-                        .valid(false)
-                        .qrcodeId(qrcodeId)
-                        .activityId(activityId)
-                        .type(type)
-                        .reason("二维码已过期")
-                        .build();
+            if (state.isExpired()) {
+                return invalidResult(claims, "二维码已过期");
             }
 
             // 7. 验证通过
@@ -302,6 +337,7 @@ public class QrCodeServiceImpl implements QrCodeService {
                     .qrcodeId(qrcodeId)
                     .activityId(activityId)
                     .type(type)
+                    .qrCodeState(state)
                     .build();
 
         } catch (BusinessException e) {
@@ -319,27 +355,24 @@ public class QrCodeServiceImpl implements QrCodeService {
         }
     }
 
-    @Override
-    public QrCodeVO getQrCodeByToken(String token) {
-        log.info("根据令牌获取二维码信息");
-
-        // 1. 从令牌中提取二维码ID
-        Long qrcodeId = tokenProvider.getQrcodeIdFromToken(token);
-
-        // 2. 查询二维码
-        QrCode qrCode = qrCodeMapper.selectById(qrcodeId);
-        if (qrCode == null) {
-            throw new BusinessException(ResultCode.QRCODE_INVALID, "二维码不存在");
-        }
-
-        return convertToVO(qrCode);
+    /**
+     * 构建验证失败结果
+     */
+    private QrCodeVerifyResultVO invalidResult(QrCodeClaims claims, String reason) {
+        return QrCodeVerifyResultVO.builder()
+                .valid(false)
+                .qrcodeId(claims.qrcodeId())
+                .activityId(claims.activityId())
+                .type(claims.type())
+                .reason(reason)
+                .build();
     }
 
     /**
      * 转换为VO
      */
     private QrCodeVO convertToVO(QrCode qrCode) {
-        String qrCodeUrl = baseUrl + "/api/qrcodes/verify?token=" + qrCode.getToken();
+        String qrCodeUrl = qrImageStore.contentOf(qrCode.getToken());
 
         return QrCodeVO.builder()
                 .id(qrCode.getId())
@@ -347,6 +380,7 @@ public class QrCodeServiceImpl implements QrCodeService {
                 .type(qrCode.getType().getValue())
                 .token(qrCode.getToken())
                 .url(qrCodeUrl)
+                .imageUrl(qrImageUrlSigner.sign(qrCode.getId()))
                 .expireTime(qrCode.getExpireTime())
                 .disabledTime(qrCode.getDisabledTime())
                 .status(qrCode.getStatus().getValue())
@@ -370,6 +404,7 @@ public class QrCodeServiceImpl implements QrCodeService {
                     .set(QrCode::getDisabledTime, LocalDateTime.now());
             
             int updated = qrCodeMapper.update(null, updateWrapper);
+            qrCodeStateCache.evictActivity(activityId);
             log.info("二维码按类型禁用完成: activityId={}, type={}, 禁用数量={}", 
                 activityId, type, updated);
         } catch (IllegalArgumentException e) {
@@ -380,103 +415,98 @@ public class QrCodeServiceImpl implements QrCodeService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void disableQrCodesExcept(Long activityId, String... excludedTypes) {
+    public int disableQrCodesExcept(Long activityId, String... excludedTypes) {
         log.info("按类型禁用二维码（保留指定类型）: activityId={}, excludedTypes={}", 
-            activityId, java.util.Arrays.toString(excludedTypes));
+            activityId, Arrays.toString(excludedTypes));
 
-        if (excludedTypes == null || excludedTypes.length == 0) {
-            // 如果没有排除类型，禁用所有二维码
-            disableAllQrCodesForActivity(activityId);
-            return;
+        int disabledCount = disableEnabledQrCodes(List.of(activityId), excludedTypes);
+        qrCodeStateCache.evictActivity(activityId);
+        log.info("二维码按类型禁用完成: activityId={}, 禁用数量={}", activityId, disabledCount);
+        return disabledCount;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int disableQrCodesExcept(Collection<Long> activityIds, String... excludedTypes) {
+        if (activityIds == null || activityIds.isEmpty()) {
+            return 0;
         }
+        log.info("批量按类型禁用二维码（保留指定类型）: 活动数={}, excludedTypes={}",
+            activityIds.size(), Arrays.toString(excludedTypes));
 
-        // 将排除的类型转换为枚举
-        java.util.Set<QrCodeTypeEnum> excludedEnums = new java.util.HashSet<>();
-        for (String type : excludedTypes) {
-            try {
-                excludedEnums.add(QrCodeTypeEnum.valueOf(type.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                log.warn("无效的二维码类型: {}", type);
-            }
+        int disabledCount = disableEnabledQrCodes(activityIds, excludedTypes);
+        qrCodeStateCache.evictActivities(activityIds);
+        log.info("二维码批量按类型禁用完成: 活动数={}, 禁用数量={}", activityIds.size(), disabledCount);
+        return disabledCount;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int disableExpiredQrCodes(LocalDateTime expiredAfter, int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expiredIds = qrCodeMapper.selectExpiredEnabledIds(expiredAfter, now, batchSize);
+        if (expiredIds.isEmpty()) {
+            return 0;
         }
 
-        // 查询该活动的所有二维码
-        LambdaQueryWrapper<QrCode> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(QrCode::getActivityId, activityId);
-        java.util.List<QrCode> qrCodes = qrCodeMapper.selectList(queryWrapper);
-
-        int disabledCount = 0;
-        for (QrCode qrCode : qrCodes) {
-            // 如果类型不在排除列表中，则禁用
-            if (!excludedEnums.contains(qrCode.getType())) {
-                LambdaUpdateWrapper<QrCode> updateWrapper = new LambdaUpdateWrapper<>();
-                updateWrapper.eq(QrCode::getId, qrCode.getId())
-                        .set(QrCode::getStatus, QrCodeStatusEnum.DISABLED)
-                        .set(QrCode::getDisabledTime, LocalDateTime.now());
-                
-                int updated = qrCodeMapper.update(null, updateWrapper);
-                if (updated > 0) {
-                    disabledCount++;
-                    log.debug("二维码已禁用: id={}, type={}, activityId={}", 
-                        qrCode.getId(), qrCode.getType(), activityId);
-                }
-            } else {
-                log.debug("二维码已保留: id={}, type={}, activityId={}", 
-                    qrCode.getId(), qrCode.getType(), activityId);
+        LambdaUpdateWrapper<QrCode> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.in(QrCode::getId, expiredIds)
+                .eq(QrCode::getStatus, QrCodeStatusEnum.ENABLED)
+                .set(QrCode::getStatus, QrCodeStatusEnum.DISABLED)
+                .set(QrCode::getDisabledTime, now);
+        int disabled = qrCodeMapper.update(null, updateWrapper);
+        qrCodeStateCache.evictAll(expiredIds);
+        log.info("过期二维码已禁用: 数量={}", disabled);
+        return disabled;
+    }
+
+    @Override
+    public LocalDateTime oldestExpiredEnabledTime(LocalDateTime expiredAfter) {
+        return qrCodeMapper.selectOldestExpiredEnabledTime(expiredAfter, LocalDateTime.now());
+    }
+
+    @Override
+    public void retainRetiredSigningKeys() {
+        String legacyKeyId = tokenProvider.legacyKeyId();
+        for (String keyId : tokenProvider.retiredKeyIds()) {
+            LocalDateTime latest = qrCodeMapper.selectLatestEnabledExpireTime(keyId, keyId.equals(legacyKeyId));
+            if (latest != null) {
+                tokenProvider.retainKey(keyId, latest.atZone(ZoneId.systemDefault()).toInstant());
             }
         }
-
-        log.info("二维码按类型禁用完成: activityId={}, 禁用数量={}, 保留数量={}", 
-            activityId, disabledCount, qrCodes.size() - disabledCount);
     }
 
     /**
-     * 禁用活动的所有二维码（私有方法）
+     * 单条UPDATE禁用指定活动中启用状态、且类型不在保留列表中的二维码
+     * 未指定保留类型时禁用全部
+     *
+     * @return 本次禁用的二维码数量
      */
-    private void disableAllQrCodesForActivity(Long activityId) {
+    private int disableEnabledQrCodes(Collection<Long> activityIds, String... excludedTypes) {
+        Set<QrCodeTypeEnum> excludedEnums = EnumSet.noneOf(QrCodeTypeEnum.class);
+        if (excludedTypes != null) {
+            for (String type : excludedTypes) {
+                try {
+                    excludedEnums.add(QrCodeTypeEnum.valueOf(type.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    log.warn("无效的二维码类型: {}", type);
+                }
+            }
+        }
+
         LambdaUpdateWrapper<QrCode> updateWrapper = new LambdaUpdateWrapper<>();
-        updateWrapper.eq(QrCode::getActivityId, activityId)
+        updateWrapper.in(QrCode::getActivityId, activityIds)
+                .eq(QrCode::getStatus, QrCodeStatusEnum.ENABLED)
+                .notIn(!excludedEnums.isEmpty(), QrCode::getType, excludedEnums)
                 .set(QrCode::getStatus, QrCodeStatusEnum.DISABLED)
                 .set(QrCode::getDisabledTime, LocalDateTime.now());
-        
-        int updated = qrCodeMapper.update(null, updateWrapper);
-        log.info("活动所有二维码已禁用: activityId={}, 禁用数量={}", activityId, updated);
+        return qrCodeMapper.update(null, updateWrapper);
     }
 
     @Override
     public QrCodeVerifyResultVO verifyQrCodeOfType(String token, String expectedType) {
         log.info("验证特定类型二维码: expectedType={}", expectedType);
-
-        try {
-            // 1. 先进行基础验证
-            QrCodeVerifyResultVO baseResult = verifyQrCode(token);
-            if (!baseResult.getValid()) {
-                return baseResult;
-            }
-
-            // 2. 检查类型是否匹配
-            String actualType = baseResult.getType();
-            if (!expectedType.equalsIgnoreCase(actualType)) {
-                log.warn("二维码类型不匹配: expected={}, actual={}", expectedType, actualType);
-                return QrCodeVerifyResultVO.builder()
-                        .valid(false)
-                        .qrcodeId(baseResult.getQrcodeId())
-                        .activityId(baseResult.getActivityId())
-                        .type(actualType)
-                        .reason(String.format("二维码类型不匹配，期望: %s, 实际: %s", expectedType, actualType))
-                        .build();
-            }
-
-            // 3. 类型匹配，返回验证通过
-            return baseResult;
-
-        } catch (Exception e) {
-            log.error("二维码类型验证异常", e);
-            return QrCodeVerifyResultVO.builder()
-                    .valid(false)
-                    .reason("二维码验证失败: " + e.getMessage())
-                    .build();
-        }
+        return verify(token, expectedType);
     }
 }
 
@@ -0,0 +1,206 @@
+package com.wechat.checkin.qrcode.util;
+
+import com.wechat.checkin.common.enums.QrCodeTypeEnum;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 紧凑二维码令牌编解码
+ * 以二进制载荷替代JWT，令牌长度约32个字符（JWT约290个字符），二维码模块数显著减少
+ *
+ * 载荷格式（v1，大端序，整体base64url编码、无填充）：
+ * <pre>
+ * | 版本(1) | 密钥标签(2) | 类型(1) | 二维码ID(varint) | 活动ID(varint) | 过期时间秒(4) | HMAC-SHA256截断(12) |
+ * </pre>
+ * - 密钥标签为kid的SHA-256前2字节，用于在轮换窗口内定位验签密钥
+ * - 签名覆盖HMAC之前的全部字节，截断为96位
+ * - 令牌不含"."，与JWT格式可直接区分
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+final class CompactQrCodeToken {
+
+    /**
+     * 当前载荷版本
+     */
+    static final byte VERSION = 1;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 12;
+    private static final int MIN_LENGTH = 1 + 2 + 1 + 1 + 1 + 4 + MAC_LENGTH;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CompactQrCodeToken() {
+    }
+
+    /**
+     * 计算密钥标签
+     *
+     * @param keyId 密钥ID
+     * @return 密钥标签（0-65535）
+     */
+    static int keyTag(String keyId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyId.getBytes(StandardCharsets.UTF_8));
+            return ((digest[0] & 0xFF) << 8) | (digest[1] & 0xFF);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 生成紧凑令牌
+     *
+     * @param keyTag 密钥标签
+     * @param key 签名密钥
+     * @param qrcodeId 二维码ID
+     * @param activityId 活动ID
+     * @param type 二维码类型
+     * @param expireTime 过期时间
+     * @return 令牌
+     */
+    static String encode(int keyTag, SecretKey key, long qrcodeId, long activityId, String type, Date expireTime) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(VERSION);
+        out.write(keyTag >>> 8);
+        out.write(keyTag);
+        out.write(typeCode(type));
+        writeVarLong(out, qrcodeId);
+        writeVarLong(out, activityId);
+        long expireSeconds = expireTime.getTime() / 1000;
+        out.write((int) (expireSeconds >>> 24));
+        out.write((int) (expireSeconds >>> 16));
+        out.write((int) (expireSeconds >>> 8));
+        out.write((int) expireSeconds);
+
+        byte[] signed = out.toByteArray();
+        out.write(mac(key, signed), 0, MAC_LENGTH);
+        return ENCODER.encodeToString(out.toByteArray());
+    }
+
+    /**
+     * 解码令牌（不验签）
+     *
+     * @param token 令牌
+     * @return 解码结果
+     * @throws IllegalArgumentException 格式错误
+     */
+    static Decoded decode(String token) {
+        byte[] bytes = DECODER.decode(token);
+        if (bytes.length < MIN_LENGTH) {
+            throw new IllegalArgumentException("令牌长度不足");
+        }
+        if (bytes[0] != VERSION) {
+            throw new IllegalArgumentException("不支持的令牌版本: " + bytes[0]);
+        }
+
+        int[] pos = {1};
+        int keyTag = ((bytes[pos[0]++] & 0xFF) << 8) | (bytes[pos[0]++] & 0xFF);
+        String type = typeValue(bytes[pos[0]++]);
+        long qrcodeId = readVarLong(bytes, pos);
+        long activityId = readVarLong(bytes, pos);
+        if (bytes.length - pos[0] != 4 + MAC_LENGTH) {
+            throw new IllegalArgumentException("令牌长度错误");
+        }
+        long expireSeconds = ((long) (bytes[pos[0]++] & 0xFF) << 24)
+                | ((bytes[pos[0]++] & 0xFF) << 16)
+                | ((bytes[pos[0]++] & 0xFF) << 8)
+                | (bytes[pos[0]++] & 0xFF);
+
+        return new Decoded(keyTag, qrcodeId, activityId, type, new Date(expireSeconds * 1000),
+                Arrays.copyOf(bytes, pos[0]), Arrays.copyOfRange(bytes, pos[0], bytes.length));
+    }
+
+    /**
+     * 验证签名（常量时间比较）
+     *
+     * @param decoded 解码结果
+     * @param key 验签密钥
+     * @return 签名是否有效
+     */
+    static boolean verify(Decoded decoded, SecretKey key) {
+        byte[] expected = Arrays.copyOf(mac(key, decoded.signed()), MAC_LENGTH);
+        return MessageDigest.isEqual(expected, decoded.mac());
+    }
+
+    private static byte[] mac(SecretKey key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key.getEncoded(), MAC_ALGORITHM));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC计算失败", e);
+        }
+    }
+
+    private static int typeCode(String type) {
+        if (QrCodeTypeEnum.CHECKIN.getValue().equals(type)) {
+            return 1;
+        }
+        if (QrCodeTypeEnum.EVALUATION.getValue().equals(type)) {
+            return 2;
+        }
+        throw new IllegalArgumentException("无效的二维码类型: " + type);
+    }
+
+    private static String typeValue(byte code) {
+        return switch (code) {
+            case 1 -> QrCodeTypeEnum.CHECKIN.getValue();
+            case 2 -> QrCodeTypeEnum.EVALUATION.getValue();
+            default -> throw new IllegalArgumentException("无效的二维码类型编码: " + code);
+        };
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("ID不能为负数: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] pos) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= bytes.length) {
+                throw new IllegalArgumentException("令牌截断");
+            }
+            byte b = bytes[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("ID编码过长");
+    }
+
+    /**
+     * 解码结果
+     *
+     * @param keyTag 密钥标签
+     * @param qrcodeId 二维码ID
+     * @param activityId 活动ID
+     * @param type 二维码类型
+     * @param expiration 过期时间
+     * @param signed 签名覆盖的字节
+     * @param mac 截断的HMAC
+     */
+    record Decoded(int keyTag, long qrcodeId, long activityId, String type, Date expiration,
+                   byte[] signed, byte[] mac) {
+    }
+}
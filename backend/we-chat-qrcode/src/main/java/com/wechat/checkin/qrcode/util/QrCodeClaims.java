@@ -0,0 +1,26 @@
+package com.wechat.checkin.qrcode.util;
+
+import java.util.Date;
+
+/**
+ * 二维码令牌声明
+ * 令牌验签后一次性解析出的不可变声明，避免同一令牌被重复解析
+ *
+ * @param qrcodeId   二维码ID
+ * @param activityId 活动ID
+ * @param type       二维码类型
+ * @param expiration 过期时间
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record QrCodeClaims(Long qrcodeId, Long activityId, String type, Date expiration) {
+
+    /**
+     * 令牌是否已过期
+     *
+     * @return 是否过期
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
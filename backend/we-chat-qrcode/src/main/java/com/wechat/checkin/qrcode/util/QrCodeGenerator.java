@@ -11,6 +11,10 @@ import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.ResultCode;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -86,6 +90,101 @@ public class QrCodeGenerator {
         }
     }
 
+    /**
+     * 编码二维码模块矩阵（每个模块1像素，含1模块边距）
+     * 同一内容只需编码一次，不同尺寸和格式均由该矩阵渲染
+     *
+     * @param content 二维码内容
+     * @return 模块矩阵
+     */
+    public static BitMatrix encodeMatrix(String content) {
+        try {
+            Map<EncodeHintType, Object> hints = new HashMap<>();
+            hints.put(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
+            hints.put(EncodeHintType.MARGIN, 1);
+            // 宽高为0时 ZXing 返回不缩放的最小矩阵
+            return new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, 0, 0, hints);
+        } catch (WriterException e) {
+            log.error("二维码编码失败: content={}", content, e);
+            throw new BusinessException(ResultCode.QRCODE_GENERATE_FAILED, "二维码生成失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将模块矩阵渲染为PNG
+     * 模块按整数倍放大并居中，保证边缘清晰
+     *
+     * @param matrix 模块矩阵
+     * @param size 图片边长（像素）
+     * @return PNG字节
+     */
+    public static byte[] renderPng(BitMatrix matrix, int size) {
+        int modules = matrix.getWidth();
+        int scale = Math.max(1, size / modules);
+        int offset = Math.max(0, (size - modules * scale) / 2);
+        int imageSize = Math.max(size, modules * scale);
+
+        BufferedImage image = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, imageSize, imageSize);
+            graphics.setColor(Color.BLACK);
+            for (int y = 0; y < modules; y++) {
+                for (int x = 0; x < modules; x++) {
+                    if (matrix.get(x, y)) {
+                        graphics.fillRect(offset + x * scale, offset + y * scale, scale, scale);
+                    }
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ImageIO.write(image, "PNG", outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new BusinessException(ResultCode.QRCODE_GENERATE_FAILED, "二维码生成失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将模块矩阵渲染为SVG（按行合并连续深色模块为路径）
+     *
+     * @param matrix 模块矩阵
+     * @param size 显示边长（像素）
+     * @return SVG字节（UTF-8）
+     */
+    public static byte[] renderSvg(BitMatrix matrix, int size) {
+        int modules = matrix.getWidth();
+        StringBuilder path = new StringBuilder(modules * modules);
+        for (int y = 0; y < modules; y++) {
+            int x = 0;
+            while (x < modules) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < modules && matrix.get(x, y)) {
+                    x++;
+                }
+                int run = x - start;
+                path.append('M').append(start).append(',').append(y)
+                        .append('h').append(run).append("v1h-").append(run).append('z');
+            }
+        }
+
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + size + "\" height=\"" + size
+                + "\" viewBox=\"0 0 " + modules + " " + modules + "\" shape-rendering=\"crispEdges\">"
+                + "<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * 验证二维码内容格式
      *
@@ -1,21 +1,31 @@
 package com.wechat.checkin.qrcode.util;
 
+import com.wechat.checkin.auth.security.JwtKeyManager;
 import com.wechat.checkin.common.exception.BusinessException;
 import com.wechat.checkin.common.response.ResultCode;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 二维码令牌提供者
- * 负责二维码令牌的生成和验证（基于JWT）
+ * 负责二维码令牌的生成和验证
+ *
+ * 令牌格式（qrcode.token-format）：
+ * - compact：紧凑二进制令牌（见 CompactQrCodeToken），默认
+ * - jwt：HS512签名的JWT（1.4.0之前的格式）
+ * 验证时按令牌内容自动识别格式（JWT含"."），迁移期间两种格式均可验证
  * 
  * @author WeChat Check-in System
  * @since 1.0.0
@@ -36,16 +46,119 @@ public class QrCodeTokenProvider {
     @Value("${qrcode.issuer:wechat-checkin-qrcode}")
     private String issuer;
 
+    /**
+     * 签名密钥ID（写入令牌header的kid）
+     */
+    @Value("${qrcode.key-id:default}")
+    private String keyId;
+
+    /**
+     * 密钥轮换后旧密钥的重叠有效期（不短于默认二维码有效期，为0时取该值）
+     * 指定了更晚过期时间的二维码由 QrCodeService.retainRetiredSigningKeys 按实际过期时间延长
+     */
+    @Value("${qrcode.key-overlap:PT0S}")
+    private Duration keyOverlap;
+
+    /**
+     * 默认二维码有效期（天）
+     */
+    @Value("${qrcode.default-expiration-days:7}")
+    private int defaultExpirationDays;
+
+    /**
+     * 新签发令牌的格式：compact / jwt
+     */
+    @Value("${qrcode.token-format:compact}")
+    private String tokenFormat;
+
+    /**
+     * 签名密钥管理器（启动时构建，复用密钥和解析器）
+     */
+    private JwtKeyManager keyManager;
+
+    /**
+     * 初始化签名密钥
+     */
+    @PostConstruct
+    public void init() {
+        keyManager = new JwtKeyManager("qrcode", keyId, qrcodeSecret,
+                JwtKeyManager.overlapFor("qrcode", keyOverlap, Duration.ofDays(defaultExpirationDays)));
+    }
+
+    /**
+     * 获取当前签名密钥ID（与令牌一同落库，用于计算旧密钥的保留期限）
+     *
+     * @return 密钥ID
+     */
+    public String currentKeyId() {
+        return keyManager.currentKeyId();
+    }
+
+    /**
+     * 获取初始密钥ID（未记录密钥ID的历史二维码由该密钥签发）
+     *
+     * @return 密钥ID
+     */
+    public String legacyKeyId() {
+        return keyManager.legacyKeyId();
+    }
+
+    /**
+     * 获取已退役但仍可验签的密钥ID
+     *
+     * @return 密钥ID集合
+     */
+    public Set<String> retiredKeyIds() {
+        return keyManager.retiredKeyIds();
+    }
+
+    /**
+     * 延长已退役密钥的验签期限
+     *
+     * @param keyId 密钥ID
+     * @param until 至少保留到该时间
+     */
+    public void retainKey(String keyId, Instant until) {
+        keyManager.retain(keyId, until);
+    }
+
+    /**
+     * 发布下一个签名密钥（仅验签），所有节点发布后再调用 rotateSigningKey 启用
+     *
+     * @param nextKeyId 下一个密钥ID（为null时撤销）
+     * @param nextSecret 下一个密钥
+     */
+    public void publishNextSigningKey(String nextKeyId, String nextSecret) {
+        keyManager.publish(nextKeyId, nextSecret);
+    }
+
+    /**
+     * 轮换签名密钥，旧密钥在重叠窗口内仍可验签
+     *
+     * @param newKeyId 新密钥ID
+     * @param newSecret 新密钥
+     */
+    public void rotateSigningKey(String newKeyId, String newSecret) {
+        keyManager.rotate(newKeyId, newSecret);
+    }
+
     /**
      * 生成二维码令牌
      *
+     * @param keyId 签名密钥ID（通常为 currentKeyId()，须与二维码记录的 key_id 一致）
      * @param qrcodeId 二维码ID
      * @param activityId 活动ID
      * @param type 二维码类型
      * @param expireTime 过期时间
      * @return 二维码令牌
      */
-    public String generateToken(Long qrcodeId, Long activityId, String type, Date expireTime) {
+    public String generateToken(String keyId, Long qrcodeId, Long activityId, String type, Date expireTime) {
+        SecretKey key = keyManager.verificationKey(keyId);
+        if (!"jwt".equalsIgnoreCase(tokenFormat)) {
+            return CompactQrCodeToken.encode(CompactQrCodeToken.keyTag(keyId),
+                    key, qrcodeId, activityId, type, expireTime);
+        }
+
         Map<String, Object> claims = new HashMap<>();
         claims.put("qrcodeId", qrcodeId);
         claims.put("activityId", activityId);
@@ -54,14 +167,36 @@ public class QrCodeTokenProvider {
         Date now = new Date();
 
         return Jwts.builder()
+                .header().keyId(keyId).and()
                 .claims(claims)
                 .issuer(issuer)
                 .issuedAt(now)
                 .expiration(expireTime)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+                .signWith(key, Jwts.SIG.HS512)
                 .compact();
     }
 
+    /**
+     * 解析并验证令牌（一次验签，返回全部声明）
+     *
+     * @param token 二维码令牌
+     * @return 二维码令牌声明
+     * @throws BusinessException 令牌无效或已过期时抛出
+     */
+    public QrCodeClaims parseClaims(String token) {
+        if (token != null && token.indexOf('.') < 0) {
+            return parseCompactClaims(token);
+        }
+
+        Claims claims = getClaimsFromToken(token);
+        return new QrCodeClaims(
+                toLong(claims.get("qrcodeId"), "二维码ID格式错误"),
+                toLong(claims.get("activityId"), "活动ID格式错误"),
+                claims.get("type", String.class),
+                claims.getExpiration()
+        );
+    }
+
     /**
      * 验证令牌是否有效
      *
@@ -70,9 +205,9 @@ public class QrCodeTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            getClaimsFromToken(token);
+            parseClaims(token);
             return true;
-        } catch (JwtException | IllegalArgumentException e) {
+        } catch (BusinessException e) {
             log.warn("二维码令牌验证失败: {}", e.getMessage());
             return false;
         }
@@ -85,16 +220,7 @@ public class QrCodeTokenProvider {
      * @return 二维码ID
      */
     public Long getQrcodeIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        Object qrcodeIdObj = claims.get("qrcodeId");
-        
-        if (qrcodeIdObj instanceof Integer) {
-            return ((Integer) qrcodeIdObj).longValue();
-        } else if (qrcodeIdObj instanceof Long) {
-            return (Long) qrcodeIdObj;
-        }
-        
-        throw new BusinessException(ResultCode.QRCODE_INVALID, "二维码ID格式错误");
+        return parseClaims(token).qrcodeId();
     }
 
     /**
@@ -104,16 +230,7 @@ public class QrCodeTokenProvider {
      * @return 活动ID
      */
     public Long getActivityIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        Object activityIdObj = claims.get("activityId");
-        
-        if (activityIdObj instanceof Integer) {
-            return ((Integer) activityIdObj).longValue();
-        } else if (activityIdObj instanceof Long) {
-            return (Long) activityIdObj;
-        }
-        
-        throw new BusinessException(ResultCode.QRCODE_INVALID, "活动ID格式错误");
+        return parseClaims(token).activityId();
     }
 
     /**
@@ -123,8 +240,7 @@ public class QrCodeTokenProvider {
      * @return 二维码类型
      */
     public String getTypeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("type", String.class);
+        return parseClaims(token).type();
     }
 
     /**
@@ -135,13 +251,73 @@ public class QrCodeTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.getExpiration().before(new Date());
+            return parseClaims(token).isExpired();
         } catch (Exception e) {
             return true;
         }
     }
 
+    /**
+     * 解析并验证紧凑令牌
+     * 按密钥标签在当前可用密钥中定位验签密钥，验签后再检查过期时间
+     *
+     * @param token 紧凑令牌
+     * @return 二维码令牌声明
+     */
+    private QrCodeClaims parseCompactClaims(String token) {
+        CompactQrCodeToken.Decoded decoded;
+        try {
+            decoded = CompactQrCodeToken.decode(token);
+        } catch (IllegalArgumentException e) {
+            log.warn("二维码令牌格式错误: {}", e.getMessage());
+            throw new BusinessException(ResultCode.QRCODE_INVALID);
+        }
+
+        boolean verified = false;
+        for (String candidate : keyManager.keyIds()) {
+            if (CompactQrCodeToken.keyTag(candidate) != decoded.keyTag()) {
+                continue;
+            }
+            try {
+                if (CompactQrCodeToken.verify(decoded, keyManager.verificationKey(candidate))) {
+                    verified = true;
+                    break;
+                }
+            } catch (JwtException e) {
+                // 密钥已过重叠窗口，继续尝试其他标签相同的密钥
+            }
+        }
+        if (!verified) {
+            log.warn("二维码令牌签名验证失败: keyTag={}", decoded.keyTag());
+            throw new BusinessException(ResultCode.QRCODE_INVALID);
+        }
+
+        QrCodeClaims claims = new QrCodeClaims(decoded.qrcodeId(), decoded.activityId(),
+                decoded.type(), decoded.expiration());
+        if (claims.isExpired()) {
+            log.warn("二维码令牌已过期: qrcodeId={}", decoded.qrcodeId());
+            throw new BusinessException(ResultCode.QRCODE_EXPIRED);
+        }
+        return claims;
+    }
+
+    /**
+     * 将数值型声明转换为Long
+     *
+     * @param value 声明值
+     * @param errorMessage 格式错误时的提示
+     * @return Long值
+     */
+    private Long toLong(Object value, String errorMessage) {
+        if (value instanceof Integer) {
+            return ((Integer) value).longValue();
+        } else if (value instanceof Long) {
+            return (Long) value;
+        }
+
+        throw new BusinessException(ResultCode.QRCODE_INVALID, errorMessage);
+    }
+
     /**
      * 从令牌中获取声明
      *
@@ -150,9 +326,7 @@ public class QrCodeTokenProvider {
      */
     private Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return keyManager.parser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (ExpiredJwtException e) {
@@ -170,17 +344,10 @@ public class QrCodeTokenProvider {
         } catch (IllegalArgumentException e) {
             log.warn("二维码令牌参数错误: {}", e.getMessage());
             throw new BusinessException(ResultCode.QRCODE_INVALID);
+        } catch (JwtException e) {
+            log.warn("二维码令牌验证失败: {}", e.getMessage());
+            throw new BusinessException(ResultCode.QRCODE_INVALID);
         }
     }
-
-    /**
-     * 获取签名密钥
-     *
-     * @return 签名密钥
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = qrcodeSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
 
@@ -58,11 +58,19 @@ public class QrCodeVO {
     private String url;
 
     /**
-     * 二维码Base64图片（可选，按需生成）
+     * 二维码Base64图片（已废弃，仅生成二维码的响应中返回，下一版本移除，请使用 imageUrl）
      */
-    @Schema(description = "二维码Base64图片", example = "data:image/png;base64,...")
+    @Deprecated
+    @Schema(description = "二维码Base64图片（已废弃，仅生成二维码时返回，请使用imageUrl）", example = "data:image/png;base64,...", deprecated = true)
     private String qrCodeImage;
 
+    /**
+     * 二维码图片短期签名地址（无需Bearer令牌，可直接用作img src；支持追加 size、format=png|svg 参数）
+     */
+    @Schema(description = "二维码图片签名地址（短期有效，无需登录）",
+            example = "https://example.com/api/qrcodes/1/image/signed?expires=1735660800&signature=...")
+    private String imageUrl;
+
     /**
      * 过期时间
      */
@@ -1,5 +1,8 @@
 package com.wechat.checkin.qrcode.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.wechat.checkin.common.validator.VerificationOutcome;
+import com.wechat.checkin.qrcode.cache.QrCodeState;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +20,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "二维码验证结果")
-public class QrCodeVerifyResultVO {
+public class QrCodeVerifyResultVO implements VerificationOutcome {
 
     /**
      * 是否有效
@@ -48,5 +51,12 @@ public class QrCodeVerifyResultVO {
      */
     @Schema(description = "验证失败原因", example = "二维码已过期")
     private String reason;
+
+    /**
+     * 二维码状态快照（仅在valid=true时存在，供服务端内部复用，不序列化）
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private QrCodeState qrCodeState;
 }
 
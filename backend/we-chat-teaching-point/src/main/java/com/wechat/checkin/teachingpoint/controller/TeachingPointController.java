@@ -1,12 +1,14 @@
 package com.wechat.checkin.teachingpoint.controller;
 
 import com.wechat.checkin.auth.annotation.RequireRole;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.PageResult;
 import com.wechat.checkin.common.response.Result;
 import com.wechat.checkin.teachingpoint.dto.CreateTeachingPointRequest;
 import com.wechat.checkin.teachingpoint.dto.TeachingPointQueryRequest;
 import com.wechat.checkin.teachingpoint.dto.UpdateTeachingPointRequest;
 import com.wechat.checkin.teachingpoint.service.TeachingPointService;
+import com.wechat.checkin.teachingpoint.vo.TeachingPointOptionVO;
 import com.wechat.checkin.teachingpoint.vo.TeachingPointVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,6 +18,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 教学点管理控制器
  * 提供教学点的增删改查等操作接口
@@ -128,6 +132,21 @@ public class TeachingPointController {
         return Result.success();
     }
 
+    /**
+     * 参与端教学点选择列表
+     * 无需登录，仅返回启用状态的教学点，数据来自内存目录
+     *
+     * @param countyCode 县域编码（可选，为空时返回全部县域）
+     * @return 教学点选项列表
+     */
+    @GetMapping("/options")
+    @Operation(summary = "教学点选择列表", description = "参与端扫码后选择教学点，仅返回启用状态的教学点")
+    public Result<List<TeachingPointOptionVO>> listTeachingPointOptions(
+            @Parameter(description = "县域编码") 
+            @RequestParam(required = false) String countyCode) {
+        return Result.success(teachingPointService.listTeachingPointOptions(countyCode));
+    }
+
     /**
      * 查询教学点详情
      * 市级管理员可以查看所有教学点，县级管理员只能查看本县教学点
@@ -167,5 +186,25 @@ public class TeachingPointController {
         
         return Result.success(result);
     }
+
+    /**
+     * 游标分页查询教学点列表
+     * 过滤条件与分页查询一致，按创建时间倒序，翻页深度不影响查询耗时
+     *
+     * @param request 查询请求参数
+     * @return 教学点游标分页列表
+     */
+    @GetMapping("/scroll")
+    @Operation(summary = "游标分页查询教学点列表", 
+            description = "首次请求不带cursor，之后传入上一批返回的nextCursor；withTotal=true时额外返回总数")
+    @RequireRole({"city", "county"})
+    public Result<CursorPage<TeachingPointVO>> scrollTeachingPoints(@ModelAttribute TeachingPointQueryRequest request) {
+        log.info("游标查询教学点列表: countyCode={}, status={}, name={}", 
+                request.getCountyCode(), request.getStatus(), request.getName());
+        
+        CursorPage<TeachingPointVO> result = teachingPointService.scrollTeachingPoints(request);
+        
+        return Result.success(result);
+    }
 }
 
@@ -0,0 +1,238 @@
+package com.wechat.checkin.teachingpoint.directory;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.wechat.checkin.common.enums.StatusEnum;
+import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.common.util.TransactionUtils;
+import com.wechat.checkin.teachingpoint.entity.TeachingPoint;
+import com.wechat.checkin.teachingpoint.mapper.TeachingPointMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 教学点目录
+ * 在内存中维护全部未删除教学点的不可变快照：ID 到条目的映射，以及按县域分组的教学点ID列表。
+ * 参与端提交校验、打卡详情等VO的名称填充、参与端教学点选择列表均经由本目录，不再查询或关联 teaching_points 表
+ *
+ * 快照维护：
+ * - 启动时在县域目录（Order 2）之后全量加载
+ * - TeachingPointService 新增、修改、删除、启停教学点后失效快照（事务提交后再失效一次），下次访问时全量重建
+ * - 加载与失效并发时（查询读到提交前数据、随后失效），加载结果不会被装入快照
+ * - 定时全量重载，使其他节点的变更最终可见
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class TeachingPointDirectory implements CommandLineRunner {
+
+    /**
+     * 单次加载的最大尝试次数（加载期间发生失效时重试）
+     */
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final TeachingPointMapper teachingPointMapper;
+
+    /**
+     * 当前快照，失效后为null
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 快照版本号，每次重建递增
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * 失效次数，每次失效递增
+     * 加载期间发生失效时，加载结果可能是变更提交前的数据，不能作为快照保留
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    /**
+     * 全量重载快照
+     */
+    @Scheduled(fixedDelayString = "${teaching-point.directory.refresh-interval:PT10M}",
+            initialDelayString = "${teaching-point.directory.refresh-interval:PT10M}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * 加载并安装快照
+     * 查询期间发生失效时重新加载（最多 MAX_LOAD_ATTEMPTS 次），最后一次仍被失效则只返回结果、不安装
+     */
+    private synchronized Snapshot load() {
+        for (int attempt = 1; ; attempt++) {
+            long invalidationsBefore = invalidations.get();
+            Snapshot loaded = query();
+            snapshot = loaded;
+            // 先安装再检查：查询后发生的失效要么在此处被发现，要么其置空发生在安装之后，快照都不会保留旧数据
+            if (invalidations.get() == invalidationsBefore) {
+                log.debug("教学点目录已重载: size={}, counties={}", loaded.byId().size(), loaded.idsByCounty().size());
+                return loaded;
+            }
+            snapshot = null;
+            if (attempt >= MAX_LOAD_ATTEMPTS) {
+                log.debug("教学点目录加载期间持续发生失效，本次结果不保留");
+                return loaded;
+            }
+        }
+    }
+
+    private Snapshot query() {
+        List<TeachingPoint> teachingPoints = teachingPointMapper.selectList(new LambdaQueryWrapper<TeachingPoint>()
+                .ne(TeachingPoint::getStatus, StatusEnum.DELETED));
+
+        Map<Long, TeachingPointEntry> byId = new HashMap<>(teachingPoints.size() * 2);
+        Map<String, List<Long>> idsByCounty = new HashMap<>();
+        teachingPoints.stream()
+                .map(TeachingPointEntry::of)
+                .sorted(Comparator.comparing(TeachingPointEntry::name))
+                .forEach(entry -> {
+                    byId.put(entry.id(), entry);
+                    idsByCounty.computeIfAbsent(entry.countyCode(), code -> new ArrayList<>()).add(entry.id());
+                });
+        idsByCounty.replaceAll((code, ids) -> List.copyOf(ids));
+
+        return new Snapshot(versions.incrementAndGet(), Map.copyOf(byId), Map.copyOf(idsByCounty));
+    }
+
+    /**
+     * 失效快照（下次访问时全量重建）
+     */
+    public void invalidate() {
+        invalidate0();
+        TransactionUtils.afterCommit(this::invalidate0);
+    }
+
+    /**
+     * 先递增失效次数再置空，与 load 的“先安装再检查”配合，避免正在进行的加载重新装入旧数据
+     */
+    private void invalidate0() {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * 获取当前快照版本号（供依赖教学点列表的派生缓存判断是否过期）
+     *
+     * @return 版本号
+     */
+    public long version() {
+        return current().version();
+    }
+
+    /**
+     * 获取教学点条目
+     *
+     * @param id 教学点ID
+     * @return 教学点条目，不存在或已删除时返回null
+     */
+    public TeachingPointEntry get(Long id) {
+        return id != null ? current().byId().get(id) : null;
+    }
+
+    /**
+     * 获取启用状态的教学点，并校验其属于活动范围
+     *
+     * @param id 教学点ID
+     * @param scopeCountyCode 活动县域范围（为空表示全市）
+     * @return 教学点条目
+     */
+    public TeachingPointEntry requireEnabled(Long id, String scopeCountyCode) {
+        TeachingPointEntry entry = get(id);
+        if (entry == null || !entry.isEnabled()) {
+            throw new BusinessException(ResultCode.TEACHING_POINT_NOT_FOUND);
+        }
+        if (scopeCountyCode != null && !scopeCountyCode.equals(entry.countyCode())) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "教学点不在活动范围内");
+        }
+        return entry;
+    }
+
+    /**
+     * 批量解析教学点
+     * 目录中缺失的ID（已删除的历史教学点）通过一次 IN 查询补齐，结果不进入目录
+     *
+     * @param ids 教学点ID集合
+     * @return 教学点ID到条目的映射
+     */
+    public Map<Long, TeachingPointEntry> resolve(Collection<Long> ids) {
+        Map<Long, TeachingPointEntry> byId = current().byId();
+        Map<Long, TeachingPointEntry> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        ids.stream().filter(Objects::nonNull).distinct().forEach(id -> {
+            TeachingPointEntry entry = byId.get(id);
+            if (entry != null) {
+                result.put(id, entry);
+            } else {
+                missing.add(id);
+            }
+        });
+        if (!missing.isEmpty()) {
+            teachingPointMapper.selectByIds(missing)
+                    .forEach(teachingPoint -> result.put(teachingPoint.getId(), TeachingPointEntry.of(teachingPoint)));
+        }
+        return result;
+    }
+
+    /**
+     * 列出启用状态的教学点（按县域编码、名称排序）
+     *
+     * @param countyCode 县域编码，为空时列出全部县域
+     * @return 教学点条目列表
+     */
+    public List<TeachingPointEntry> listEnabled(String countyCode) {
+        Snapshot current = current();
+        Stream<List<Long>> groups = countyCode != null
+                ? Stream.of(current.idsByCounty().getOrDefault(countyCode, List.of()))
+                : current.idsByCounty().entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(Map.Entry::getValue);
+        return groups
+                .flatMap(List::stream)
+                .map(current.byId()::get)
+                .filter(TeachingPointEntry::isEnabled)
+                .collect(Collectors.toList());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /**
+     * 不可变快照
+     *
+     * @param version 版本号
+     * @param byId 教学点ID到条目
+     * @param idsByCounty 县域编码到教学点ID列表（按名称排序）
+     */
+    private record Snapshot(long version, Map<Long, TeachingPointEntry> byId, Map<String, List<Long>> idsByCounty) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.wechat.checkin.teachingpoint.directory;
+
+import com.wechat.checkin.common.enums.StatusEnum;
+import com.wechat.checkin.teachingpoint.entity.TeachingPoint;
+
+/**
+ * 教学点目录条目（不可变）
+ *
+ * @param id         教学点ID
+ * @param name       教学点名称
+ * @param countyCode 归属县域编码
+ * @param status     状态
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+public record TeachingPointEntry(long id, String name, String countyCode, StatusEnum status) {
+
+    public static TeachingPointEntry of(TeachingPoint teachingPoint) {
+        return new TeachingPointEntry(teachingPoint.getId(), teachingPoint.getName(),
+                teachingPoint.getCountyCode(), teachingPoint.getStatus());
+    }
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return StatusEnum.ENABLED.equals(status);
+    }
+}
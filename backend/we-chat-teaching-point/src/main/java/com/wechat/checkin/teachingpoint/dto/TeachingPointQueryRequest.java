@@ -43,5 +43,16 @@ public class TeachingPointQueryRequest {
     @Schema(description = "状态", example = "enabled", 
             allowableValues = {"enabled", "disabled", "deleted"})
     private String status;
-}
 
+    /**
+     * 游标（仅游标分页使用）
+     */
+    @Schema(description = "游标分页的游标，首批为空，之后传入上一批返回的nextCursor")
+    private String cursor;
+
+    /**
+     * 是否返回总记录数（仅游标分页使用）
+     */
+    @Schema(description = "游标分页是否返回总记录数（额外执行一次计数），默认false", example = "false")
+    private Boolean withTotal = false;
+}
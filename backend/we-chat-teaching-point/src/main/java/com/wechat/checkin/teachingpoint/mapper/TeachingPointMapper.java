@@ -54,14 +54,4 @@ public interface TeachingPointMapper extends BaseMapper<TeachingPoint> {
             "AND status != 'deleted'")
     int countByNameAndCounty(@Param("name") String name, 
                              @Param("countyCode") String countyCode);
-
-    /**
-     * 根据县域编码查询县域名称
-     * 
-     * @param countyCode 县域编码
-     * @return 县域名称，如果不存在返回null
-     */
-    @Select("SELECT name FROM counties WHERE code = #{countyCode} AND status = 'enabled'")
-    String getCountyNameByCode(@Param("countyCode") String countyCode);
 }
-
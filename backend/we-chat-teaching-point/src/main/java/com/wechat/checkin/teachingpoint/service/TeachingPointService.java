@@ -1,11 +1,15 @@
 package com.wechat.checkin.teachingpoint.service;
 
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.PageResult;
 import com.wechat.checkin.teachingpoint.dto.CreateTeachingPointRequest;
 import com.wechat.checkin.teachingpoint.dto.TeachingPointQueryRequest;
 import com.wechat.checkin.teachingpoint.dto.UpdateTeachingPointRequest;
+import com.wechat.checkin.teachingpoint.vo.TeachingPointOptionVO;
 import com.wechat.checkin.teachingpoint.vo.TeachingPointVO;
 
+import java.util.List;
+
 /**
  * 教学点服务接口
  * 
@@ -66,5 +70,21 @@ public interface TeachingPointService {
      * @return 分页结果
      */
     PageResult<TeachingPointVO> listTeachingPoints(TeachingPointQueryRequest request);
+
+    /**
+     * 游标分页查询教学点列表（按创建时间、ID倒序，不受翻页深度影响）
+     * 
+     * @param request 查询请求（使用 cursor、size、withTotal）
+     * @return 游标分页结果
+     */
+    CursorPage<TeachingPointVO> scrollTeachingPoints(TeachingPointQueryRequest request);
+
+    /**
+     * 查询参与端教学点选项（仅启用状态，读取内存目录）
+     *
+     * @param countyCode 县域编码，为空时返回全部县域
+     * @return 教学点选项列表
+     */
+    List<TeachingPointOptionVO> listTeachingPointOptions(String countyCode);
 }
 
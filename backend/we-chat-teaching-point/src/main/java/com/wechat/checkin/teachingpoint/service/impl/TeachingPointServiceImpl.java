@@ -7,14 +7,21 @@ import com.wechat.checkin.auth.security.UserPrincipal;
 import com.wechat.checkin.auth.util.SecurityContextHolder;
 import com.wechat.checkin.common.enums.StatusEnum;
 import com.wechat.checkin.common.exception.BusinessException;
+import com.wechat.checkin.common.response.CursorPage;
 import com.wechat.checkin.common.response.PageResult;
 import com.wechat.checkin.common.response.ResultCode;
+import com.wechat.checkin.common.util.KeysetPagination;
+import com.wechat.checkin.county.directory.CountyDirectory;
+import com.wechat.checkin.county.directory.CountyEntry;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointDirectory;
+import com.wechat.checkin.teachingpoint.directory.TeachingPointEntry;
 import com.wechat.checkin.teachingpoint.dto.CreateTeachingPointRequest;
 import com.wechat.checkin.teachingpoint.dto.TeachingPointQueryRequest;
 import com.wechat.checkin.teachingpoint.dto.UpdateTeachingPointRequest;
 import com.wechat.checkin.teachingpoint.entity.TeachingPoint;
 import com.wechat.checkin.teachingpoint.mapper.TeachingPointMapper;
 import com.wechat.checkin.teachingpoint.service.TeachingPointService;
+import com.wechat.checkin.teachingpoint.vo.TeachingPointOptionVO;
 import com.wechat.checkin.teachingpoint.vo.TeachingPointVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +42,8 @@ import java.util.List;
 public class TeachingPointServiceImpl implements TeachingPointService {
 
     private final TeachingPointMapper teachingPointMapper;
+    private final CountyDirectory countyDirectory;
+    private final TeachingPointDirectory teachingPointDirectory;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -71,6 +80,7 @@ public class TeachingPointServiceImpl implements TeachingPointService {
             log.error("创建教学点失败: name={}", request.getName());
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        teachingPointDirectory.invalidate();
 
         log.info("教学点创建成功: id={}, name={}", teachingPoint.getId(), teachingPoint.getName());
         return teachingPoint.getId();
@@ -131,6 +141,7 @@ public class TeachingPointServiceImpl implements TeachingPointService {
             log.error("更新教学点失败: id={}", id);
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        teachingPointDirectory.invalidate();
 
         log.info("教学点更新成功: id={}", id);
     }
@@ -157,6 +168,7 @@ public class TeachingPointServiceImpl implements TeachingPointService {
             log.error("删除教学点失败: id={}", id);
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        teachingPointDirectory.invalidate();
 
         log.info("教学点删除成功: id={}", id);
     }
@@ -201,6 +213,49 @@ public class TeachingPointServiceImpl implements TeachingPointService {
                 request.getCountyCode(), request.getStatus(), request.getName(),
                 request.getCurrent(), request.getSize());
 
+        // 构建查询条件
+        LambdaQueryWrapper<TeachingPoint> wrapper = buildQueryWrapper(request);
+
+        // 按创建时间倒序
+        wrapper.orderByDesc(TeachingPoint::getCreatedTime);
+
+        // 分页查询
+        Page<TeachingPoint> page = new Page<>(request.getCurrent(), request.getSize());
+        Page<TeachingPoint> resultPage = teachingPointMapper.selectPage(page, wrapper);
+
+        // 转换为VO
+        List<TeachingPointVO> voList = resultPage.getRecords().stream()
+                .map(this::convertToVO)
+                .toList();
+        
+        PageResult<TeachingPointVO> pageResult = PageResult.success(
+                resultPage.getCurrent(),
+                resultPage.getSize(),
+                resultPage.getTotal(),
+                voList
+        );
+
+        log.info("查询教学点列表成功: total={}", pageResult.getTotal());
+        return pageResult;
+    }
+
+    @Override
+    public CursorPage<TeachingPointVO> scrollTeachingPoints(TeachingPointQueryRequest request) {
+        log.info("游标查询教学点列表: countyCode={}, status={}, name={}, size={}", 
+                request.getCountyCode(), request.getStatus(), request.getName(), request.getSize());
+
+        // 按 (created_time, id) 倒序，县级过滤时走 idx_teaching_points_county_created
+        CursorPage<TeachingPoint> page = KeysetPagination.query(teachingPointMapper, buildQueryWrapper(request),
+                TeachingPoint::getCreatedTime, TeachingPoint::getId,
+                request.getCursor(), request.getSize() != null ? request.getSize().longValue() : null,
+                Boolean.TRUE.equals(request.getWithTotal()));
+        return page.map(this::convertToVO);
+    }
+
+    /**
+     * 构建教学点列表过滤条件（含县级权限过滤，不含排序）
+     */
+    private LambdaQueryWrapper<TeachingPoint> buildQueryWrapper(TeachingPointQueryRequest request) {
         // 获取当前用户信息
         UserPrincipal currentUser = SecurityContextHolder.getCurrentUser();
         String userCountyCode = currentUser.getCountyCode();
@@ -232,28 +287,15 @@ public class TeachingPointServiceImpl implements TeachingPointService {
             // 默认不显示已删除的
             wrapper.ne(TeachingPoint::getStatus, StatusEnum.DELETED);
         }
+        return wrapper;
+    }
 
-        // 按创建时间倒序
-        wrapper.orderByDesc(TeachingPoint::getCreatedTime);
-
-        // 分页查询
-        Page<TeachingPoint> page = new Page<>(request.getCurrent(), request.getSize());
-        Page<TeachingPoint> resultPage = teachingPointMapper.selectPage(page, wrapper);
-
-        // 转换为VO
-        List<TeachingPointVO> voList = resultPage.getRecords().stream()
-                .map(this::convertToVO)
+    @Override
+    public List<TeachingPointOptionVO> listTeachingPointOptions(String countyCode) {
+        // 直接读取内存目录，不访问数据库
+        return teachingPointDirectory.listEnabled(StrUtil.emptyToNull(countyCode)).stream()
+                .map(this::convertToOptionVO)
                 .toList();
-        
-        PageResult<TeachingPointVO> pageResult = PageResult.success(
-                resultPage.getCurrent(),
-                resultPage.getSize(),
-                resultPage.getTotal(),
-                voList
-        );
-
-        log.info("查询教学点列表成功: total={}", pageResult.getTotal());
-        return pageResult;
     }
 
     /**
@@ -280,6 +322,7 @@ public class TeachingPointServiceImpl implements TeachingPointService {
             log.error("更新教学点状态失败: id={}, status={}", id, status);
             throw new BusinessException(ResultCode.OPERATION_FAILED);
         }
+        teachingPointDirectory.invalidate();
     }
 
     /**
@@ -321,10 +364,10 @@ public class TeachingPointServiceImpl implements TeachingPointService {
         vo.setName(teachingPoint.getName());
         vo.setCountyCode(teachingPoint.getCountyCode());
         
-        // 查询县域名称
+        // 县域名称取自县域目录
         if (StrUtil.isNotBlank(teachingPoint.getCountyCode())) {
-            String countyName = teachingPointMapper.getCountyNameByCode(teachingPoint.getCountyCode());
-            vo.setCountyName(countyName != null ? countyName : "未知县域");
+            CountyEntry county = countyDirectory.get(teachingPoint.getCountyCode());
+            vo.setCountyName(county != null && county.isEnabled() ? county.name() : "未知县域");
         } else {
             vo.setCountyName(null);
         }
@@ -338,5 +381,8 @@ public class TeachingPointServiceImpl implements TeachingPointService {
 
         return vo;
     }
-}
 
+    private TeachingPointOptionVO convertToOptionVO(TeachingPointEntry entry) {
+        return new TeachingPointOptionVO(entry.id(), entry.name(), entry.countyCode());
+    }
+}
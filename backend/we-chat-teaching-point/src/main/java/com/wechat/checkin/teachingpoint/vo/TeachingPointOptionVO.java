@@ -0,0 +1,41 @@
+package com.wechat.checkin.teachingpoint.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 教学点选项VO（参与端教学点选择列表）
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "教学点选项")
+public class TeachingPointOptionVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 教学点ID
+     */
+    @Schema(description = "教学点ID", example = "1")
+    private Long id;
+
+    /**
+     * 教学点名称
+     */
+    @Schema(description = "教学点名称", example = "第一小学教学点")
+    private String name;
+
+    /**
+     * 归属县域编码
+     */
+    @Schema(description = "归属县域编码", example = "PX")
+    private String countyCode;
+}
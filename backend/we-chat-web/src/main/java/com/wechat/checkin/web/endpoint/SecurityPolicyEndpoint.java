@@ -0,0 +1,45 @@
+package com.wechat.checkin.web.endpoint;
+
+import com.wechat.checkin.auth.security.HandlerSecurityPolicy;
+import com.wechat.checkin.auth.security.HandlerSecurityPolicyRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 处理器安全策略端点
+ * 暴露启动时编译的处理器安全策略表，便于核对各接口的角色、接口权限及数据权限配置
+ *
+ * 访问方式：
+ * - /actuator/securitypolicies：全部策略
+ * - /actuator/securitypolicies/{handler}：指定处理器（类名#方法名，#需编码为%23）的策略
+ *
+ * 默认不通过HTTP暴露：/actuator/** 不经过鉴权拦截器，策略表会泄露全部管理接口的权限配置，
+ * 仅在内网排查时加入 management.endpoints.web.exposure.include
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Component
+@Endpoint(id = "securitypolicies")
+@RequiredArgsConstructor
+public class SecurityPolicyEndpoint {
+
+    private final HandlerSecurityPolicyRegistry policyRegistry;
+
+    @ReadOperation
+    public List<HandlerSecurityPolicy> policies() {
+        return policyRegistry.policies();
+    }
+
+    @ReadOperation
+    public List<HandlerSecurityPolicy> policy(@Selector String handler) {
+        return policyRegistry.policies().stream()
+                .filter(policy -> policy.handler().equals(handler))
+                .toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.wechat.checkin.web.job;
+
+import com.wechat.checkin.auth.security.JwtTokenProvider;
+import com.wechat.checkin.qrcode.service.QrCodeService;
+import com.wechat.checkin.qrcode.util.QrCodeTokenProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+
+/**
+ * 签名密钥重载任务
+ * 定期检查密钥文件，文件变化后发布或启用对应的签名密钥
+ *
+ * 密钥文件（properties格式，未配置路径时不启用）：
+ * - jwt.key-file：访问令牌、刷新令牌的签名密钥
+ * - qrcode.key-file：二维码令牌的签名密钥
+ * - key-id、secret：用于签发的密钥（secret至少64字节，HS512）
+ * - next-key-id、next-secret（可选）：下一个密钥，仅用于验签
+ *
+ * 两阶段轮换（各节点独立读取本机文件，切换时间不同，不能直接替换签名密钥）：
+ * 1. 在所有节点的文件中加入 next-key-id、next-secret，各节点在下一次检查时发布该密钥（仅验签）
+ * 2. 至少等待一个检查间隔加文件分发耗时，确认所有节点已发布后，
+ *    再将其改为 key-id、secret（同时去掉 next-*），各节点在下一次检查时启用签发
+ * 第2步时所有节点都已能验证新密钥，先切换的节点签发的令牌在其他节点也能通过验签；
+ * 旧密钥退役后仍在重叠窗口内验签，其他节点签发的旧密钥令牌同样有效
+ *
+ * 旧密钥保留期限：
+ * - 至少为重叠窗口（不短于令牌最长有效期）
+ * - 二维码旧密钥每次检查时按其签发的启用二维码的最晚过期时间延长
+ *
+ * @author WeChat Check-in System
+ * @since 1.4.0
+ */
+@Slf4j
+@Component
+public class SigningKeyReloadJob {
+
+    /**
+     * HS512 要求的最小密钥长度（字节）
+     */
+    private static final int MIN_SECRET_BYTES = 64;
+
+    private final QrCodeService qrCodeService;
+    private final KeyFile jwtKeyFile;
+    private final KeyFile qrcodeKeyFile;
+
+    public SigningKeyReloadJob(JwtTokenProvider jwtTokenProvider,
+                               QrCodeTokenProvider qrCodeTokenProvider,
+                               QrCodeService qrCodeService,
+                               @Value("${jwt.key-file:}") String jwtKeyFile,
+                               @Value("${qrcode.key-file:}") String qrcodeKeyFile) {
+        this.qrCodeService = qrCodeService;
+        this.jwtKeyFile = new KeyFile("jwt", jwtKeyFile,
+                jwtTokenProvider::rotateSigningKey, jwtTokenProvider::publishNextSigningKey);
+        this.qrcodeKeyFile = new KeyFile("qrcode", qrcodeKeyFile,
+                qrCodeTokenProvider::rotateSigningKey, qrCodeTokenProvider::publishNextSigningKey);
+    }
+
+    @Scheduled(fixedDelayString = "${signing-key.reload-interval:PT1M}")
+    public void reload() {
+        jwtKeyFile.reloadIfChanged();
+        qrcodeKeyFile.reloadIfChanged();
+        try {
+            qrCodeService.retainRetiredSigningKeys();
+        } catch (RuntimeException e) {
+            log.error("[qrcode] 旧密钥保留期限计算失败", e);
+        }
+    }
+
+    /**
+     * 单个密钥文件的检查状态
+     */
+    private static final class KeyFile {
+
+        private final String name;
+        private final Path path;
+        private final BiConsumer<String, String> rotation;
+        private final BiConsumer<String, String> publication;
+
+        /**
+         * 上次处理时的文件修改时间（文件未变化时跳过读取）
+         */
+        private FileTime lastModified;
+
+        KeyFile(String name, String location,
+                BiConsumer<String, String> rotation, BiConsumer<String, String> publication) {
+            this.name = name;
+            this.path = StringUtils.hasText(location) ? Path.of(location.trim()) : null;
+            this.rotation = rotation;
+            this.publication = publication;
+            if (path != null) {
+                log.info("[{}] 签名密钥文件已配置: {}", name, path);
+            }
+        }
+
+        void reloadIfChanged() {
+            if (path == null || !Files.isRegularFile(path)) {
+                return;
+            }
+            try {
+                FileTime modified = Files.getLastModifiedTime(path);
+                if (modified.equals(lastModified)) {
+                    return;
+                }
+                lastModified = modified;
+
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                String keyId = properties.getProperty("key-id", "").trim();
+                String secret = properties.getProperty("secret", "").trim();
+                String nextKeyId = properties.getProperty("next-key-id", "").trim();
+                String nextSecret = properties.getProperty("next-secret", "").trim();
+                if (!valid(keyId, secret) || (!nextKeyId.isEmpty() && !valid(nextKeyId, nextSecret))) {
+                    log.error("[{}] 签名密钥文件无效（密钥ID为空或密钥不足{}字节），忽略: {}",
+                            name, MIN_SECRET_BYTES, path);
+                    return;
+                }
+
+                // 先启用签发密钥（通常是上一阶段已发布的密钥），再发布下一个密钥
+                rotation.accept(keyId, secret);
+                publication.accept(nextKeyId.isEmpty() ? null : nextKeyId, nextSecret);
+            } catch (IOException | RuntimeException e) {
+                log.error("[{}] 签名密钥文件加载失败: {}", name, path, e);
+            }
+        }
+
+        private static boolean valid(String keyId, String secret) {
+            return !keyId.isEmpty() && secret.getBytes(StandardCharsets.UTF_8).length >= MIN_SECRET_BYTES;
+        }
+    }
+}
@@ -45,6 +45,7 @@ CREATE TABLE `teaching_points` (
   PRIMARY KEY (`id`),
   INDEX `idx_teaching_points_county_status` (`county_code`, `status`),
   INDEX `idx_teaching_points_name` (`name`),
+  INDEX `idx_teaching_points_county_created` (`county_code`, `created_time`) COMMENT '游标分页：按县域过滤后按 (created_time, id) 倒序',
   CONSTRAINT `fk_teaching_points_county_code` FOREIGN KEY (`county_code`) REFERENCES `counties` (`code`) ON DELETE RESTRICT ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='教学点表';
 
@@ -63,7 +64,9 @@ CREATE TABLE `activities` (
   `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   INDEX `idx_activities_status_time` (`status`, `start_time`, `end_time`),
+  INDEX `idx_activities_status_end_time` (`status`, `end_time`) COMMENT '自动结束：按结束时间顺序扫描已过期的进行中活动',
   INDEX `idx_activities_scope_county` (`scope_county_code`),
+  INDEX `idx_activities_created_time` (`created_time`) COMMENT '游标分页：按 (created_time, id) 倒序',
   CONSTRAINT `fk_activities_scope_county_code` FOREIGN KEY (`scope_county_code`) REFERENCES `counties` (`code`) ON DELETE RESTRICT ON UPDATE CASCADE,
   CONSTRAINT `fk_activities_created_id` FOREIGN KEY (`created_id`) REFERENCES `admins` (`id`) ON DELETE RESTRICT ON UPDATE CASCADE -- 修复外键字段名
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='活动表';
@@ -74,6 +77,7 @@ CREATE TABLE `qrcodes` (
   `activity_id` BIGINT NOT NULL COMMENT '关联活动',
   `type` ENUM('checkin', 'evaluation') NOT NULL COMMENT '类型：打卡/评价',
   `token` VARCHAR(512) NOT NULL COMMENT '二维码令牌（含签名信息，JWT token通常较长）',
+  `key_id` VARCHAR(64) NULL COMMENT '签名密钥ID（为空表示由初始密钥签发）',
   `expire_time` DATETIME NULL COMMENT '过期时间',
   `disabled_time` DATETIME NULL COMMENT '禁用时间',
   `status` ENUM('enabled', 'disabled', 'deleted') NOT NULL DEFAULT 'enabled' COMMENT '状态：启用/禁用/软删除',
@@ -83,6 +87,8 @@ CREATE TABLE `qrcodes` (
   UNIQUE KEY `uk_qrcodes_token` (`token`),
   INDEX `idx_qrcodes_activity_type_status` (`activity_id`, `type`, `status`),
   INDEX `idx_qrcodes_expire_time` (`expire_time`), -- 修复索引字段名（at→time）
+  INDEX `idx_qrcodes_created_time` (`created_time`) COMMENT '游标分页：按 (created_time, id) 倒序',
+  INDEX `idx_qrcodes_key_status_expire` (`key_id`, `status`, `expire_time`) COMMENT '密钥轮换：按签名密钥查询启用二维码的最晚过期时间',
   CONSTRAINT `fk_qrcodes_activity_id` FOREIGN KEY (`activity_id`) REFERENCES `activities` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='二维码表';
 
@@ -97,6 +103,8 @@ CREATE TABLE `checkins` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_checkins_activity_teaching_point` (`activity_id`, `teaching_point_id`) COMMENT '幂等约束：同一活动同一教学点只能有一次打卡记录',
   INDEX `idx_checkins_activity_submitted_time` (`activity_id`, `submitted_time`),
+  INDEX `idx_checkins_submitted_time` (`submitted_time`) COMMENT '游标分页：未指定活动时按 (submitted_time, id) 倒序',
+  INDEX `idx_checkins_activity_tp_attendee` (`activity_id`, `teaching_point_id`, `attendee_count`) COMMENT '覆盖索引：打卡统计聚合无需回表',
   INDEX `idx_checkins_teaching_point` (`teaching_point_id`),
   INDEX `idx_checkins_source_qrcode` (`source_qrcode_id`),
   CONSTRAINT `fk_checkins_activity_id` FOREIGN KEY (`activity_id`) REFERENCES `activities` (`id`) ON DELETE CASCADE ON UPDATE CASCADE,
@@ -118,6 +126,7 @@ CREATE TABLE `evaluations` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_evaluations_activity_teaching_point` (`activity_id`, `teaching_point_id`) COMMENT '防重复评价：同一活动同一教学点只能评价一次',
   INDEX `idx_evaluations_activity_submitted_time` (`activity_id`, `submitted_time`),
+  INDEX `idx_evaluations_submitted_time` (`submitted_time`) COMMENT '游标分页：未指定活动时按 (submitted_time, id) 倒序',
   INDEX `idx_evaluations_teaching_point` (`teaching_point_id`),
   INDEX `idx_evaluations_source_qrcode` (`source_qrcode_id`),
   CONSTRAINT `fk_evaluations_activity_id` FOREIGN KEY (`activity_id`) REFERENCES `activities` (`id`) ON DELETE CASCADE ON UPDATE CASCADE,
@@ -145,6 +154,35 @@ CREATE TABLE `audit_logs` (
   CONSTRAINT `fk_audit_logs_actor_admin_id` FOREIGN KEY (`actor_admin_id`) REFERENCES `admins` (`id`) ON DELETE RESTRICT ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审计日志表';
 
+-- 9. 活动统计汇总表
+CREATE TABLE `activity_stats` (
+  `activity_id` BIGINT NOT NULL COMMENT '活动ID',
+  `county_code` VARCHAR(16) NOT NULL DEFAULT '' COMMENT '县域编码（空串表示活动汇总行）',
+  `participated_count` INT NOT NULL DEFAULT 0 COMMENT '参与教学点数（打卡数）',
+  `total_attendees` INT NOT NULL DEFAULT 0 COMMENT '累计参与人数',
+  `evaluation_count` INT NOT NULL DEFAULT 0 COMMENT '评价数',
+  `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`activity_id`, `county_code`),
+  CONSTRAINT `fk_activity_stats_activity_id` FOREIGN KEY (`activity_id`) REFERENCES `activities` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='活动统计汇总表（随打卡、评价写入在同一事务中增量维护）';
+
+-- 10. ID序列表（号段分配，当前用于二维码ID预分配）
+CREATE TABLE `id_sequences` (
+  `name` VARCHAR(64) NOT NULL COMMENT '序列名称（通常为表名）',
+  `next_id` BIGINT NOT NULL COMMENT '下一个可分配的ID',
+  `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='ID序列表（应用按号段取号）';
+
+-- 11. 定时任务租约表
+CREATE TABLE `job_leases` (
+  `name` VARCHAR(64) NOT NULL COMMENT '任务名称',
+  `owner` VARCHAR(128) NOT NULL COMMENT '租约持有者（节点标识）',
+  `lease_until` DATETIME NOT NULL COMMENT '租约到期时间',
+  `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='定时任务租约表（多节点部署时保证任务单节点执行）';
+
 -- 恢复外键检查
 SET FOREIGN_KEY_CHECKS = 1;
 
@@ -0,0 +1,33 @@
+-- ============================================================================
+-- 微信打卡系统 - 打卡写入压测数据脚本
+-- ============================================================================
+-- 功能: 为 test/checkin_ingest_loadtest.py 准备压测教学点
+-- 说明:
+--   1. 每个教学点在同一活动中只能打卡一次，压测请求数不能超过教学点数
+--   2. 压测脚本每次运行都会新建活动，教学点可在多次运行间复用
+--   3. 教学点目录在应用启动时加载，须在启动应用前执行本脚本
+-- 依赖: MySQL 8.0+（递归CTE），县域 001 已存在
+-- ============================================================================
+
+SET NAMES utf8mb4;
+
+-- 压测教学点数量
+SET @load_points := 5000;
+SET SESSION cte_max_recursion_depth = 100000;
+
+INSERT INTO `teaching_points` (`name`, `county_code`, `status`, `created_time`, `updated_time`)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < @load_points
+)
+SELECT CONCAT('压测教学点-', LPAD(seq.n, 5, '0')), '001', 'enabled', NOW(), NOW()
+FROM seq
+WHERE NOT EXISTS (
+    SELECT 1 FROM `teaching_points` tp WHERE tp.name = CONCAT('压测教学点-', LPAD(seq.n, 5, '0'))
+);
+
+-- 验证
+SELECT COUNT(*) AS load_teaching_points
+FROM `teaching_points`
+WHERE `name` LIKE '压测教学点-%' AND `status` = 'enabled';
@@ -0,0 +1,96 @@
+-- ============================================================================
+-- 微信打卡系统 - 统计查询执行计划对比脚本
+-- ============================================================================
+-- 功能: 对比统计查询（打卡统计、评价统计）改造前后的执行计划与实际耗时
+-- 说明:
+--   1. 先运行 test/statistics_query_bench.py 写入统计数据，将其输出的 activityId 填入 @activity_id
+--   2. 每组先给出改造前的查询，再给出改造后的查询；
+--      IGNORE INDEX 模拟未执行 upgrade_1.4.0.sql 的库（只有唯一约束 uk_checkins_activity_teaching_point）
+--   3. EXPLAIN 的 Extra 列出现 "Using index" 表示覆盖索引、无需回表；
+--      EXPLAIN ANALYZE 的 actual time 为实际执行耗时（毫秒）
+-- 依赖: MySQL 8.0.18+（EXPLAIN ANALYZE）
+-- ============================================================================
+
+SET NAMES utf8mb4;
+
+-- 被测活动
+SET @activity_id := 0;
+
+-- ============================================================================
+-- 第1部分: 打卡统计（CheckinServiceImpl.getCheckinStatistics）
+-- ============================================================================
+
+-- 改造前: 2次 COUNT + 分页 COUNT，再加载活动全部打卡记录在Java中求和
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM `checkins` WHERE `activity_id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT `id`, `activity_id`, `teaching_point_id`, `attendee_count`, `submitted_time`, `source_qrcode_id`
+FROM `checkins` WHERE `activity_id` = @activity_id;
+
+-- 改造后、无覆盖索引: 按唯一约束定位后逐行回表读取 attendee_count
+EXPLAIN
+SELECT COUNT(*), COALESCE(SUM(`attendee_count`), 0)
+FROM `checkins` IGNORE INDEX (`idx_checkins_activity_tp_attendee`)
+WHERE `activity_id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*), COALESCE(SUM(`attendee_count`), 0)
+FROM `checkins` IGNORE INDEX (`idx_checkins_activity_tp_attendee`)
+WHERE `activity_id` = @activity_id;
+
+-- 改造后: 覆盖索引 idx_checkins_activity_tp_attendee（Extra 应为 Using index）
+EXPLAIN
+SELECT COUNT(*), COALESCE(SUM(`attendee_count`), 0)
+FROM `checkins`
+WHERE `activity_id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*), COALESCE(SUM(`attendee_count`), 0)
+FROM `checkins`
+WHERE `activity_id` = @activity_id;
+
+-- ============================================================================
+-- 第2部分: 评价统计（EvaluationServiceImpl.queryEvaluationStatistics）
+-- ============================================================================
+
+-- 改造前: 9次查询（活动查询 + 以下8次；除总数外每次都按 activity_id 定位后回表读取评分列）
+EXPLAIN ANALYZE
+SELECT * FROM `activities` WHERE `id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM `evaluations` WHERE `activity_id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT AVG(CAST(`q1_satisfaction` AS DECIMAL(3,2))) FROM `evaluations` WHERE `activity_id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT AVG(CAST(`q2_practicality` AS DECIMAL(3,2))) FROM `evaluations` WHERE `activity_id` = @activity_id;
+
+EXPLAIN ANALYZE
+SELECT AVG(CAST(`q3_quality` AS DECIMAL(3,2))) FROM `evaluations` WHERE `activity_id` = @activity_id AND `q3_quality` IS NOT NULL;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM `evaluations` WHERE `activity_id` = @activity_id AND `q1_satisfaction` = 3;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM `evaluations` WHERE `activity_id` = @activity_id AND `q1_satisfaction` = 2;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM `evaluations` WHERE `activity_id` = @activity_id AND `q1_satisfaction` = 1;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM `evaluations` WHERE `activity_id` = @activity_id AND `suggestion_text` IS NOT NULL AND `suggestion_text` != '';
+
+-- 改造后: 单次条件聚合（活动查询由活动快照缓存提供），只扫描一遍该活动的评价
+EXPLAIN ANALYZE
+SELECT COUNT(*),
+       COALESCE(AVG(CAST(`q1_satisfaction` AS DECIMAL(3,2))), 0),
+       COALESCE(AVG(CAST(`q2_practicality` AS DECIMAL(3,2))), 0),
+       COALESCE(AVG(CAST(`q3_quality` AS DECIMAL(3,2))), 0),
+       COALESCE(SUM(`q1_satisfaction` = 1), 0), COALESCE(SUM(`q1_satisfaction` = 2), 0), COALESCE(SUM(`q1_satisfaction` = 3), 0),
+       COALESCE(SUM(`q2_practicality` = 1), 0), COALESCE(SUM(`q2_practicality` = 2), 0), COALESCE(SUM(`q2_practicality` = 3), 0),
+       COALESCE(SUM(`q3_quality` = 1), 0), COALESCE(SUM(`q3_quality` = 2), 0), COALESCE(SUM(`q3_quality` = 3), 0),
+       COALESCE(SUM(`suggestion_text` IS NOT NULL AND `suggestion_text` != ''), 0)
+FROM `evaluations`
+WHERE `activity_id` = @activity_id;
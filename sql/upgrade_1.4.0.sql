@@ -0,0 +1,84 @@
+-- 微信打卡系统 1.4.0 升级脚本
+-- 适用于已按旧版 create_tables.sql 建表的数据库，新建库无需执行
+-- 数据库引擎：MySQL InnoDB
+
+SET NAMES utf8mb4;
+
+-- 打卡统计覆盖索引（getCheckinStatistics 聚合查询无需回表）
+ALTER TABLE `checkins`
+  ADD INDEX `idx_checkins_activity_tp_attendee` (`activity_id`, `teaching_point_id`, `attendee_count`) COMMENT '覆盖索引：打卡统计聚合无需回表';
+
+-- 活动统计汇总表
+CREATE TABLE `activity_stats` (
+  `activity_id` BIGINT NOT NULL COMMENT '活动ID',
+  `county_code` VARCHAR(16) NOT NULL DEFAULT '' COMMENT '县域编码（空串表示活动汇总行）',
+  `participated_count` INT NOT NULL DEFAULT 0 COMMENT '参与教学点数（打卡数）',
+  `total_attendees` INT NOT NULL DEFAULT 0 COMMENT '累计参与人数',
+  `evaluation_count` INT NOT NULL DEFAULT 0 COMMENT '评价数',
+  `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`activity_id`, `county_code`),
+  CONSTRAINT `fk_activity_stats_activity_id` FOREIGN KEY (`activity_id`) REFERENCES `activities` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='活动统计汇总表（随打卡、评价写入在同一事务中增量维护）';
+
+-- 根据已有打卡、评价回填汇总数据
+INSERT INTO `activity_stats` (`activity_id`, `county_code`, `participated_count`, `total_attendees`, `evaluation_count`)
+SELECT a.id, '',
+       (SELECT COUNT(*) FROM `checkins` c WHERE c.activity_id = a.id),
+       (SELECT COALESCE(SUM(c.attendee_count), 0) FROM `checkins` c WHERE c.activity_id = a.id),
+       (SELECT COUNT(*) FROM `evaluations` e WHERE e.activity_id = a.id)
+FROM `activities` a;
+
+INSERT INTO `activity_stats` (`activity_id`, `county_code`, `participated_count`, `total_attendees`, `evaluation_count`)
+SELECT x.activity_id, x.county_code, SUM(x.p), SUM(x.t), SUM(x.e)
+FROM (
+  SELECT c.activity_id, tp.county_code, 1 AS p, c.attendee_count AS t, 0 AS e
+  FROM `checkins` c JOIN `teaching_points` tp ON c.teaching_point_id = tp.id
+  UNION ALL
+  SELECT ev.activity_id, tp.county_code, 0, 0, 1
+  FROM `evaluations` ev JOIN `teaching_points` tp ON ev.teaching_point_id = tp.id
+) x
+GROUP BY x.activity_id, x.county_code;
+
+-- ID序列表（二维码ID预分配，令牌携带最终ID一次写入）
+CREATE TABLE `id_sequences` (
+  `name` VARCHAR(64) NOT NULL COMMENT '序列名称（通常为表名）',
+  `next_id` BIGINT NOT NULL COMMENT '下一个可分配的ID',
+  `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='ID序列表（应用按号段取号）';
+
+-- 以现有最大二维码ID初始化序列（应用首次取号时也会自动初始化）
+INSERT IGNORE INTO `id_sequences` (`name`, `next_id`)
+SELECT 'qrcodes', COALESCE(MAX(id), 0) + 1 FROM `qrcodes`;
+
+-- 定时任务租约表（活动自动结束、过期二维码清理的多节点互斥）
+CREATE TABLE `job_leases` (
+  `name` VARCHAR(64) NOT NULL COMMENT '任务名称',
+  `owner` VARCHAR(128) NOT NULL COMMENT '租约持有者（节点标识）',
+  `lease_until` DATETIME NOT NULL COMMENT '租约到期时间',
+  `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='定时任务租约表（多节点部署时保证任务单节点执行）';
+
+-- 游标（键集）分页索引（InnoDB二级索引隐含主键，可按 (时间列, id) 有序读取）
+-- 指定活动的打卡、评价查询沿用 idx_checkins_activity_submitted_time、idx_evaluations_activity_submitted_time
+ALTER TABLE `checkins`
+  ADD INDEX `idx_checkins_submitted_time` (`submitted_time`) COMMENT '游标分页：未指定活动时按 (submitted_time, id) 倒序';
+ALTER TABLE `evaluations`
+  ADD INDEX `idx_evaluations_submitted_time` (`submitted_time`) COMMENT '游标分页：未指定活动时按 (submitted_time, id) 倒序';
+ALTER TABLE `qrcodes`
+  ADD INDEX `idx_qrcodes_created_time` (`created_time`) COMMENT '游标分页：按 (created_time, id) 倒序';
+ALTER TABLE `activities`
+  ADD INDEX `idx_activities_created_time` (`created_time`) COMMENT '游标分页：按 (created_time, id) 倒序';
+ALTER TABLE `teaching_points`
+  ADD INDEX `idx_teaching_points_county_created` (`county_code`, `created_time`) COMMENT '游标分页：按县域过滤后按 (created_time, id) 倒序';
+
+-- 二维码签名密钥ID（密钥轮换后，旧密钥保留到其签发的启用二维码全部过期为止）
+-- 已有二维码保持为空，视为由初始密钥（qrcode.key-id）签发
+ALTER TABLE `qrcodes`
+  ADD COLUMN `key_id` VARCHAR(64) NULL COMMENT '签名密钥ID（为空表示由初始密钥签发）' AFTER `token`,
+  ADD INDEX `idx_qrcodes_key_status_expire` (`key_id`, `status`, `expire_time`) COMMENT '密钥轮换：按签名密钥查询启用二维码的最晚过期时间';
+
+-- 活动自动结束索引（idx_activities_status_time 的 start_time 在前，按 end_time 排序须文件排序）
+ALTER TABLE `activities`
+  ADD INDEX `idx_activities_status_end_time` (`status`, `end_time`) COMMENT '自动结束：按结束时间顺序扫描已过期的进行中活动';
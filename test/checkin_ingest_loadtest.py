@@ -0,0 +1,198 @@
+#!/usr/bin/env python3
+# -*- coding: utf-8 -*-
+"""
+打卡写入压测脚本（同步写入 vs 批量写入）
+
+对同一应用分别以 checkin.ingest.mode=sync（默认）和 checkin.ingest.mode=batch 启动后各运行一次，
+比较提交打卡的延迟分位数与 Hikari 连接池饱和度。
+
+每次运行：
+  1. 以管理员登录，新建一个进行中的市级活动并取得打卡二维码令牌
+  2. 读取压测教学点（sql/test_checkin_load_data.sql 生成，名称以"压测教学点-"开头）
+  3. 以指定并发为每个教学点提交一次打卡，记录每次请求的延迟和结果
+  4. 压测期间每100毫秒采样 /actuator/metrics 的 hikaricp.connections.active / pending
+     以及批量模式的 checkin.ingest.queue.size
+
+仅依赖 Python 3.8+ 标准库。
+
+示例：
+  python3 test/checkin_ingest_loadtest.py --label sync  --requests 2000 --concurrency 200
+  python3 test/checkin_ingest_loadtest.py --label batch --requests 2000 --concurrency 200
+"""
+
+import argparse
+import json
+import statistics
+import threading
+import time
+import urllib.error
+import urllib.parse
+import urllib.request
+from concurrent.futures import ThreadPoolExecutor
+from datetime import datetime, timedelta
+
+LOAD_POINT_PREFIX = "压测教学点-"
+
+
+def call(base_url, method, path, body=None, token=None, timeout=30):
+    """发送请求，返回 (HTTP状态码, 响应JSON)"""
+    data = json.dumps(body).encode("utf-8") if body is not None else None
+    request = urllib.request.Request(base_url + path, data=data, method=method)
+    request.add_header("Content-Type", "application/json")
+    if token:
+        request.add_header("Authorization", "Bearer " + token)
+    try:
+        with urllib.request.urlopen(request, timeout=timeout) as response:
+            return response.status, json.loads(response.read() or b"null")
+    except urllib.error.HTTPError as e:
+        payload = e.read()
+        try:
+            return e.code, json.loads(payload)
+        except ValueError:
+            return e.code, None
+
+
+def require_success(status, payload, action):
+    if status != 200 or not payload or payload.get("code") != 200:
+        raise SystemExit("%s失败: HTTP %s %s" % (action, status, payload))
+    return payload.get("data")
+
+
+def prepare(args):
+    """登录、建活动、取打卡令牌和压测教学点"""
+    login = require_success(*call(args.base_url, "POST", "/api/auth/login",
+                                  {"username": args.username, "password": args.password}), "登录")
+    access_token = login["accessToken"]
+
+    now = datetime.now()
+    activity_id = require_success(*call(args.base_url, "POST", "/api/activities", {
+        "name": "打卡写入压测-%s-%s" % (args.label, now.strftime("%Y%m%d%H%M%S")),
+        "description": "checkin_ingest_loadtest.py 自动创建",
+        "startTime": (now - timedelta(minutes=1)).strftime("%Y-%m-%dT%H:%M:%S"),
+        "endTime": (now + timedelta(days=1)).strftime("%Y-%m-%dT%H:%M:%S"),
+    }, token=access_token), "创建活动")
+
+    detail = require_success(*call(args.base_url, "GET", "/api/activities/%s" % activity_id,
+                                   token=access_token), "查询活动详情")
+    checkin_tokens = [qr["token"] for qr in detail.get("qrCodes") or [] if qr.get("type") == "checkin"]
+    if not checkin_tokens:
+        raise SystemExit("活动 %s 没有打卡二维码" % activity_id)
+
+    options = require_success(*call(args.base_url, "GET", "/api/teaching-points/options?countyCode=%s"
+                                    % urllib.parse.quote(args.county_code)), "查询教学点")
+    point_ids = [option["id"] for option in options if option["name"].startswith(LOAD_POINT_PREFIX)]
+    if len(point_ids) < args.requests:
+        raise SystemExit("压测教学点不足: 需要 %d 个，现有 %d 个（先执行 sql/test_checkin_load_data.sql 并重启应用）"
+                         % (args.requests, len(point_ids)))
+    return activity_id, checkin_tokens[0], point_ids[:args.requests]
+
+
+class MetricsSampler(threading.Thread):
+    """压测期间采样连接池与批量队列指标"""
+
+    METRICS = ("hikaricp.connections.active", "hikaricp.connections.pending", "checkin.ingest.queue.size")
+
+    def __init__(self, base_url, interval):
+        super().__init__(daemon=True)
+        self.base_url = base_url
+        self.interval = interval
+        self.samples = {name: [] for name in self.METRICS}
+        self.stopped = threading.Event()
+
+    def run(self):
+        while not self.stopped.is_set():
+            for name in self.METRICS:
+                status, payload = call(self.base_url, "GET", "/actuator/metrics/" + name, timeout=5)
+                if status == 200 and payload:
+                    values = [m["value"] for m in payload.get("measurements", []) if m.get("statistic") == "VALUE"]
+                    if values:
+                        self.samples[name].append(values[0])
+            self.stopped.wait(self.interval)
+
+    def stop(self):
+        self.stopped.set()
+        self.join()
+
+
+def submit(base_url, qr_token, point_id, attendee_count):
+    started = time.perf_counter()
+    status, payload = call(base_url, "POST", "/api/checkins/checkin", {
+        "token": qr_token,
+        "teachingPointId": point_id,
+        "attendeeCount": attendee_count,
+    })
+    elapsed_ms = (time.perf_counter() - started) * 1000
+    code = payload.get("code") if isinstance(payload, dict) else None
+    return elapsed_ms, status, code
+
+
+def percentile(sorted_values, p):
+    if not sorted_values:
+        return 0.0
+    index = min(len(sorted_values) - 1, max(0, int(round(p / 100.0 * len(sorted_values) + 0.5)) - 1))
+    return sorted_values[index]
+
+
+def main():
+    parser = argparse.ArgumentParser(description="打卡写入压测（同步写入 vs 批量写入）")
+    parser.add_argument("--base-url", default="http://localhost:8080")
+    parser.add_argument("--username", default="admin")
+    parser.add_argument("--password", default="admin123")
+    parser.add_argument("--county-code", default="001", help="压测教学点所属县域")
+    parser.add_argument("--label", default="sync", help="结果标签，通常为应用当前的 checkin.ingest.mode")
+    parser.add_argument("--requests", type=int, default=2000, help="打卡请求数（每个教学点一次）")
+    parser.add_argument("--concurrency", type=int, default=200, help="并发数")
+    parser.add_argument("--sample-interval", type=float, default=0.1, help="指标采样间隔（秒）")
+    parser.add_argument("--output", help="将结果追加写入JSON Lines文件，便于对比多次运行")
+    args = parser.parse_args()
+
+    activity_id, qr_token, point_ids = prepare(args)
+    print("活动 %s 已创建，开始压测: label=%s, requests=%d, concurrency=%d"
+          % (activity_id, args.label, len(point_ids), args.concurrency))
+
+    sampler = MetricsSampler(args.base_url, args.sample_interval)
+    sampler.start()
+    started = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=args.concurrency) as pool:
+        results = list(pool.map(lambda point: submit(args.base_url, qr_token, point, 30), point_ids))
+    duration = time.perf_counter() - started
+    sampler.stop()
+
+    latencies = sorted(r[0] for r in results)
+    errors = {}
+    for _, status, code in results:
+        if status != 200 or code != 200:
+            key = "HTTP %s / code %s" % (status, code)
+            errors[key] = errors.get(key, 0) + 1
+
+    report = {
+        "label": args.label,
+        "activityId": activity_id,
+        "requests": len(results),
+        "concurrency": args.concurrency,
+        "durationSeconds": round(duration, 3),
+        "throughputPerSecond": round(len(results) / duration, 1),
+        "latencyMs": {
+            "p50": round(percentile(latencies, 50), 1),
+            "p90": round(percentile(latencies, 90), 1),
+            "p99": round(percentile(latencies, 99), 1),
+            "max": round(latencies[-1], 1),
+            "mean": round(statistics.mean(latencies), 1),
+        },
+        "errors": errors,
+        "pool": {
+            "maxActive": max(sampler.samples["hikaricp.connections.active"], default=None),
+            "maxPending": max(sampler.samples["hikaricp.connections.pending"], default=None),
+            "meanPending": round(statistics.mean(sampler.samples["hikaricp.connections.pending"]), 1)
+            if sampler.samples["hikaricp.connections.pending"] else None,
+        },
+        "maxIngestQueue": max(sampler.samples["checkin.ingest.queue.size"], default=None),
+    }
+    print(json.dumps(report, ensure_ascii=False, indent=2))
+    if args.output:
+        with open(args.output, "a", encoding="utf-8") as out:
+            out.write(json.dumps(report, ensure_ascii=False) + "\n")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,143 @@
+#!/usr/bin/env python3
+# -*- coding: utf-8 -*-
+"""
+令牌验签分配率基准脚本
+
+对比签名密钥和 JwtParser 复用前后（JwtKeyManager 引入前后的两个构建）每次验签的堆分配量。
+对两个构建分别启动应用后各运行一次，比较每请求分配字节数与吞吐量。
+
+启动应用时须关闭已验签声明缓存，否则管理端请求命中缓存后不再验签：
+  java -jar we-chat-web.jar --jwt.claims-cache.max-size=0
+
+每次运行：
+  1. 以管理员登录取得访问令牌，新建一个进行中的活动并取得打卡二维码令牌
+  2. 预热后分别压测两条验签路径：
+     - auth：GET /api/auth/me（Bearer 访问令牌，AuthInterceptor 验签）
+     - qrcode：GET /api/qrcodes/verify（二维码令牌验签）
+  3. 每条路径前后读取 /actuator/metrics/jvm.gc.memory.allocated，
+     以（分配字节增量 / 请求数）作为每请求分配量
+
+jvm.gc.memory.allocated 在每次GC时累加，请求数需足够多（默认20000）以覆盖多次年轻代GC。
+仅依赖 Python 3.8+ 标准库。
+
+示例：
+  python3 test/jwt_verify_allocation_bench.py --label before --output alloc.jsonl
+  python3 test/jwt_verify_allocation_bench.py --label after  --output alloc.jsonl
+"""
+
+import argparse
+import json
+import time
+import urllib.error
+import urllib.parse
+import urllib.request
+from concurrent.futures import ThreadPoolExecutor
+from datetime import datetime, timedelta
+
+ALLOCATED_METRIC = "jvm.gc.memory.allocated"
+
+
+def call(base_url, method, path, body=None, token=None, timeout=30):
+    """发送请求，返回 (HTTP状态码, 响应JSON)"""
+    data = json.dumps(body).encode("utf-8") if body is not None else None
+    request = urllib.request.Request(base_url + path, data=data, method=method)
+    request.add_header("Content-Type", "application/json")
+    if token:
+        request.add_header("Authorization", "Bearer " + token)
+    try:
+        with urllib.request.urlopen(request, timeout=timeout) as response:
+            return response.status, json.loads(response.read() or b"null")
+    except urllib.error.HTTPError as e:
+        payload = e.read()
+        try:
+            return e.code, json.loads(payload)
+        except ValueError:
+            return e.code, None
+
+
+def require_success(status, payload, action):
+    if status != 200 or not payload or payload.get("code") != 200:
+        raise SystemExit("%s失败: HTTP %s %s" % (action, status, payload))
+    return payload.get("data")
+
+
+def prepare(args):
+    """登录、建活动、取打卡二维码令牌"""
+    login = require_success(*call(args.base_url, "POST", "/api/auth/login",
+                                  {"username": args.username, "password": args.password}), "登录")
+    access_token = login["accessToken"]
+
+    now = datetime.now()
+    activity_id = require_success(*call(args.base_url, "POST", "/api/activities", {
+        "name": "验签分配基准-%s-%s" % (args.label, now.strftime("%Y%m%d%H%M%S")),
+        "description": "jwt_verify_allocation_bench.py 自动创建",
+        "startTime": (now - timedelta(minutes=1)).strftime("%Y-%m-%dT%H:%M:%S"),
+        "endTime": (now + timedelta(days=1)).strftime("%Y-%m-%dT%H:%M:%S"),
+    }, token=access_token), "创建活动")
+
+    detail = require_success(*call(args.base_url, "GET", "/api/activities/%s" % activity_id,
+                                   token=access_token), "查询活动详情")
+    checkin_tokens = [qr["token"] for qr in detail.get("qrCodes") or [] if qr.get("type") == "checkin"]
+    if not checkin_tokens:
+        raise SystemExit("活动 %s 没有打卡二维码" % activity_id)
+    return access_token, checkin_tokens[0]
+
+
+def allocated_bytes(base_url):
+    status, payload = call(base_url, "GET", "/actuator/metrics/" + ALLOCATED_METRIC, timeout=5)
+    if status != 200 or not payload:
+        raise SystemExit("读取 %s 失败: HTTP %s" % (ALLOCATED_METRIC, status))
+    return sum(m["value"] for m in payload.get("measurements", []) if m.get("statistic") == "COUNT")
+
+
+def run_path(args, name, request):
+    """压测一条验签路径，返回分配量和吞吐量"""
+    with ThreadPoolExecutor(max_workers=args.concurrency) as pool:
+        list(pool.map(lambda _: request(), range(args.warmup)))
+
+        before = allocated_bytes(args.base_url)
+        started = time.perf_counter()
+        statuses = list(pool.map(lambda _: request(), range(args.requests)))
+        duration = time.perf_counter() - started
+        after = allocated_bytes(args.base_url)
+
+    failures = sum(1 for status in statuses if status != 200)
+    return {
+        "path": name,
+        "requests": args.requests,
+        "failures": failures,
+        "durationSeconds": round(duration, 3),
+        "throughputPerSecond": round(args.requests / duration, 1),
+        "allocatedBytes": after - before,
+        "allocatedBytesPerRequest": round((after - before) / args.requests),
+    }
+
+
+def main():
+    parser = argparse.ArgumentParser(description="令牌验签分配率基准")
+    parser.add_argument("--base-url", default="http://localhost:8080")
+    parser.add_argument("--username", default="admin")
+    parser.add_argument("--password", default="admin123")
+    parser.add_argument("--label", default="after", help="结果标签，通常为被测构建（before/after）")
+    parser.add_argument("--requests", type=int, default=20000, help="每条路径的请求数")
+    parser.add_argument("--warmup", type=int, default=5000, help="每条路径的预热请求数")
+    parser.add_argument("--concurrency", type=int, default=16, help="并发数")
+    parser.add_argument("--output", help="将结果追加写入JSON Lines文件，便于对比多次运行")
+    args = parser.parse_args()
+
+    access_token, qr_token = prepare(args)
+    verify_path = "/api/qrcodes/verify?token=" + urllib.parse.quote(qr_token)
+
+    results = [
+        run_path(args, "auth", lambda: call(args.base_url, "GET", "/api/auth/me", token=access_token)[0]),
+        run_path(args, "qrcode", lambda: call(args.base_url, "GET", verify_path)[0]),
+    ]
+    report = {"label": args.label, "concurrency": args.concurrency, "results": results}
+    print(json.dumps(report, ensure_ascii=False, indent=2))
+    if args.output:
+        with open(args.output, "a", encoding="utf-8") as out:
+            out.write(json.dumps(report, ensure_ascii=False) + "\n")
+
+
+if __name__ == "__main__":
+    main()
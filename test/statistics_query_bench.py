@@ -0,0 +1,202 @@
+#!/usr/bin/env python3
+# -*- coding: utf-8 -*-
+"""
+统计查询基准脚本
+
+对比统计查询改造前后（CheckinMapper.selectStatistics、EvaluationMapper.selectStatistics 引入前后的构建）的接口延迟。
+对两个构建分别启动应用后各运行一次，比较延迟分位数与吞吐量。
+
+- checkin：改造前 getCheckinStatistics 执行2次 COUNT、分页 COUNT 和一次加载活动全部打卡记录的查询，在Java中求和；
+  改造后为一次 COUNT(*)、SUM(attendee_count) 聚合，由覆盖索引 idx_checkins_activity_tp_attendee 支撑
+- evaluation：改造前 queryEvaluationStatistics 执行9次查询（活动查询、总数、3项平均分、3档满意度计数、建议数）；
+  改造后为一次条件聚合查询
+两组查询的执行计划与实际耗时对比见 sql/test_statistics_explain.sql（EXPLAIN ANALYZE）。
+
+改造后的构建须关闭评价统计缓存启动，否则请求命中缓存后不再查询数据库：
+  java -jar we-chat-web.jar --evaluation.statistics-cache.max-size=0
+
+每次运行：
+  1. 以管理员登录，新建一个进行中的市级活动并取得打卡二维码令牌
+  2. 读取压测教学点（sql/test_checkin_load_data.sql 生成，名称以"压测教学点-"开头），
+     为其中 --points 个教学点各提交一次打卡；随后结束活动，再为每个教学点提交一次评价
+  3. 预热后以指定并发分别请求 GET /api/checkins/statistics/{activityId}
+     和 GET /api/evaluations/statistics?activityId={activityId}，记录每次请求的延迟
+
+仅依赖 Python 3.8+ 标准库。
+
+示例：
+  python3 test/statistics_query_bench.py --label before --points 5000 --output stats.jsonl
+  python3 test/statistics_query_bench.py --label after  --points 5000 --output stats.jsonl
+"""
+
+import argparse
+import json
+import statistics
+import time
+import urllib.error
+import urllib.parse
+import urllib.request
+from concurrent.futures import ThreadPoolExecutor
+from datetime import datetime, timedelta
+
+LOAD_POINT_PREFIX = "压测教学点-"
+
+
+def call(base_url, method, path, body=None, token=None, timeout=30):
+    """发送请求，返回 (HTTP状态码, 响应JSON)"""
+    data = json.dumps(body).encode("utf-8") if body is not None else None
+    request = urllib.request.Request(base_url + path, data=data, method=method)
+    request.add_header("Content-Type", "application/json")
+    if token:
+        request.add_header("Authorization", "Bearer " + token)
+    try:
+        with urllib.request.urlopen(request, timeout=timeout) as response:
+            return response.status, json.loads(response.read() or b"null")
+    except urllib.error.HTTPError as e:
+        payload = e.read()
+        try:
+            return e.code, json.loads(payload)
+        except ValueError:
+            return e.code, None
+
+
+def require_success(status, payload, action):
+    if status != 200 or not payload or payload.get("code") != 200:
+        raise SystemExit("%s失败: HTTP %s %s" % (action, status, payload))
+    return payload.get("data")
+
+
+def prepare(args):
+    """登录、建活动、取二维码令牌和压测教学点"""
+    login = require_success(*call(args.base_url, "POST", "/api/auth/login",
+                                  {"username": args.username, "password": args.password}), "登录")
+    access_token = login["accessToken"]
+
+    now = datetime.now()
+    activity_id = require_success(*call(args.base_url, "POST", "/api/activities", {
+        "name": "统计查询基准-%s-%s" % (args.label, now.strftime("%Y%m%d%H%M%S")),
+        "description": "statistics_query_bench.py 自动创建",
+        "startTime": (now - timedelta(minutes=1)).strftime("%Y-%m-%dT%H:%M:%S"),
+        "endTime": (now + timedelta(days=1)).strftime("%Y-%m-%dT%H:%M:%S"),
+    }, token=access_token), "创建活动")
+
+    detail = require_success(*call(args.base_url, "GET", "/api/activities/%s" % activity_id,
+                                   token=access_token), "查询活动详情")
+    tokens = {qr.get("type"): qr["token"] for qr in detail.get("qrCodes") or []}
+    if "checkin" not in tokens:
+        raise SystemExit("活动 %s 没有打卡二维码" % activity_id)
+
+    options = require_success(*call(args.base_url, "GET", "/api/teaching-points/options?countyCode=%s"
+                                    % urllib.parse.quote(args.county_code)), "查询教学点")
+    point_ids = [option["id"] for option in options if option["name"].startswith(LOAD_POINT_PREFIX)]
+    if len(point_ids) < args.points:
+        raise SystemExit("压测教学点不足: 需要 %d 个，现有 %d 个（先执行 sql/test_checkin_load_data.sql 并重启应用）"
+                         % (args.points, len(point_ids)))
+    return access_token, activity_id, tokens, point_ids[:args.points]
+
+
+def seed(args, path, bodies, action):
+    """并发提交统计数据，任一失败即终止"""
+    with ThreadPoolExecutor(max_workers=args.concurrency) as pool:
+        results = list(pool.map(lambda body: call(args.base_url, "POST", path, body), bodies))
+    failures = [r for r in results if r[0] != 200 or not r[1] or r[1].get("code") != 200]
+    if failures:
+        raise SystemExit("%s失败 %d 次，例如: HTTP %s %s" % (action, len(failures), *failures[0]))
+
+
+def timed(base_url, path, token):
+    started = time.perf_counter()
+    status, payload = call(base_url, "GET", path, token=token)
+    elapsed_ms = (time.perf_counter() - started) * 1000
+    code = payload.get("code") if isinstance(payload, dict) else None
+    return elapsed_ms, status == 200 and code == 200
+
+
+def percentile(sorted_values, p):
+    if not sorted_values:
+        return 0.0
+    index = min(len(sorted_values) - 1, max(0, int(round(p / 100.0 * len(sorted_values) + 0.5)) - 1))
+    return sorted_values[index]
+
+
+def run_query(args, name, path, access_token):
+    """压测一个统计接口，返回延迟分位数和吞吐量"""
+    with ThreadPoolExecutor(max_workers=args.concurrency) as pool:
+        list(pool.map(lambda _: timed(args.base_url, path, access_token), range(args.warmup)))
+
+        started = time.perf_counter()
+        results = list(pool.map(lambda _: timed(args.base_url, path, access_token), range(args.requests)))
+        duration = time.perf_counter() - started
+
+    latencies = sorted(r[0] for r in results)
+    return {
+        "query": name,
+        "requests": len(results),
+        "failures": sum(1 for r in results if not r[1]),
+        "durationSeconds": round(duration, 3),
+        "throughputPerSecond": round(len(results) / duration, 1),
+        "latencyMs": {
+            "p50": round(percentile(latencies, 50), 2),
+            "p90": round(percentile(latencies, 90), 2),
+            "p99": round(percentile(latencies, 99), 2),
+            "max": round(latencies[-1], 2),
+            "mean": round(statistics.mean(latencies), 2),
+        },
+    }
+
+
+def main():
+    parser = argparse.ArgumentParser(description="统计查询基准")
+    parser.add_argument("--base-url", default="http://localhost:8080")
+    parser.add_argument("--username", default="admin")
+    parser.add_argument("--password", default="admin123")
+    parser.add_argument("--county-code", default="001", help="压测教学点所属县域")
+    parser.add_argument("--label", default="after", help="结果标签，通常为被测构建（before/after）")
+    parser.add_argument("--points", type=int, default=5000, help="参与统计的教学点数（每个教学点一条打卡、一条评价）")
+    parser.add_argument("--requests", type=int, default=2000, help="统计接口请求数")
+    parser.add_argument("--warmup", type=int, default=500, help="统计接口预热请求数")
+    parser.add_argument("--concurrency", type=int, default=8, help="并发数")
+    parser.add_argument("--output", help="将结果追加写入JSON Lines文件，便于对比多次运行")
+    args = parser.parse_args()
+
+    access_token, activity_id, tokens, point_ids = prepare(args)
+    seed(args, "/api/checkins/checkin", [
+        {"token": tokens["checkin"], "teachingPointId": point_id, "attendeeCount": 30}
+        for point_id in point_ids
+    ], "提交打卡")
+    require_success(*call(args.base_url, "POST", "/api/activities/%s/finish" % activity_id,
+                          token=access_token), "结束活动")
+    if "evaluation" not in tokens:
+        raise SystemExit("活动 %s 没有评价二维码" % activity_id)
+    seed(args, "/api/evaluations/evaluation", [
+        {
+            "token": tokens["evaluation"],
+            "teachingPointId": point_id,
+            "q1Satisfaction": i % 3 + 1,
+            "q2Practicality": (i + 1) % 3 + 1,
+            "q3Quality": None if i % 4 == 0 else (i + 2) % 3 + 1,
+            "suggestionText": "统计查询基准建议-%d" % i if i % 5 == 0 else None,
+        }
+        for i, point_id in enumerate(point_ids)
+    ], "提交评价")
+    print("活动 %s 已写入 %d 条打卡和评价，开始测量: label=%s" % (activity_id, len(point_ids), args.label))
+
+    results = [
+        run_query(args, "checkin", "/api/checkins/statistics/%s" % activity_id, access_token),
+        run_query(args, "evaluation", "/api/evaluations/statistics?activityId=%s" % activity_id, access_token),
+    ]
+    report = {
+        "label": args.label,
+        "activityId": activity_id,
+        "points": len(point_ids),
+        "concurrency": args.concurrency,
+        "results": results,
+    }
+    print(json.dumps(report, ensure_ascii=False, indent=2))
+    if args.output:
+        with open(args.output, "a", encoding="utf-8") as out:
+            out.write(json.dumps(report, ensure_ascii=False) + "\n")
+
+
+if __name__ == "__main__":
+    main()